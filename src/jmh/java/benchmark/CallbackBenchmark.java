@@ -0,0 +1,53 @@
+package benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import uia.application.events.TypedCallbackStore;
+import uia.application.events.CallbackStore;
+import uia.core.ui.callbacks.OnMouseHover;
+import uia.core.ui.callbacks.OnMouseExit;
+import uia.core.ui.callbacks.OnClick;
+import uia.core.basement.Callable;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the callback notification of the Callable implementations.
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CallbackBenchmark {
+
+    @Param({"CallbackStore", "TypedCallbackStore"})
+    public String implementation;
+
+    @Param({"1", "10"})
+    public int callbacksPerType;
+
+    private Callable callable;
+    private Object payload;
+
+    @Setup
+    public void setup(Blackhole blackhole) {
+        if (implementation.equals("CallbackStore")) {
+            callable = new CallbackStore(4);
+        } else {
+            callable = new TypedCallbackStore(4);
+        }
+
+        for (int i = 0; i < callbacksPerType; i++) {
+            callable.registerCallback((OnMouseHover) blackhole::consume);
+            callable.registerCallback((OnClick) blackhole::consume);
+            callable.registerCallback((OnMouseExit) blackhole::consume);
+        }
+        payload = new Object();
+    }
+
+    @Benchmark
+    public void notifyCallbacks() {
+        callable.notifyCallbacks(OnMouseHover.class, payload);
+    }
+}
@@ -0,0 +1,45 @@
+package benchmark;
+
+import org.openjdk.jmh.annotations.*;
+
+import uia.application.ui.component.text.edit.structure.CharList;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the CharList insertions and removals.
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CharListBenchmark {
+    private static final char[] WORD = "benchmark".toCharArray();
+
+    @Param({"100", "10000"})
+    public int length;
+
+    private CharList charList;
+
+    @Setup(Level.Iteration)
+    public void setup() {
+        charList = new CharList(length + WORD.length, Integer.MAX_VALUE);
+        for (int i = 0; i < length; i++) {
+            charList.add((char) ('a' + i % 26));
+        }
+    }
+
+    @Benchmark
+    public boolean insertAndRemoveCharInTheMiddle() {
+        int index = charList.size() / 2;
+        charList.add(index, 'x');
+        return charList.remove(index);
+    }
+
+    @Benchmark
+    public boolean insertAndRemoveWordInTheMiddle() {
+        int index = charList.size() / 2;
+        charList.add(index, WORD, 0, WORD.length);
+        return charList.remove(index, index + WORD.length - 1);
+    }
+}
@@ -0,0 +1,46 @@
+package benchmark;
+
+import org.openjdk.jmh.annotations.*;
+
+import uia.core.rendering.geometry.GeometryCollection;
+import uia.core.rendering.geometry.GeometryUtility;
+import uia.core.rendering.geometry.Geometry;
+import uia.core.basement.Collidable;
+import uia.core.rendering.Transform;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the point-in-geometry check for each collider policy.
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class GeometryBenchmark {
+
+    @Param({"AABB", "CIRCLE", "SAT"})
+    public Collidable.ColliderPolicy colliderPolicy;
+
+    private Geometry geometry;
+    private Transform transform;
+
+    @Setup
+    public void setup() {
+        geometry = GeometryCollection.rect(new Geometry(), GeometryCollection.STD_VERT, 0.25f, 1f);
+        transform = new Transform()
+                .setTranslation(200f, 150f)
+                .setScale(300f, 100f)
+                .setRotation(0.5f);
+    }
+
+    @Benchmark
+    public boolean containsInside() {
+        return GeometryUtility.contains(colliderPolicy, transform, geometry, 210f, 140f);
+    }
+
+    @Benchmark
+    public boolean containsOutside() {
+        return GeometryUtility.contains(colliderPolicy, transform, geometry, 30f, 290f);
+    }
+}
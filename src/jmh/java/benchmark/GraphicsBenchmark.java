@@ -0,0 +1,47 @@
+package benchmark;
+
+import org.openjdk.jmh.annotations.*;
+
+import uia.core.rendering.geometry.GeometryCollection;
+import adaptor.swing.graphics.GraphicsAWTUtility;
+import uia.core.rendering.geometry.Geometry;
+import uia.core.rendering.Transform;
+
+import java.util.concurrent.TimeUnit;
+import java.awt.geom.Path2D;
+
+/**
+ * Benchmarks the construction of the AWT shapes.
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class GraphicsBenchmark {
+
+    @Param({"4", "25", "100"})
+    public int vertices;
+
+    private float[] geometryVertices;
+    private int geometryLength;
+    private Transform transform;
+    private Path2D path;
+
+    @Setup
+    public void setup() {
+        Geometry geometry = GeometryCollection.rect(new Geometry(), vertices, 0.25f, 1f);
+        geometryVertices = geometry.toArray();
+        geometryLength = geometry.vertices();
+        transform = new Transform()
+                .setTranslation(200f, 150f)
+                .setScale(300f, 100f)
+                .setRotation(0.5f);
+        path = new Path2D.Float();
+    }
+
+    @Benchmark
+    public Path2D buildShape() {
+        GraphicsAWTUtility.buildShape(transform, geometryLength, geometryVertices, path);
+        return path;
+    }
+}
@@ -0,0 +1,93 @@
+package benchmark;
+
+import org.openjdk.jmh.annotations.*;
+
+import uia.application.message.messagingsystem.MessagingSystem;
+import uia.application.message.store.ConcreteMessageStore;
+import uia.application.message.store.GlobalMessageStore;
+import uia.application.ui.component.ComponentHiddenRoot;
+import uia.application.message.MessageFactory;
+import uia.application.ui.component.Component;
+import uia.application.ui.group.ComponentGroup;
+import uia.core.ui.primitives.ScreenTouch;
+import uia.core.basement.message.Message;
+import uia.core.ui.ViewGroup;
+import uia.core.ui.View;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the message dispatching over synthetic view trees.
+ * <br>
+ * Each benchmark invocation sends a batch of messages and dispatches them to a root group
+ * whose children are laid out on a grid.
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MessagingBenchmark {
+    private static final int MESSAGES_PER_BATCH = 16;
+
+    @Param({"100", "1000", "10000", "100000"})
+    public int views;
+
+    private GlobalMessageStore globalMessageStore;
+    private MessagingSystem messagingSystem;
+    private Message[] screenTouchMessages;
+    private Message[] genericMessages;
+    private ViewGroup root;
+
+    @Setup
+    public void setup() {
+        globalMessageStore = GlobalMessageStore.getInstance();
+        globalMessageStore.mount(new ConcreteMessageStore());
+        messagingSystem = new MessagingSystem();
+
+        // builds the tree
+        int columns = (int) Math.ceil(Math.sqrt(views));
+        float cellSize = 1f / columns;
+        root = new ComponentGroup(new Component("ROOT", 0.5f, 0.5f, 1f, 1f));
+        for (int i = 0; i < views; i++) {
+            float x = (i % columns + 0.5f) * cellSize;
+            float y = (i / columns + 0.5f) * cellSize;
+            root.insert(root.size(), new Component("VIEW_" + i, x, y, cellSize, cellSize));
+        }
+        View hiddenRoot = new ComponentHiddenRoot();
+        hiddenRoot.getStyle()
+                .setPosition(0, 0)
+                .setDimension(1920, 1080);
+        root.update(hiddenRoot);
+
+        // creates the messages
+        screenTouchMessages = new Message[MESSAGES_PER_BATCH];
+        genericMessages = new Message[MESSAGES_PER_BATCH];
+        for (int i = 0; i < MESSAGES_PER_BATCH; i++) {
+            ScreenTouch screenTouch = new ScreenTouch(ScreenTouch.Action.MOVED, ScreenTouch.Button.LEFT,
+                    100 + i * 50, 100 + i * 25, 0);
+            screenTouchMessages[i] = MessageFactory.create(screenTouch, null);
+            genericMessages[i] = MessageFactory.create("payload", "VIEW_" + (i % views));
+        }
+    }
+
+    /**
+     * Helper function. Sends the given messages and dispatches them to the tree.
+     */
+
+    private void sendAndDispatch(Message[] messages) {
+        for (Message message : messages) {
+            globalMessageStore.add(message);
+        }
+        messagingSystem.sendMessagesTo(root);
+    }
+
+    @Benchmark
+    public void dispatchScreenTouchMessages() {
+        sendAndDispatch(screenTouchMessages);
+    }
+
+    @Benchmark
+    public void dispatchGenericMessages() {
+        sendAndDispatch(genericMessages);
+    }
+}
@@ -0,0 +1,62 @@
+package benchmark;
+
+import org.openjdk.jmh.annotations.*;
+
+import uia.application.ui.component.text.renderer.MultilineTextRenderer;
+import uia.application.ui.component.text.ComponentText;
+import uia.application.ui.component.ComponentHiddenRoot;
+import uia.application.ui.component.Component;
+import adaptor.swing.graphics.GraphicsAWT;
+import uia.core.ui.ViewText;
+import uia.core.ui.View;
+
+import java.util.concurrent.TimeUnit;
+import java.awt.image.BufferedImage;
+import java.awt.Graphics2D;
+
+/**
+ * Benchmarks the multiline text rendering on a GraphicsAWT backed by a headless BufferedImage.
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TextRendererBenchmark {
+    private static final String TEXT = "Lorem ipsum dolor sit amet, consectetur adipiscing elit.\n"
+            + "Sed do eiusmod tempor incididunt ut labore et dolore magna aliqua.\n"
+            + "Ut enim ad minim veniam, quis nostrud exercitation ullamco laboris.\n"
+            + "Duis aute irure dolor in reprehenderit in voluptate velit esse.";
+
+    private Graphics2D graphics2D;
+    private GraphicsAWT graphics;
+    private MultilineTextRenderer textRenderer;
+    private ViewText viewText;
+
+    @Setup
+    public void setup() {
+        BufferedImage image = new BufferedImage(800, 600, BufferedImage.TYPE_INT_ARGB);
+        graphics2D = image.createGraphics();
+        graphics = new GraphicsAWT(() -> graphics2D);
+        textRenderer = new MultilineTextRenderer();
+
+        viewText = new ComponentText(new Component("TEXT", 0.5f, 0.5f, 0.8f, 0.8f));
+        viewText.setText(TEXT);
+        View root = new ComponentHiddenRoot();
+        root.getStyle()
+                .setPosition(0, 0)
+                .setDimension(800, 600);
+        viewText.update(root);
+        // builds the font metrics
+        graphics.setFont(viewText.getStyle().getFont());
+    }
+
+    @TearDown
+    public void tearDown() {
+        graphics2D.dispose();
+    }
+
+    @Benchmark
+    public float drawMultilineText() {
+        return textRenderer.draw(viewText, graphics, TEXT, 40f, 40f, 0f);
+    }
+}
@@ -0,0 +1,284 @@
+package adaptor.swing;
+
+import uia.application.message.store.GlobalMessageStore;
+import uia.application.input.SynchronousEmulatedInput;
+import uia.core.basement.message.MessageStore;
+import uia.core.context.FrameScheduler;
+import uia.core.context.window.Window;
+import uia.core.context.InputEmulator;
+import uia.core.context.Context;
+import uia.utility.Timer;
+import uia.core.ui.View;
+
+import java.util.function.LongSupplier;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.Objects;
+import java.awt.*;
+
+/**
+ * UIa {@link Context} implementation that renders into an off-screen image.
+ * <br>
+ * It doesn't need a display, so it can be used with {@code java.awt.headless=true}; for instance,
+ * to run tests and benchmarks.
+ * <br>
+ * <br>
+ * <b>Implementation choices</b>
+ * <ul>
+ *  <li>there is no rendering thread: frames are produced on the caller thread by {@link #step(int)},
+ *  so the {@link FrameScheduler} is not used;</li>
+ *  <li>time is virtual: each frame advances the {@link Timer} clock by a fixed time step,
+ *  see {@link #setTimeStep(float)};</li>
+ *  <li>the virtual clock is installed only on the thread that steps this Context, and the damaged region
+ *  belongs to its rendering engine, so other contexts keep running on their own time and damages;</li>
+ *  <li>input emulation is synchronous: emulated events are delivered on the next frame and
+ *  mouse movements are spread over the virtual time;</li>
+ *  <li>the clipboard is private to this Context.</li>
+ * </ul>
+ * <b>Usage example:</b>
+ * <br>
+ * <code>
+ * ContextHeadless context = ContextHeadless.createAndStart(1000, 500);
+ * <br>
+ * context.setView(view);
+ * <br>
+ * context.step(10);
+ * <br>
+ * BufferedImage frame = context.getImage();
+ * </code>
+ */
+
+public class ContextHeadless implements Context {
+    private LifecycleStage lifecycleStage = LifecycleStage.PAUSED;
+
+    private final RenderingEngineSwing renderingEngine;
+    private final SynchronousEmulatedInput inputEmulator;
+    private final WindowHeadless window;
+
+    private BufferedImage image;
+    private Graphics2D imageGraphics;
+    private String clipboard;
+
+    private final float[] drawableBounds = new float[4];
+    private final float[] damagedArea = new float[4];
+    private final long initialTime;
+    private double elapsedMillis = 0d;
+    private float timeStep = 1f / 60;
+
+    public ContextHeadless(int windowWidth, int windowHeight) {
+        renderingEngine = new RenderingEngineSwing();
+
+        window = new WindowHeadless(windowWidth, windowHeight);
+
+        MessageStore globalMessageStore = GlobalMessageStore.getInstance();
+        inputEmulator = new SynchronousEmulatedInput(globalMessageStore::add);
+
+        initialTime = System.currentTimeMillis();
+        createImage(windowWidth, windowHeight);
+    }
+
+    /**
+     * Helper method. Creates the image used to store the rendered frames.
+     */
+
+    private void createImage(int width, int height) {
+        if (imageGraphics != null) {
+            imageGraphics.dispose();
+        }
+        image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        imageGraphics = image.createGraphics();
+    }
+
+    @Override
+    public void setView(View view) {
+        renderingEngine.setView(view);
+    }
+
+    /**
+     * Enables or disables the incremental rendering.
+     *
+     * @param incrementalRendering true to repaint only the image area changed by the View;
+     *                             false to repaint the whole View on each frame
+     */
+
+    public void setIncrementalRendering(boolean incrementalRendering) {
+        renderingEngine.setIncrementalRendering(incrementalRendering);
+    }
+
+    /**
+     * Enables or disables the display list rendering.
+     *
+     * @param displayListRendering true to record the View draw operations and replay them sorted by state
+     */
+
+    public void setDisplayListRendering(boolean displayListRendering) {
+        renderingEngine.setDisplayListRendering(displayListRendering);
+    }
+
+    /**
+     * Sets the virtual time elapsed between two frames.
+     *
+     * @param seconds the time step in seconds; by default 1/60 of second
+     * @throws IllegalArgumentException if {@code seconds <= 0}
+     */
+
+    public void setTimeStep(float seconds) {
+        if (seconds <= 0) {
+            throw new IllegalArgumentException("'seconds' must be greater than zero");
+        }
+        timeStep = seconds;
+    }
+
+    /**
+     * @return the virtual time elapsed between two frames in seconds
+     */
+
+    public float getTimeStep() {
+        return timeStep;
+    }
+
+    /**
+     * Helper method. Updates the View and repaints the damaged area, if any.
+     */
+
+    private void processFrame() {
+        int width = window.getViewportWidth();
+        int height = window.getViewportHeight();
+        if (image.getWidth() != width || image.getHeight() != height) {
+            createImage(width, height);
+        }
+        drawableBounds[2] = width;
+        drawableBounds[3] = height;
+
+        inputEmulator.advance(timeStep);
+        renderingEngine.update(drawableBounds, window.isFocused());
+        if (renderingEngine.collectDamagedArea(drawableBounds, damagedArea)) {
+            int x = (int) Math.floor(damagedArea[0]);
+            int y = (int) Math.floor(damagedArea[1]);
+            int areaWidth = (int) Math.ceil(damagedArea[0] + damagedArea[2]) - x;
+            int areaHeight = (int) Math.ceil(damagedArea[1] + damagedArea[3]) - y;
+
+            Graphics2D graphics = (Graphics2D) imageGraphics.create();
+            try {
+                graphics.clipRect(x, y, areaWidth, areaHeight);
+                // clears the damaged area
+                graphics.setComposite(AlphaComposite.Clear);
+                graphics.fillRect(x, y, areaWidth, areaHeight);
+                graphics.setComposite(AlphaComposite.SrcOver);
+                renderingEngine.draw(graphics);
+            } finally {
+                graphics.dispose();
+            }
+        }
+    }
+
+    /**
+     * Produces the given number of frames on the caller thread.
+     * <br>
+     * For each frame, the virtual time advances by the time step, the due emulated input is delivered,
+     * the View is updated and the damaged area is drawn on the image.
+     *
+     * @param frames the number of frames to produce
+     * @throws IllegalArgumentException if {@code frames < 0}
+     * @throws IllegalStateException    if this Context is not at the {@link LifecycleStage#RUNNING} stage
+     */
+
+    public void step(int frames) {
+        if (frames < 0) {
+            throw new IllegalArgumentException("'frames' must be >= 0");
+        }
+        if (lifecycleStage != LifecycleStage.RUNNING) {
+            throw new IllegalStateException("the Context must be running to produce frames");
+        }
+
+        LongSupplier virtualClock = () -> initialTime + Math.round(elapsedMillis);
+        LongSupplier previousClock = Timer.setClock(virtualClock);
+        try {
+            for (int i = 0; i < frames; i++) {
+                elapsedMillis += 1_000d * timeStep;
+                processFrame();
+            }
+        } finally {
+            Timer.setClock(previousClock);
+        }
+    }
+
+    /**
+     * @return the image that contains the last rendered frame
+     */
+
+    public BufferedImage getImage() {
+        return image;
+    }
+
+    @Override
+    public void setLifecycleStage(LifecycleStage lifecycleStage) {
+        Objects.requireNonNull(lifecycleStage, "'lifecycleStage' can't be null");
+        if (lifecycleStage.equals(this.lifecycleStage)) {
+            return;
+        }
+        if (LifecycleStage.TERMINATED.equals(this.lifecycleStage)) {
+            throw new IllegalStateException("a terminated Context can't be resumed");
+        }
+
+        this.lifecycleStage = lifecycleStage;
+        if (LifecycleStage.TERMINATED.equals(lifecycleStage)) {
+            window.destroy();
+            imageGraphics.dispose();
+        }
+    }
+
+    @Override
+    public LifecycleStage getLifecycleStage() {
+        return lifecycleStage;
+    }
+
+    @Override
+    public void setRenderingHint(RenderingHint... hints) {
+        renderingEngine.setHints(Arrays.asList(hints));
+    }
+
+    @Override
+    public Window getWindow() {
+        return window;
+    }
+
+    @Override
+    public InputEmulator getInputEmulator() {
+        return inputEmulator;
+    }
+
+    @Override
+    public void setFrameScheduler(FrameScheduler frameScheduler) {
+        Objects.requireNonNull(frameScheduler, "'frameScheduler' can't be null");
+    }
+
+    @Override
+    public void requestFrame() {
+        // frames are produced on demand by step(int)
+    }
+
+    @Override
+    public String clipboard(ClipboardOperation operation, String stringToBeCopied) {
+        if (ClipboardOperation.COPY.equals(operation)) {
+            clipboard = stringToBeCopied;
+            return null;
+        }
+        return clipboard;
+    }
+
+    /**
+     * Creates a new ContextHeadless and starts it.
+     *
+     * @param windowWidth  the image width in pixels
+     * @param windowHeight the image height in pixels
+     * @return a new {@link ContextHeadless} instance
+     */
+
+    public static ContextHeadless createAndStart(int windowWidth, int windowHeight) {
+        ContextHeadless context = new ContextHeadless(windowWidth, windowHeight);
+        context.getWindow().setVisible(true);
+        context.setLifecycleStage(LifecycleStage.RUNNING);
+        return context;
+    }
+}
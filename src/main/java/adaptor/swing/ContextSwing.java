@@ -1,17 +1,21 @@
 package adaptor.swing;
 
 import uia.application.message.store.GlobalMessageStore;
-import uia.core.basement.message.MessageStore;
+import uia.application.scheduler.FixedFrameScheduler;
+import uia.core.context.window.OnWindowGainedFocus;
+import uia.core.context.window.OnWindowLostFocus;
+import uia.core.context.window.OnWindowResized;
 import uia.application.input.EmulatedInput;
+import uia.core.context.FrameScheduler;
 import uia.core.context.window.Window;
 import uia.core.context.InputEmulator;
 import uia.core.context.Context;
 import uia.core.ui.View;
 
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.TimeUnit;
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.locks.LockSupport;
 import java.awt.datatransfer.*;
+import javax.swing.SwingUtilities;
 import java.util.*;
 import java.awt.*;
 
@@ -21,7 +25,17 @@ import java.awt.*;
  * <br>
  * <b>Implementation choices</b>
  * <ul>
- *  <li>rendering is scheduled to happen 30 times per second (aka 30 FPS) </li>
+ *  <li>by default, rendering is scheduled to happen 30 times per second (aka 30 FPS). Use
+ *  {@link #setFrameScheduler(FrameScheduler)} to change the scheduling policy;</li>
+ *  <li>frames are produced by a dedicated thread that waits for each frame to be painted before
+ *  scheduling the next one, so frames never pile up;</li>
+ *  <li>rendering is incremental: only the screen area changed by the View is repainted and, when nothing
+ *  changed, the frame is skipped. Use {@link #setIncrementalRendering(boolean)} to disable it;</li>
+ *  <li>by default, messages are dispatched and the View is updated and drawn on the AWT event dispatching thread.
+ *  Use {@link #setSnapshotRendering(boolean)} to dispatch and update on the rendering thread, so that the
+ *  AWT event dispatching thread only paints the latest snapshot of the View;</li>
+ *  <li>by default, frames are painted through the Swing repaint mechanism. Use {@link #setActiveRendering(boolean)}
+ *  to paint and present each frame directly on an accelerated buffer strategy.</li>
  * </ul>
  * <b>Usage example:</b>
  * <br>
@@ -31,21 +45,38 @@ import java.awt.*;
  */
 
 public class ContextSwing implements Context {
-    private static final int FPS_30 = 1_000 / 30;
+    private static final int DEFAULT_FPS = 30;
 
     private LifecycleStage lifecycleStage = LifecycleStage.PAUSED;
-    private ScheduledExecutorService renderingThread;
+    private volatile Thread renderingThread;
 
+    private final GlobalMessageStore globalMessageStore = GlobalMessageStore.getInstance();
+    private final Runnable frameRequester = this::requestFrame;
     private final RenderingEngineSwing renderingEngine;
     private final InputEmulator inputEmulator;
     private final WindowSwing window;
 
+    private volatile FrameScheduler frameScheduler = new FixedFrameScheduler(DEFAULT_FPS);
+    private volatile boolean isFrameRequested = false;
+    private volatile boolean snapshotRendering = false;
+    private final float[] drawableBounds = new float[4];
+    private final float[] damagedArea = new float[4];
+    private boolean isIdle = false;
+
     public ContextSwing(int windowWidth, int windowHeight) {
         renderingEngine = new RenderingEngineSwing();
 
         window = new WindowSwing(windowWidth, windowHeight);
+        // window changes are not sent as messages
+        window.registerCallback((OnWindowResized) w -> requestFrame());
+        window.registerCallback((OnWindowGainedFocus) w -> requestFrame());
+        window.registerCallback((OnWindowLostFocus) w -> requestFrame());
+        // the active rendering must repaint the uncovered window
+        window.setOnExposed(() -> {
+            renderingEngine.getDamageRegion().invalidateAll();
+            requestFrame();
+        });
 
-        MessageStore globalMessageStore = GlobalMessageStore.getInstance();
         inputEmulator = new EmulatedInput(globalMessageStore::add);
     }
 
@@ -54,15 +85,201 @@ public class ContextSwing implements Context {
         renderingEngine.setView(view);
     }
 
+    /**
+     * Enables or disables the incremental rendering.
+     *
+     * @param incrementalRendering true to repaint only the screen area changed by the View;
+     *                             false to repaint the whole View on each frame
+     */
+
+    public void setIncrementalRendering(boolean incrementalRendering) {
+        renderingEngine.setIncrementalRendering(incrementalRendering);
+    }
+
+    /**
+     * Enables or disables the display list rendering.
+     *
+     * @param displayListRendering true to record the View draw operations and replay them sorted by state
+     */
+
+    public void setDisplayListRendering(boolean displayListRendering) {
+        renderingEngine.setDisplayListRendering(displayListRendering);
+    }
+
+    /**
+     * Enables or disables the snapshot rendering.
+     * <br>
+     * When enabled, messages are dispatched and the View is updated and recorded into a snapshot on the
+     * rendering thread; the AWT event dispatching thread only paints the latest snapshot. So, slow
+     * callbacks no longer freeze the input handling and the painting. On the other hand, View callbacks
+     * no longer run on the AWT event dispatching thread: callbacks that use Swing directly must use
+     * {@link SwingUtilities#invokeLater(Runnable)}.
+     *
+     * @param snapshotRendering true to update the View on the rendering thread and paint snapshots of it
+     */
+
+    public void setSnapshotRendering(boolean snapshotRendering) {
+        this.snapshotRendering = snapshotRendering;
+        renderingEngine.setSnapshotRendering(snapshotRendering);
+        requestFrame();
+    }
+
+    /**
+     * Enables or disables the active rendering.
+     * <br>
+     * When enabled, each frame is painted on an accelerated buffer strategy and presented as soon as it is ready,
+     * instead of being scheduled by the Swing RepaintManager. When acceleration is unavailable,
+     * frames are painted through the Swing repaint mechanism.
+     *
+     * @param activeRendering true to paint and present frames directly
+     */
+
+    public void setActiveRendering(boolean activeRendering) {
+        window.setActiveRendering(activeRendering);
+        renderingEngine.getDamageRegion().invalidateAll();
+        requestFrame();
+    }
+
+    @Override
+    public void setFrameScheduler(FrameScheduler frameScheduler) {
+        Objects.requireNonNull(frameScheduler, "'frameScheduler' can't be null");
+        this.frameScheduler = frameScheduler;
+        // the current wait could be based on the previous scheduler
+        requestFrame();
+    }
+
+    @Override
+    public void requestFrame() {
+        isFrameRequested = true;
+        Thread thread = renderingThread;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    /**
+     * Helper method. Updates the View and paints the damaged area, if any.
+     * <br>
+     * It must be invoked on the AWT event dispatching thread.
+     */
+
+    private void processFrame() {
+        drawableBounds[2] = window.getViewportWidth();
+        drawableBounds[3] = window.getViewportHeight();
+
+        boolean hasMessages = globalMessageStore.size() > 0;
+        renderingEngine.update(drawableBounds, window.isFocused());
+        boolean isDamaged = renderingEngine.collectDamagedArea(drawableBounds, damagedArea);
+        if (isDamaged && !window.present(renderingEngine::draw, damagedArea)) {
+            window.refresh(renderingEngine::draw, damagedArea);
+        }
+        isIdle = !hasMessages && !isDamaged;
+    }
+
+    /**
+     * Helper method. Updates the View and, when the previous snapshot has been painted,
+     * records the damaged View into a new snapshot and requests to paint it.
+     * <br>
+     * It is invoked on the rendering thread.
+     */
+
+    private void processSnapshotFrame() {
+        drawableBounds[2] = window.getViewportWidth();
+        drawableBounds[3] = window.getViewportHeight();
+
+        boolean hasMessages = globalMessageStore.size() > 0;
+        renderingEngine.update(drawableBounds, window.isFocused());
+        // the damaged area is kept until the previous snapshot has been painted
+        boolean isSnapshotPainted = renderingEngine.isSnapshotPainted();
+        boolean isDamaged = false;
+        if (isSnapshotPainted) {
+            isDamaged = renderingEngine.collectDamagedArea(drawableBounds, damagedArea);
+            if (isDamaged) {
+                renderingEngine.recordSnapshot();
+                if (!window.present(renderingEngine::draw, damagedArea)) {
+                    window.refreshLater(renderingEngine::draw, damagedArea);
+                }
+            }
+        }
+        isIdle = !hasMessages && !isDamaged && isSnapshotPainted;
+    }
+
+    /**
+     * Helper method. Waits until the next frame must be produced.
+     *
+     * @param frameStart     the start time of the last frame in nanoseconds
+     * @param framePeriod    the time between the start of the last frame and the start of the next one,
+     *                       or {@link FrameScheduler#WAIT_FOR_CHANGES}
+     * @param minFramePeriod the minimum time between the start of two frames
+     * @throws InterruptedException if the rendering thread is interrupted while waiting
+     */
+
+    private void waitForNextFrame(long frameStart, long framePeriod, long minFramePeriod)
+            throws InterruptedException {
+        boolean waitForChanges = framePeriod == FrameScheduler.WAIT_FOR_CHANGES;
+        while (true) {
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+
+            long elapsedTime = System.nanoTime() - frameStart;
+            if ((!waitForChanges && elapsedTime >= framePeriod)
+                    || (isFrameRequested && elapsedTime >= minFramePeriod)) {
+                return;
+            }
+
+            if (isFrameRequested) {
+                LockSupport.parkNanos(this, minFramePeriod - elapsedTime);
+            } else if (waitForChanges) {
+                LockSupport.park(this);
+            } else {
+                LockSupport.parkNanos(this, framePeriod - elapsedTime);
+            }
+        }
+    }
+
+    /**
+     * Helper method. Produces frames until the rendering thread is interrupted.
+     * <br>
+     * Each frame is processed on the AWT event dispatching thread and the next one is not scheduled
+     * until it has been painted. With the snapshot rendering, frames are processed on the rendering thread.
+     */
+
+    private void runFrameLoop() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                long frameStart = System.nanoTime();
+                isFrameRequested = false;
+                if (snapshotRendering) {
+                    processSnapshotFrame();
+                } else {
+                    try {
+                        SwingUtilities.invokeAndWait(this::processFrame);
+                    } catch (InvocationTargetException error) {
+                        error.getCause().printStackTrace();
+                    }
+                }
+                long frameTime = System.nanoTime() - frameStart;
+
+                FrameScheduler scheduler = frameScheduler;
+                long framePeriod = scheduler.nextFramePeriod(frameTime, isIdle);
+                waitForNextFrame(frameStart, framePeriod, scheduler.getMinFramePeriod());
+            }
+        } catch (InterruptedException ignored) {
+            // the rendering process has been stopped
+        }
+    }
+
     /**
      * Helper method. Kills the rendering process.
      */
 
     private void killRenderingThread() {
-        try {
-            renderingThread.shutdownNow();
-        } catch (Exception ignored) {
-            //
+        globalMessageStore.removeMessageListener(frameRequester);
+        Thread thread = renderingThread;
+        renderingThread = null;
+        if (thread != null) {
+            thread.interrupt();
         }
     }
 
@@ -79,21 +296,11 @@ public class ContextSwing implements Context {
         this.lifecycleStage = lifecycleStage;
         switch (lifecycleStage) {
             case RUNNING:
-                final float[] drawableBounds = new float[4];
-
                 // creates and starts the rendering thread
-                renderingThread = Executors.newSingleThreadScheduledExecutor();
-                renderingThread.scheduleAtFixedRate(() -> {
-                            drawableBounds[2] = window.getViewportWidth();
-                            drawableBounds[3] = window.getViewportHeight();
-
-                            window.refresh(graphics -> renderingEngine.draw(
-                                    graphics,
-                                    drawableBounds,
-                                    window.isFocused())
-                            );
-                        },
-                        0, FPS_30, TimeUnit.MILLISECONDS);
+                renderingThread = new Thread(this::runFrameLoop, "UIa rendering thread");
+                renderingThread.start();
+                // new messages wake up the rendering thread
+                globalMessageStore.addMessageListener(frameRequester);
                 break;
             case PAUSED:
                 killRenderingThread();
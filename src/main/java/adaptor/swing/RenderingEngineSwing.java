@@ -1,39 +1,97 @@
 package adaptor.swing;
 
 import uia.application.message.messagingsystem.MessagingSystem;
+import uia.application.message.store.GlobalMessageStore;
 import uia.application.resourcetracker.DefaultSystemProperties;
 import uia.application.ui.component.ComponentHiddenRoot;
 import uia.application.resourcetracker.SystemTracker;
+import uia.application.resourcetracker.FrameProfiler;
+import uia.application.ui.DamageRegion;
+import uia.core.rendering.RecordingGraphics;
 import uia.core.rendering.Graphics;
 import uia.core.context.Context;
 import uia.utility.Timer;
 import uia.core.ui.View;
 
+import adaptor.swing.graphics.GraphicsAWTUtility;
 import adaptor.swing.graphics.GraphicsAWT;
 
 import java.util.ArrayList;
 import java.util.Objects;
+import java.util.Arrays;
 import java.util.List;
 import java.awt.*;
 
 /**
  * The RenderingEngineSwing is responsible for rendering a single view
  * on the AWT graphics.
+ * <br>
+ * <br>
+ * <b>Incremental rendering</b>
+ * <br>
+ * Rendering is split into two phases: {@link #update(float[], boolean)} dispatches messages and updates
+ * the view; {@link #draw(java.awt.Graphics)} draws it. Between them, {@link #collectDamagedArea(float[], float[])}
+ * returns the area changed by the update so that only that area is repainted. When nothing changed,
+ * the frame can be skipped entirely.
+ * <br>
+ * <br>
+ * <b>Profiling</b>
+ * <br>
+ * Each frame starts with {@link #update(float[], boolean)}. The engine measures the time spent dispatching
+ * messages, updating and drawing the view and the time between the end of the update and the end of the
+ * draw (paint latency), then reports them to the {@link FrameProfiler}.
+ * <br>
+ * <br>
+ * <b>Display list rendering</b>
+ * <br>
+ * When enabled with {@link #setDisplayListRendering(boolean)}, the View is drawn on a {@link RecordingGraphics}
+ * whose commands are then replayed, sorted by state, on the screen. As long as no area is damaged, a new
+ * paint request (for instance, when the window is uncovered) replays the last recording without visiting the View.
+ * <br>
+ * <br>
+ * <b>Snapshot rendering</b>
+ * <br>
+ * When enabled with {@link #setSnapshotRendering(boolean)}, the update and the recording of the View happen on
+ * a logic thread while the AWT event dispatching thread only rasterizes the latest recorded snapshot.
+ * Snapshots are double-buffered: {@link #recordSnapshot()} records the View into the back snapshot and publishes
+ * it, while {@link #draw(java.awt.Graphics)} replays the front one. A new snapshot is recorded only when the
+ * previous one has been painted (see {@link #isSnapshotPainted()}), so no snapshot is ever dropped.
  */
 
 public class RenderingEngineSwing {
+    private static final int MIN_BUDGETED_FRAME_RATE = 30;
+
     private final SystemTracker tracker = SystemTracker.getInstance();
+    private final FrameProfiler frameProfiler = FrameProfiler.getInstance();
+    private final GlobalMessageStore globalMessageStore = GlobalMessageStore.getInstance();
+    private final DamageRegion damageRegion = new DamageRegion();
 
     private final List<Context.RenderingHint> renderingHints;
     private final MessagingSystem messagingSystem;
     private final Timer timer;
 
+    private final RecordingGraphics recordingGraphics;
     private final Graphics graphics;
     private final View rootView;
     private View view;
 
     private Graphics2D thirdPartyGraphics;
 
+    private final float[] previousDrawableBounds = new float[4];
+    private boolean incrementalRendering = true;
+    private boolean displayListRendering = false;
+    private long recordedDamageCount = -1L;
+
+    private final RecordingGraphics[] snapshots;
+    private final Object snapshotLock = new Object();
+    private volatile boolean snapshotRendering = false;
+    private boolean isSnapshotPainted = true;
+    private long snapshotUpdateEndTime = -1L;
+    private int frontSnapshot = 0;
+
+    private long droppedMessages;
+    private long updateEndTime = -1L;
+
     private int frameRate;
     private int frameCount;
     private float lastFrameCount;
@@ -43,6 +101,15 @@ public class RenderingEngineSwing {
 
         graphics = new GraphicsAWT(() -> thirdPartyGraphics);
 
+        // the fonts are built while recording, so the text is laid out as when drawn directly
+        recordingGraphics = new RecordingGraphics(GraphicsAWTUtility::createFont);
+
+        // the fonts are built and copied by the logic thread, so the painting thread never reads a changing font
+        snapshots = new RecordingGraphics[]{
+                new RecordingGraphics(GraphicsAWTUtility::createFont),
+                new RecordingGraphics(GraphicsAWTUtility::createFont)
+        };
+
         rootView = new ComponentHiddenRoot();
 
         timer = new Timer();
@@ -51,6 +118,17 @@ public class RenderingEngineSwing {
         renderingHints.add(Context.RenderingHint.ANTIALIASING_ON);
     }
 
+    /**
+     * Returns the DamageRegion of this engine. It is bound to the threads that update and draw the View
+     * while they do so.
+     *
+     * @return the {@link DamageRegion} that collects the areas of the View to be redrawn
+     */
+
+    public DamageRegion getDamageRegion() {
+        return damageRegion;
+    }
+
     /**
      * Sets a View to be drawn.
      *
@@ -59,6 +137,147 @@ public class RenderingEngineSwing {
 
     public void setView(View view) {
         this.view = view;
+        damageRegion.invalidateAll();
+    }
+
+    /**
+     * Enables or disables the incremental rendering. When disabled, the whole view is redrawn on each frame.
+     *
+     * @param incrementalRendering true to redraw only the damaged area
+     */
+
+    public void setIncrementalRendering(boolean incrementalRendering) {
+        this.incrementalRendering = incrementalRendering;
+        damageRegion.invalidateAll();
+    }
+
+    /**
+     * @return true if the incremental rendering is enabled
+     */
+
+    public boolean isIncrementalRendering() {
+        return incrementalRendering;
+    }
+
+    /**
+     * Enables or disables the display list rendering.
+     *
+     * @param displayListRendering true to record the View draw operations and replay them sorted by state
+     */
+
+    public void setDisplayListRendering(boolean displayListRendering) {
+        this.displayListRendering = displayListRendering;
+        recordingGraphics.clear();
+        damageRegion.invalidateAll();
+    }
+
+    /**
+     * @return true if the display list rendering is enabled
+     */
+
+    public boolean isDisplayListRendering() {
+        return displayListRendering;
+    }
+
+    /**
+     * Enables or disables the snapshot rendering.
+     *
+     * @param snapshotRendering true to rasterize, on {@link #draw(java.awt.Graphics)}, the snapshot recorded
+     *                          by the logic thread with {@link #recordSnapshot()}
+     */
+
+    public void setSnapshotRendering(boolean snapshotRendering) {
+        this.snapshotRendering = snapshotRendering;
+        synchronized (snapshotLock) {
+            for (RecordingGraphics snapshot : snapshots) {
+                snapshot.clear();
+            }
+            isSnapshotPainted = true;
+        }
+        damageRegion.invalidateAll();
+    }
+
+    /**
+     * @return true if the snapshot rendering is enabled
+     */
+
+    public boolean isSnapshotRendering() {
+        return snapshotRendering;
+    }
+
+    /**
+     * @return true if the latest published snapshot has been painted and a new one can be recorded
+     */
+
+    public boolean isSnapshotPainted() {
+        synchronized (snapshotLock) {
+            return isSnapshotPainted;
+        }
+    }
+
+    /**
+     * Records the View into the back snapshot and publishes it as the snapshot to be painted.
+     * <br>
+     * It must be invoked by the thread that updates the View, after {@link #update(float[], boolean)}.
+     */
+
+    public void recordSnapshot() {
+        DamageRegion previousDamageRegion = DamageRegion.bind(damageRegion);
+        try {
+            recordBackSnapshot();
+        } finally {
+            DamageRegion.bind(previousDamageRegion);
+        }
+    }
+
+    /**
+     * Helper method. Records the View into the back snapshot and publishes it.
+     */
+
+    private void recordBackSnapshot() {
+        long recordStartTime = System.nanoTime();
+        RecordingGraphics backSnapshot;
+        synchronized (snapshotLock) {
+            backSnapshot = snapshots[1 - frontSnapshot];
+        }
+        // the back snapshot is never read by the painting thread
+        backSnapshot.clear();
+        try {
+            if (view != null) {
+                view.draw(backSnapshot);
+            }
+        } catch (Exception error) {
+            error.printStackTrace();
+        }
+        frameProfiler.add(FrameProfiler.Metric.DRAW_TIME, System.nanoTime() - recordStartTime);
+
+        // publishes the snapshot
+        synchronized (snapshotLock) {
+            frontSnapshot = 1 - frontSnapshot;
+            snapshotUpdateEndTime = updateEndTime;
+            isSnapshotPainted = false;
+        }
+        updateEndTime = -1L;
+    }
+
+    /**
+     * Helper method. Rasterizes the latest published snapshot.
+     */
+
+    private void drawSnapshot() {
+        synchronized (snapshotLock) {
+            long drawStartTime = System.nanoTime();
+            snapshots[frontSnapshot].replay(graphics);
+            long drawEndTime = System.nanoTime();
+
+            frameProfiler.add(FrameProfiler.Metric.DRAW_TIME, drawEndTime - drawStartTime);
+            // the paint latency is measured once per snapshot
+            if (snapshotUpdateEndTime >= 0L) {
+                frameProfiler.add(FrameProfiler.Metric.PAINT_LATENCY, drawEndTime - snapshotUpdateEndTime);
+                snapshotUpdateEndTime = -1L;
+            }
+            isSnapshotPainted = true;
+        }
     }
 
     /**
@@ -72,6 +291,7 @@ public class RenderingEngineSwing {
         Objects.requireNonNull(renderingHints);
         this.renderingHints.clear();
         this.renderingHints.addAll(renderingHints);
+        damageRegion.invalidateAll();
     }
 
     /**
@@ -166,10 +386,44 @@ public class RenderingEngineSwing {
      */
 
     private void updateView() {
-        int maxMessagesToProcess = MessagingSystem.MAX_MESSAGES_TO_PROCESS / Math.max(1, frameRate);
-        messagingSystem.setMaxMessagesToProcess(maxMessagesToProcess);
+        // the messages can take up to a quarter of the frame time
+        long frameTime = 1_000_000_000L / Math.max(MIN_BUDGETED_FRAME_RATE, frameRate);
+        messagingSystem.setTimeBudget(frameTime / 4);
+
+        long dispatchStartTime = System.nanoTime();
         messagingSystem.sendMessagesTo(view);
+        long updateStartTime = System.nanoTime();
         view.update(rootView);
+        updateEndTime = System.nanoTime();
+
+        frameProfiler.add(FrameProfiler.Metric.DISPATCH_TIME, updateStartTime - dispatchStartTime);
+        frameProfiler.add(FrameProfiler.Metric.UPDATE_TIME, updateEndTime - updateStartTime);
+    }
+
+    /**
+     * Helper method. Records the View, when something changed since the last recording, and replays it.
+     */
+
+    private void drawDisplayList() {
+        long damageCount = damageRegion.getDamageCount();
+        if (damageCount != recordedDamageCount || recordingGraphics.isEmpty()) {
+            recordingGraphics.clear();
+            view.draw(recordingGraphics);
+            recordedDamageCount = damageCount;
+        }
+        recordingGraphics.replay(graphics);
+    }
+
+    /**
+     * Helper method. Ends the previous frame and measures the messages dropped since then.
+     */
+
+    private void startFrame() {
+        long currentDroppedMessages = globalMessageStore.getDroppedMessages();
+        // the counter restarts when a new store is mounted
+        frameProfiler.add(FrameProfiler.Metric.DROPPED_MESSAGES, Math.max(0L, currentDroppedMessages - droppedMessages));
+        droppedMessages = currentDroppedMessages;
+        frameProfiler.endFrame();
     }
 
     /**
@@ -177,11 +431,24 @@ public class RenderingEngineSwing {
      */
 
     private void drawView() {
-        view.draw(graphics);
+        long drawStartTime = System.nanoTime();
+        if (displayListRendering) {
+            drawDisplayList();
+        } else {
+            view.draw(graphics);
+        }
+        long drawEndTime = System.nanoTime();
+
+        frameProfiler.add(FrameProfiler.Metric.DRAW_TIME, drawEndTime - drawStartTime);
+        // the paint latency is measured once per update
+        if (updateEndTime >= 0L) {
+            frameProfiler.add(FrameProfiler.Metric.PAINT_LATENCY, drawEndTime - updateEndTime);
+            updateEndTime = -1L;
+        }
     }
 
     /**
-     * Draws the View on the given Graphics.
+     * Dispatches the pending messages to the View and updates it.
      *
      * @param drawableBounds the boundaries of the screen drawable area as an array of four elements:
      *                       <ul>
@@ -193,19 +460,90 @@ public class RenderingEngineSwing {
      * @param isFocused      true if the window is focused
      */
 
-    public void draw(java.awt.Graphics graphics, float[] drawableBounds, boolean isFocused) {
+    public void update(float[] drawableBounds, boolean isFocused) {
+        DamageRegion previousDamageRegion = DamageRegion.bind(damageRegion);
+        try {
+            updateFrame(drawableBounds, isFocused);
+        } finally {
+            DamageRegion.bind(previousDamageRegion);
+        }
+    }
+
+    /**
+     * Helper method. Starts a new frame, dispatches the pending messages to the View and updates it.
+     */
+
+    private void updateFrame(float[] drawableBounds, boolean isFocused) {
+        startFrame();
         updateRootView(drawableBounds, isFocused);
 
+        // the whole screen must be redrawn when the drawable area changes
+        if (!Arrays.equals(previousDrawableBounds, drawableBounds)) {
+            System.arraycopy(drawableBounds, 0, previousDrawableBounds, 0, previousDrawableBounds.length);
+            damageRegion.invalidateAll();
+        }
+
+        try {
+            if (view != null) {
+                updateView();
+            }
+        } catch (Exception error) {
+            error.printStackTrace();
+        }
+    }
+
+    /**
+     * Removes and returns the area damaged since the last collection.
+     * <br>
+     * When the incremental rendering is disabled, the whole drawable area is returned.
+     *
+     * @param drawableBounds the boundaries of the screen drawable area; see {@link #update(float[], boolean)}
+     * @param targetArea     a four-element array used to store the damaged area structured as the drawable bounds
+     * @return true if the View must be drawn; false if nothing changed and the frame can be skipped
+     */
+
+    public boolean collectDamagedArea(float[] drawableBounds, float[] targetArea) {
+        boolean isDamaged = damageRegion.collect(drawableBounds, targetArea);
+        if (!incrementalRendering) {
+            System.arraycopy(drawableBounds, 0, targetArea, 0, targetArea.length);
+            isDamaged = true;
+        }
+        return isDamaged;
+    }
+
+    /**
+     * Draws the View on the given Graphics.
+     *
+     * @param graphics the AWT graphics used to draw the View
+     */
+
+    public void draw(java.awt.Graphics graphics) {
         thirdPartyGraphics = (Graphics2D) graphics;
         applyHints();
+        DamageRegion previousDamageRegion = DamageRegion.bind(damageRegion);
         try {
             calculateMetrics();
-            if (view != null) {
-                updateView();
+            if (snapshotRendering) {
+                drawSnapshot();
+            } else if (view != null) {
                 drawView();
             }
         } catch (Exception error) {
             error.printStackTrace();
+        } finally {
+            DamageRegion.bind(previousDamageRegion);
         }
     }
+
+    /**
+     * Updates and draws the View on the given Graphics.
+     *
+     * @param drawableBounds the boundaries of the screen drawable area; see {@link #update(float[], boolean)}
+     * @param isFocused      true if the window is focused
+     */
+
+    public void draw(java.awt.Graphics graphics, float[] drawableBounds, boolean isFocused) {
+        update(drawableBounds, isFocused);
+        draw(graphics);
+    }
 }
@@ -0,0 +1,126 @@
+package adaptor.swing;
+
+import uia.application.events.TypedCallbackStore;
+import uia.core.context.window.OnWindowResized;
+import uia.core.context.window.OnWindowClosed;
+import uia.core.context.window.Window;
+import uia.core.basement.Callable;
+import uia.core.basement.Callback;
+
+/**
+ * {@link Window} implementation without a native window.
+ * <br>
+ * The viewport is an off-screen area of the given size; the window is always on focus.
+ */
+
+public class WindowHeadless implements Window {
+    private final Callable callable;
+
+    private final int[] screenSize = new int[2];
+    private boolean visible = false;
+
+    public WindowHeadless(int width, int height) {
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("'width' and 'height' must be greater than zero");
+        }
+
+        callable = new TypedCallbackStore(10);
+        screenSize[0] = width;
+        screenSize[1] = height;
+    }
+
+    /**
+     * Helper method. Destroys this Window.
+     */
+
+    protected void destroy() {
+        visible = false;
+        notifyCallbacks(OnWindowClosed.class, this);
+    }
+
+    @Override
+    public long registerCallback(Callback<?> callback) {
+        return callable.registerCallback(callback);
+    }
+
+    @Override
+    public void unregisterCallback(long callbackID) {
+        callable.unregisterCallback(callbackID);
+    }
+
+    @Override
+    public void notifyCallbacks(Class<? extends Callback> type, Object data) {
+        callable.notifyCallbacks(type, data);
+    }
+
+    @Override
+    public boolean hasCallbacks(Class<? extends Callback> type) {
+        return callable.hasCallbacks(type);
+    }
+
+    @Override
+    public int numberOfCallbacks() {
+        return callable.numberOfCallbacks();
+    }
+
+    @Override
+    public Window setVisible(boolean visible) {
+        this.visible = visible;
+        return this;
+    }
+
+    @Override
+    public boolean isVisible() {
+        return visible;
+    }
+
+    @Override
+    public Window setAlwaysOnTop(boolean alwaysOnTop) {
+        return this;
+    }
+
+    @Override
+    public Window setResizable(boolean resizable) {
+        return this;
+    }
+
+    @Override
+    public Window setTitle(String title) {
+        return this;
+    }
+
+    @Override
+    public Window resize(int width, int height) {
+        if (width < 200) {
+            throw new IllegalArgumentException("width must be greater than 200 pixels");
+        }
+        if (height < 200) {
+            throw new IllegalArgumentException("height must be greater than 200 pixels");
+        }
+
+        screenSize[0] = width;
+        screenSize[1] = height;
+        notifyCallbacks(OnWindowResized.class, this);
+        return this;
+    }
+
+    @Override
+    public int getViewportWidth() {
+        return screenSize[0];
+    }
+
+    @Override
+    public int getViewportHeight() {
+        return screenSize[1];
+    }
+
+    @Override
+    public boolean isFocused() {
+        return true;
+    }
+
+    @Override
+    public int[] getInsets() {
+        return new int[]{0, 0, 0, 0};
+    }
+}
@@ -3,7 +3,7 @@ package adaptor.swing;
 import uia.application.message.store.GlobalMessageStore;
 import uia.core.basement.message.MessageStore;
 import uia.application.message.MessageFactory;
-import uia.application.events.CallbackStore;
+import uia.application.events.TypedCallbackStore;
 import uia.core.ui.primitives.ScreenTouch;
 import uia.core.basement.message.Message;
 import uia.core.context.window.Window;
@@ -12,6 +12,7 @@ import uia.core.basement.Callable;
 import uia.core.basement.Callback;
 import uia.core.context.window.*;
 
+import java.awt.image.BufferStrategy;
 import java.util.function.IntFunction;
 import java.util.function.Consumer;
 import java.awt.event.*;
@@ -20,6 +21,15 @@ import java.awt.*;
 
 /**
  * {@link Window} implementation based on Java Swing.
+ * <br>
+ * <br>
+ * <b>Active rendering</b>
+ * <br>
+ * By default, the window is painted through a double-buffered JPanel and the Swing RepaintManager.
+ * When the active rendering is enabled with {@link #setActiveRendering(boolean)}, the window shows a Canvas
+ * whose accelerated {@link BufferStrategy} is painted and presented directly by the rendering loop
+ * with {@link #present(Consumer, float[])}. When acceleration is unavailable, {@code present} fails and the
+ * caller falls back to {@link #refresh(Consumer, float[])}.
  */
 
 public class WindowSwing implements Window {
@@ -28,13 +38,17 @@ public class WindowSwing implements Window {
 
     private final JFrame jFrame;
     private final JPanel renderingPanel;
+    private final Canvas renderingCanvas;
     private Consumer<Graphics> onRefreshed;
+    private volatile Runnable onExposed;
+    private volatile boolean activeRendering = false;
+    private boolean isFullPaintRequired = true;
 
     private final int[] screenSize = new int[2];
     private boolean focus = false;
 
     public WindowSwing(int width, int height) {
-        callable = new CallbackStore(10);
+        callable = new TypedCallbackStore(10);
 
         jFrame = new JFrame();
         jFrame.setDefaultCloseOperation(WindowConstants.EXIT_ON_CLOSE);
@@ -96,7 +110,25 @@ public class WindowSwing implements Window {
                 }
             }
         };
-        renderingPanel.addMouseListener(new MouseListener() {
+        // the canvas used by the active rendering is painted by the rendering loop
+        renderingCanvas = new Canvas() {
+            @Override
+            public void paint(Graphics g) {
+                Runnable exposedListener = onExposed;
+                if (exposedListener != null) {
+                    exposedListener.run();
+                }
+            }
+
+            @Override
+            public void update(Graphics g) {
+                paint(g);
+            }
+        };
+        // keys are handled by the frame
+        renderingCanvas.setFocusable(false);
+
+        MouseListener mouseListener = new MouseListener() {
             @Override
             public void mousePressed(MouseEvent event) {
                 ScreenTouch screenTouch = createScreenTouch(event, 0, ScreenTouch.Action.PRESSED);
@@ -125,8 +157,8 @@ public class WindowSwing implements Window {
                 ScreenTouch screenTouch = createScreenTouch(event, 0, ScreenTouch.Action.EXITED);
                 sendMessage(screenTouch);
             }
-        });
-        renderingPanel.addMouseMotionListener(new MouseMotionListener() {
+        };
+        MouseMotionListener mouseMotionListener = new MouseMotionListener() {
             @Override
             public void mouseDragged(MouseEvent event) {
                 ScreenTouch screenTouch = createScreenTouch(event, 0, ScreenTouch.Action.DRAGGED);
@@ -138,15 +170,143 @@ public class WindowSwing implements Window {
                 ScreenTouch screenTouch = createScreenTouch(event, 0, ScreenTouch.Action.MOVED);
                 sendMessage(screenTouch);
             }
-        });
-        renderingPanel.addMouseWheelListener(event -> {
+        };
+        MouseWheelListener mouseWheelListener = event -> {
             ScreenTouch screenTouch = createScreenTouch(event, event.getWheelRotation(), ScreenTouch.Action.WHEEL);
             sendMessage(screenTouch);
-        });
+        };
+        for (Component component : new Component[]{renderingPanel, renderingCanvas}) {
+            component.addMouseListener(mouseListener);
+            component.addMouseMotionListener(mouseMotionListener);
+            component.addMouseWheelListener(mouseWheelListener);
+        }
 
         jFrame.add(renderingPanel, BorderLayout.CENTER);
     }
 
+    /**
+     * Enables or disables the active rendering.
+     * <br>
+     * When enabled, the window content is replaced by a Canvas to be painted with {@link #present(Consumer, float[])}.
+     *
+     * @param activeRendering true to enable the active rendering
+     */
+
+    protected void setActiveRendering(boolean activeRendering) {
+        if (this.activeRendering == activeRendering) {
+            return;
+        }
+        this.activeRendering = activeRendering;
+        isFullPaintRequired = true;
+
+        Runnable componentSwitcher = () -> {
+            Container container = jFrame.getContentPane();
+            container.remove(activeRendering ? renderingPanel : renderingCanvas);
+            container.add(activeRendering ? renderingCanvas : renderingPanel, BorderLayout.CENTER);
+            container.revalidate();
+            container.repaint();
+        };
+        if (SwingUtilities.isEventDispatchThread()) {
+            componentSwitcher.run();
+        } else {
+            SwingUtilities.invokeLater(componentSwitcher);
+        }
+    }
+
+    /**
+     * Sets the listener notified when the window content must be redrawn by the active rendering,
+     * for instance, when the window is uncovered.
+     *
+     * @param onExposed the listener; it could be null
+     */
+
+    protected void setOnExposed(Runnable onExposed) {
+        this.onExposed = onExposed;
+    }
+
+    /**
+     * Helper method. Returns the buffer strategy of the rendering canvas, creating it when needed,
+     * or null if it is not ready. When an accelerated buffer strategy is unavailable, the active rendering
+     * is disabled.
+     */
+
+    private BufferStrategy getBufferStrategy() {
+        if (!renderingCanvas.isDisplayable()
+                || renderingCanvas.getWidth() <= 0 || renderingCanvas.getHeight() <= 0) {
+            return null;
+        }
+
+        BufferStrategy result = renderingCanvas.getBufferStrategy();
+        if (result == null) {
+            try {
+                // blitted back buffers keep their content between frames, so only the damaged area is painted
+                BufferCapabilities capabilities = new BufferCapabilities(
+                        new ImageCapabilities(true), new ImageCapabilities(true), null
+                );
+                renderingCanvas.createBufferStrategy(2, capabilities);
+                result = renderingCanvas.getBufferStrategy();
+                isFullPaintRequired = true;
+            } catch (AWTException | RuntimeException error) {
+                result = null;
+            }
+        }
+        if (result == null || !result.getCapabilities().getBackBufferCapabilities().isAccelerated()) {
+            // falls back to the Swing repaint mechanism
+            setActiveRendering(false);
+            return null;
+        }
+        return result;
+    }
+
+    /**
+     * Paints the specified area of this window and presents it immediately.
+     * <br>
+     * It can be invoked by any thread, but only by one thread at a time. When the back buffer content has
+     * been lost, the whole window is painted.
+     *
+     * @param area the area to be painted; see {@link #refresh(Consumer, float[])}
+     * @return false if the active rendering is disabled or unavailable and nothing has been painted;
+     * true otherwise
+     */
+
+    protected boolean present(Consumer<Graphics> onRefreshed, float[] area) {
+        BufferStrategy bufferStrategy = activeRendering ? getBufferStrategy() : null;
+        if (bufferStrategy == null) {
+            return false;
+        }
+
+        int x = (int) Math.floor(area[0]);
+        int y = (int) Math.floor(area[1]);
+        int width = (int) Math.ceil(area[0] + area[2]) - x;
+        int height = (int) Math.ceil(area[1] + area[3]) - y;
+        boolean isContentLost = isFullPaintRequired;
+        isFullPaintRequired = false;
+        do {
+            do {
+                Graphics graphics = bufferStrategy.getDrawGraphics();
+                try {
+                    if (!isContentLost) {
+                        graphics.clipRect(x, y, width, height);
+                    }
+                    graphics.setColor(renderingPanel.getBackground());
+                    graphics.fillRect(x, y, width, height);
+                    if (isContentLost) {
+                        graphics.fillRect(0, 0, renderingCanvas.getWidth(), renderingCanvas.getHeight());
+                    }
+                    onRefreshed.accept(graphics);
+                } finally {
+                    graphics.dispose();
+                }
+                // the restored back buffer must be entirely painted
+                isContentLost = bufferStrategy.contentsRestored();
+            } while (isContentLost);
+            bufferStrategy.show();
+            isContentLost = bufferStrategy.contentsLost();
+        } while (isContentLost);
+        Toolkit.getDefaultToolkit().sync();
+        return true;
+    }
+
     /**
      * Helper function. Creates a new ScreenTouch object.
      */
@@ -184,6 +344,44 @@ public class WindowSwing implements Window {
         renderingPanel.repaint();
     }
 
+    /**
+     * Refreshes only the specified area of this window.
+     * <br>
+     * The area is painted before this method returns, so it must be invoked on the AWT event dispatching thread.
+     *
+     * @param area the area to be refreshed as an array of four elements: the top left corner on the x-axis
+     *             and on the y-axis, the area width and the area height
+     */
+
+    protected void refresh(Consumer<Graphics> onRefreshed, float[] area) {
+        this.onRefreshed = onRefreshed;
+
+        int x = (int) Math.floor(area[0]);
+        int y = (int) Math.floor(area[1]);
+        int width = (int) Math.ceil(area[0] + area[2]) - x;
+        int height = (int) Math.ceil(area[1] + area[3]) - y;
+        renderingPanel.paintImmediately(x, y, width, height);
+    }
+
+    /**
+     * Requests to refresh the specified area of this window.
+     * <br>
+     * Unlike {@link #refresh(Consumer, float[])}, the area is painted later on the AWT event dispatching thread,
+     * so this method can be invoked by any thread.
+     *
+     * @param area the area to be refreshed; see {@link #refresh(Consumer, float[])}
+     */
+
+    protected void refreshLater(Consumer<Graphics> onRefreshed, float[] area) {
+        this.onRefreshed = onRefreshed;
+
+        int x = (int) Math.floor(area[0]);
+        int y = (int) Math.floor(area[1]);
+        int width = (int) Math.ceil(area[0] + area[2]) - x;
+        int height = (int) Math.ceil(area[1] + area[3]) - y;
+        renderingPanel.repaint(x, y, width, height);
+    }
+
     /**
      * Helper method. Sends a new message with the given payload.
      */
@@ -232,6 +430,11 @@ public class WindowSwing implements Window {
         callable.notifyCallbacks(type, data);
     }
 
+    @Override
+    public boolean hasCallbacks(Class<? extends Callback> type) {
+        return callable.hasCallbacks(type);
+    }
+
     @Override
     public int numberOfCallbacks() {
         return callable.numberOfCallbacks();
@@ -1,5 +1,7 @@
 package adaptor.swing.graphics;
 
+import uia.application.resourcetracker.FrameProfiler;
+import uia.core.rendering.geometry.Geometry;
 import uia.core.rendering.color.ColorCollection;
 import uia.core.rendering.color.Color;
 import uia.core.rendering.image.Image;
@@ -9,8 +11,10 @@ import uia.core.rendering.Graphics;
 import uia.utility.MathUtility;
 
 import java.awt.geom.AffineTransform;
+import java.awt.font.GlyphVector;
 import java.awt.image.BufferedImage;
 import java.util.function.Supplier;
+import java.awt.AlphaComposite;
 import java.awt.BasicStroke;
 import java.awt.geom.Path2D;
 import java.awt.Graphics2D;
@@ -21,12 +25,17 @@ import java.util.*;
  */
 
 public class GraphicsAWT implements Graphics {
+    private static final float IMAGE_UPSCALING_LIMIT = 1.25f;
+
+    private final GraphicsAWTImageLoader imageLoader = GraphicsAWTImageLoader.getInstance();
+    private final FrameProfiler frameProfiler = FrameProfiler.getInstance();
     private final Supplier<Graphics2D> graphics2DSupplier;
     private final GraphicsAWTCache graphicsAWTCache;
+    private final Path2D shapePath = new Path2D.Float();
 
-    private final Deque<java.awt.Shape> clipPaths;
-    private final Path2D clipPath;
-    private final Path2D shapePath;
+    private final Deque<Deque<java.awt.Shape>> layersClipPaths;
+    private final Deque<Graphics2D> layers;
+    private Deque<java.awt.Shape> clipPaths;
 
     private float shapeBorderWidth = 0;
     private Color shapeColor = ColorCollection.WHITE;
@@ -40,17 +49,18 @@ public class GraphicsAWT implements Graphics {
 
         clipPaths = new ArrayDeque<>();
 
-        clipPath = new Path2D.Float();
+        layersClipPaths = new ArrayDeque<>();
 
-        shapePath = new Path2D.Float();
+        layers = new ArrayDeque<>();
     }
 
     /**
-     * Helper function. Returns the platform graphics.
+     * Helper function. Returns the platform graphics or, when a layer has been started, the layer graphics.
      */
 
     private Graphics2D getGraphics() {
-        return graphics2DSupplier.get();
+        Graphics2D layerGraphics = layers.peekLast();
+        return layerGraphics != null ? layerGraphics : graphics2DSupplier.get();
     }
 
     @Override
@@ -120,21 +130,47 @@ public class GraphicsAWT implements Graphics {
 
     @Override
     public Graphics drawShape(Transform transform, int length, float... vertices) {
+        frameProfiler.increment(FrameProfiler.Metric.DRAW_CALLS);
         GraphicsAWTUtility.buildShape(transform, length, vertices, shapePath);
         drawPath(shapePath);
         return this;
     }
 
     @Override
-    public Graphics setClip(Transform transform, int length, float... vertices) {
+    public Graphics drawShape(Transform transform, Geometry geometry) {
+        frameProfiler.increment(FrameProfiler.Metric.DRAW_CALLS);
+        drawPath(graphicsAWTCache.cacheAndGetNativeShape(transform, geometry));
+        return this;
+    }
+
+    /**
+     * Helper function. Intersects the current clip with the given Path.
+     */
+
+    private void clip(Path2D path) {
         Graphics2D graphics = getGraphics();
-        if (vertices != null) {
-            GraphicsAWTUtility.buildShape(transform, length, vertices, clipPath);
-            graphics.clip(clipPath);
+        if (path != null) {
+            graphics.clip(path);
         } else {
             graphics.setClip(null);
         }
         clipPaths.addLast(graphics.getClip());
+    }
+
+    @Override
+    public Graphics setClip(Transform transform, int length, float... vertices) {
+        if (vertices != null) {
+            GraphicsAWTUtility.buildShape(transform, length, vertices, shapePath);
+            clip(shapePath);
+        } else {
+            clip(null);
+        }
+        return this;
+    }
+
+    @Override
+    public Graphics setClip(Transform transform, Geometry geometry) {
+        clip(graphicsAWTCache.cacheAndGetNativeShape(transform, geometry));
         return this;
     }
 
@@ -150,6 +186,56 @@ public class GraphicsAWT implements Graphics {
         return this;
     }
 
+    // layer
+
+    @Override
+    public Graphics beginLayer(Image layer, int x, int y, int width, int height) {
+        Objects.requireNonNull(layer);
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("the layer dimension must be > 0");
+        }
+
+        // reuses the layer image when its dimension doesn't change
+        BufferedImage layerImage;
+        if (layer.getNative() instanceof BufferedImage
+                && layer.width() == width
+                && layer.height() == height) {
+            layerImage = (BufferedImage) layer.getNative();
+        } else {
+            layerImage = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+            layer.setNative(layerImage, width, height);
+        }
+
+        Graphics2D graphics = getGraphics();
+        Graphics2D layerGraphics = layerImage.createGraphics();
+        // clears the layer
+        layerGraphics.setComposite(AlphaComposite.Clear);
+        layerGraphics.fillRect(0, 0, width, height);
+        layerGraphics.setComposite(AlphaComposite.SrcOver);
+        // inherits the current graphics state
+        layerGraphics.setRenderingHints(graphics.getRenderingHints());
+        layerGraphics.setColor(graphics.getColor());
+        layerGraphics.setStroke(graphics.getStroke());
+        layerGraphics.setFont(graphics.getFont());
+        layerGraphics.translate(-x, -y);
+
+        layers.addLast(layerGraphics);
+        layersClipPaths.addLast(clipPaths);
+        clipPaths = new ArrayDeque<>();
+        return this;
+    }
+
+    @Override
+    public Graphics endLayer() {
+        if (layers.isEmpty()) {
+            throw new IllegalStateException("no layer has been started");
+        }
+
+        layers.removeLast().dispose();
+        clipPaths = layersClipPaths.removeLast();
+        return this;
+    }
+
     // text
 
     @Override
@@ -170,10 +256,16 @@ public class GraphicsAWT implements Graphics {
 
     @Override
     public Graphics drawText(char[] data, int offset, int length, float x, float y, float rotation) {
+        frameProfiler.increment(FrameProfiler.Metric.DRAW_CALLS);
         boolean rotated = Float.compare(rotation % MathUtility.TWO_PI, 0f) != 0;
         AffineTransform previousMatrix = null;
         Graphics2D graphics = getGraphics();
 
+        // the text is laid out without the rotation, so the text run is shared by every angle
+        GlyphVector textRun = graphicsAWTCache.cacheAndGetNativeTextRun(
+                graphics.getFont(), graphics.getFontRenderContext(), data, offset, length
+        );
+
         if (rotated) {
             previousMatrix = graphics.getTransform();
             graphics.rotate(rotation, x, y);
@@ -181,9 +273,13 @@ public class GraphicsAWT implements Graphics {
 
         java.awt.Paint previousPaint = graphics.getPaint();
         java.awt.Color awtTextColor = graphicsAWTCache.cacheAndGetNativeColor(textColor);
-
         graphics.setColor(awtTextColor);
-        graphics.drawChars(data, offset, length, (int) x, (int) y);
+        if (textRun == null) {
+            // the bidirectional text is laid out by AWT on each draw
+            graphics.drawChars(data, offset, length, (int) x, (int) y);
+        } else {
+            graphics.drawGlyphVector(textRun, (int) x, (int) y);
+        }
         graphics.setPaint(previousPaint);
 
         if (rotated) {
@@ -194,16 +290,42 @@ public class GraphicsAWT implements Graphics {
     }
 
     private final java.awt.Image fakeImage = new BufferedImage(1, 1, BufferedImage.TYPE_INT_RGB);
+    private final float[] imageArea = new float[4];
+
+    /**
+     * Helper method. Loads the given image, decoded to its on-screen size, when it is invalid or
+     * when it is drawn much larger than it has been decoded. When the image is loaded, only the
+     * screen area it covers is damaged.
+     */
+
+    private void loadImage(Image image, float x, float y, float width, float height, boolean rotated) {
+        int screenWidth = (int) Math.ceil(width);
+        int screenHeight = (int) Math.ceil(height);
+        boolean isLoaded = image.getPath() != null && image.getNative() != null && image.getNative() != fakeImage;
+        boolean isUpscaled = screenWidth > IMAGE_UPSCALING_LIMIT * image.width()
+                || screenHeight > IMAGE_UPSCALING_LIMIT * image.height();
+        if (!image.isValid() || (isLoaded && isUpscaled)) {
+            // a rotated image is contained in the circle around its center
+            float halfWidth = width / 2f;
+            float halfHeight = height / 2f;
+            if (rotated) {
+                halfWidth = halfHeight = (float) Math.hypot(halfWidth, halfHeight);
+            }
+            imageArea[0] = x - halfWidth;
+            imageArea[1] = y - halfHeight;
+            imageArea[2] = 2f * halfWidth;
+            imageArea[3] = 2f * halfHeight;
+            imageLoader.load(image, fakeImage, screenWidth, screenHeight, imageArea);
+        }
+    }
 
     @Override
     public Graphics drawImage(Image image, float x, float y, float width, float height, float rotation) {
+        frameProfiler.increment(FrameProfiler.Metric.DRAW_CALLS);
         Graphics2D graphics = getGraphics();
 
-        if (!image.isValid()) {
-            GraphicsAWTUtility.createImage(image, fakeImage);
-        }
-
         boolean rotated = Float.compare(rotation % MathUtility.TWO_PI, 0f) != 0;
+        loadImage(image, x, y, width, height, rotated);
         AffineTransform previousMatrix = null;
 
         if (rotated) {
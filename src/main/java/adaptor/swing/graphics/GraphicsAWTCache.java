@@ -1,62 +1,228 @@
 package adaptor.swing.graphics;
 
+import uia.core.rendering.geometry.Geometry;
 import uia.core.rendering.color.Color;
+import uia.core.rendering.Transform;
 import uia.core.rendering.font.Font;
+import uia.utility.LRUCache;
 
-import java.util.HashMap;
+import java.awt.font.FontRenderContext;
+import java.awt.font.GlyphVector;
+import java.awt.geom.Path2D;
+import java.util.WeakHashMap;
+import java.text.Bidi;
+import java.util.Objects;
+import java.util.Arrays;
 import java.util.Map;
 import java.awt.*;
 
 /**
  * GraphicsAWTCache is responsible for caching objects required by the AWT Graphics component.
+ * <br>
+ * <br>
+ * <i>Policies:</i>
+ * <ul>
+ *     <li>colors are cached by value, with their channels packed into an int;</li>
+ *     <li>fonts are cached by value (name, style and size), so the fonts of different styles share
+ *     the same native font;</li>
+ *     <li>text runs are laid out once per native font, render context and characters, and kept as GlyphVectors;</li>
+ *     <li>colors, fonts, strokes and text runs are kept in size-bounded caches that evict the least
+ *     recently used entry;</li>
+ *     <li>shapes are cached per Transform and Geometry, checked with their versions and discarded when
+ *     the Transform or the Geometry is no longer referenced.</li>
+ * </ul>
  */
 
 public class GraphicsAWTCache {
-    private final Map<Integer, java.awt.Color> colorCache;
-    private final Map<Integer, java.awt.Font> fontCache;
-    private final Map<Float, BasicStroke> strokeCache;
+    /**
+     * The default maximum number of cached colors.
+     */
+    public static final int COLOR_CAPACITY = 256;
+
+    /**
+     * The default maximum number of cached fonts.
+     */
+    public static final int FONT_CAPACITY = 32;
+
+    /**
+     * The default maximum number of cached strokes.
+     */
+    public static final int STROKE_CAPACITY = 32;
+
+    /**
+     * The default maximum number of cached text runs.
+     */
+    public static final int TEXT_RUN_CAPACITY = 512;
+
+    /**
+     * FontKey identifies a font by its name, style and size.
+     */
+
+    private static final class FontKey {
+        String name;
+        Font.FontStyle fontStyle;
+        float size;
+
+        /**
+         * Helper method. Sets the key data.
+         */
+
+        FontKey set(Font font) {
+            name = font.getName();
+            fontStyle = font.getStyle();
+            size = font.getSize();
+            return this;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            FontKey fontKey = (FontKey) o;
+            return Float.compare(size, fontKey.size) == 0
+                    && fontStyle == fontKey.fontStyle
+                    && name.equals(fontKey.name);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * (31 * name.hashCode() + fontStyle.hashCode()) + Float.hashCode(size);
+        }
+    }
+
+    /**
+     * TextRunKey identifies a run of characters laid out with a native font and render context.
+     */
+
+    private static final class TextRunKey {
+        java.awt.Font font;
+        FontRenderContext renderContext;
+        char[] data;
+        int offset;
+        int length;
+        int hash;
+
+        /**
+         * Helper method. Sets the key data and computes its hash.
+         */
+
+        TextRunKey set(java.awt.Font font, FontRenderContext renderContext, char[] data, int offset, int length) {
+            this.font = font;
+            this.renderContext = renderContext;
+            this.data = data;
+            this.offset = offset;
+            this.length = length;
+
+            int result = 31 * font.hashCode() + renderContext.hashCode();
+            for (int i = offset; i < offset + length; i++) {
+                result = 31 * result + data[i];
+            }
+            hash = result;
+            return this;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            TextRunKey key = (TextRunKey) o;
+            return hash == key.hash
+                    && Arrays.equals(data, offset, offset + length, key.data, key.offset, key.offset + key.length)
+                    && font.equals(key.font)
+                    && renderContext.equals(key.renderContext);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    private final LRUCache<Integer, java.awt.Color> colorCache;
+    private final LRUCache<FontKey, java.awt.Font> fontCache;
+    private final LRUCache<Float, BasicStroke> strokeCache;
+    private final LRUCache<TextRunKey, GlyphVector> textRunCache;
+    private final Map<Transform, Map<Geometry, CachedShape>> shapeCache;
+    private final FontKey fontLookupKey = new FontKey();
+    private final TextRunKey textRunLookupKey = new TextRunKey();
 
     public GraphicsAWTCache() {
-        strokeCache = new HashMap<>();
-        colorCache = new HashMap<>();
-        fontCache = new HashMap<>();
+        this(COLOR_CAPACITY, FONT_CAPACITY, STROKE_CAPACITY, TEXT_RUN_CAPACITY);
+    }
+
+    /**
+     * Creates a new GraphicsAWTCache with the given capacities.
+     *
+     * @param colorCapacity   the maximum number of cached colors
+     * @param fontCapacity    the maximum number of cached fonts
+     * @param strokeCapacity  the maximum number of cached strokes
+     * @param textRunCapacity the maximum number of cached text runs
+     * @throws IllegalArgumentException if a capacity is {@code <= 0}
+     */
+
+    public GraphicsAWTCache(int colorCapacity, int fontCapacity, int strokeCapacity, int textRunCapacity) {
+        colorCache = new LRUCache<>(colorCapacity);
+        fontCache = new LRUCache<>(fontCapacity);
+        strokeCache = new LRUCache<>(strokeCapacity);
+        textRunCache = new LRUCache<>(textRunCapacity);
+        shapeCache = new WeakHashMap<>();
     }
 
     @Override
     public String toString() {
-        return "GraphicsAWTCache{colorCache=" + colorCache.size() +
-                ", fontCache=" + fontCache.size() +
-                ", strokeCache=" + strokeCache.size() +
+        return "GraphicsAWTCache{colorCache=" + colorCache +
+                ", fontCache=" + fontCache +
+                ", strokeCache=" + strokeCache +
+                ", textRunCache=" + textRunCache +
+                ", shapeCache=" + shapeCache.size() +
                 '}';
     }
 
-    // color cache
+    /**
+     * @return the number of color, font, stroke and text run lookups that found a cached native object
+     */
+
+    public long getHits() {
+        return colorCache.getHits() + fontCache.getHits() + strokeCache.getHits() + textRunCache.getHits();
+    }
 
     /**
-     * Caches the specified Color.
-     * <br>
-     * <br>
-     * Time complexity:
-     * <ul>
-     *     <li>average case: O(1)</li>
-     *     <li>worst case: O(n).</li>
-     * </ul>
-     *
-     * @param color a Color to cache
+     * @return the number of color, font, stroke and text run lookups that had to create a native object
+     */
+
+    public long getMisses() {
+        return colorCache.getMisses() + fontCache.getMisses() + strokeCache.getMisses()
+                + textRunCache.getMisses();
+    }
+
+    /**
+     * @return the number of native colors, fonts, strokes and text runs evicted from the cache
+     */
+
+    public long getEvictions() {
+        return colorCache.getEvictions() + fontCache.getEvictions() + strokeCache.getEvictions()
+                + textRunCache.getEvictions();
+    }
+
+    /**
+     * @return the number of cached native colors, fonts, strokes and text runs
      */
 
-    public void cacheColor(Color color) {
-        int colorKey = color.hashCode();
-        colorCache.computeIfAbsent(colorKey, key -> GraphicsAWTUtility.createColor(color));
+    public int size() {
+        return colorCache.size() + fontCache.size() + strokeCache.size() + textRunCache.size();
     }
 
+    // color cache
+
     /**
-     * @return the native color associated to the specified Color
+     * Helper function. Packs the channels of the given color into an int.
      */
 
-    public java.awt.Color getNativeColor(Color color) {
-        int colorKey = color.hashCode();
-        return colorCache.get(colorKey);
+    private static int packColor(Color color) {
+        return color.getAlpha() << 24
+                | color.getRed() << 16
+                | color.getGreen() << 8
+                | color.getBlue();
     }
 
     /**
@@ -64,120 +230,189 @@ public class GraphicsAWTCache {
      * returns the native color.
      * <br>
      * <br>
-     * Time complexity:
-     * <ul>
-     *     <li>average case: O(1)</li>
-     *     <li>worst case: O(n).</li>
-     * </ul>
+     * Time complexity: T(1) on average
      *
      * @param color the color to be cached
      * @return the native cached Color
      */
 
     public java.awt.Color cacheAndGetNativeColor(Color color) {
-        cacheColor(color);
-        return getNativeColor(color);
+        Integer colorKey = packColor(color);
+        java.awt.Color result = colorCache.get(colorKey);
+        if (result == null) {
+            result = GraphicsAWTUtility.createColor(color);
+            colorCache.put(colorKey, result);
+        }
+        return result;
     }
 
     // font cache
 
     /**
-     * Caches the specified Font.
+     * Caches and returns the native font with the name, style and size of the specified font. If such
+     * a native font is already cached, it is immediately returned; otherwise, it is created. The given font,
+     * when it isn't valid, is built with the native font data. A valid font is never changed,
+     * so a copy made with {@link Font#copy()} can be drawn by a thread that doesn't own the font.
      * <br>
      * <br>
-     * Time complexity:
-     * <ul>
-     *     <li>average case: O(1)</li>
-     *     <li>worst case: O(n).</li>
-     * </ul>
+     * Time complexity: T(1) on average
      *
-     * @param font a Font to be cached
+     * @param font the font to be cached
+     * @return the native cached font
      */
 
-    public void cacheFont(Font font) {
-        int fontKey = font.hashCode();
-        // bugfix: rebuilds font data
-        if (fontCache.containsKey(fontKey)) {
-            java.awt.Font awtFont = getNativeFont(font);
-            GraphicsAWTUtility.buildFontData(font, awtFont);
+    public java.awt.Font cacheAndGetNativeFont(Font font) {
+        java.awt.Font result = fontCache.get(fontLookupKey.set(font));
+        fontLookupKey.name = null;
+
+        if (result == null) {
+            result = GraphicsAWTUtility.createNativeFont(font);
+            fontCache.put(new FontKey().set(font), result);
         }
-        // creates and caches font if not already cached
-        fontCache.computeIfAbsent(fontKey, key -> GraphicsAWTUtility.createFont(font));
+        if (!font.isValid()) {
+            GraphicsAWTUtility.buildFontData(font, result);
+        }
+        return result;
     }
 
-    /**
-     * @return the native font associated to the specified Font
-     */
-
-    public java.awt.Font getNativeFont(Font font) {
-        int fontKey = font.hashCode();
-        return fontCache.get(fontKey);
-    }
+    // stroke cache
 
     /**
-     * Caches and returns the specified font. If the font is already cached, it immediately
-     * returns the native font.
+     * Caches and returns the specified stroke. If the stroke is already cached, it immediately
+     * returns the native stroke.
      * <br>
      * <br>
-     * Time complexity:
-     * <ul>
-     *     <li>average case: O(1)</li>
-     *     <li>worst case: O(n).</li>
-     * </ul>
+     * Time complexity: T(1) on average
      *
-     * @param font the font to be cached
-     * @return the native cached font
+     * @param strokeWidth the value of the stroke to be cached
+     * @return the native cached stroke value
      */
 
-    public java.awt.Font cacheAndGetNativeFont(Font font) {
-        cacheFont(font);
-        return getNativeFont(font);
+    public BasicStroke cacheAndGetNativeStroke(float strokeWidth) {
+        Float strokeKey = strokeWidth;
+        BasicStroke result = strokeCache.get(strokeKey);
+        if (result == null) {
+            result = new BasicStroke(strokeWidth);
+            strokeCache.put(strokeKey, result);
+        }
+        return result;
     }
 
-    // stroke cache
+    // text run cache
 
     /**
-     * Caches the specified stroke value.
+     * Caches and returns the given text laid out with the given native font. If the text run is
+     * already cached, it immediately returns it; otherwise, the glyphs are laid out and cached.
+     * The text that requires a complex layout, such as right-to-left text or a script whose glyphs
+     * are shaped by their context, is laid out with {@link java.awt.Font#layoutGlyphVector}; the text
+     * that mixes directions can't be held by a single glyph vector, so it is neither laid out nor cached.
      * <br>
      * <br>
-     * Time complexity:
-     * <ul>
-     *     <li>average case: O(1)</li>
-     *     <li>worst case: O(n).</li>
-     * </ul>
+     * Time complexity: T(n) to hash the characters, plus the text layout when the run is not cached
      *
-     * @param strokeWidth the stroke value to be cached
+     * @param font          the native font used to lay out the text
+     * @param renderContext the render context of the target graphics
+     * @param data          the text characters
+     * @param offset        the position of the first character
+     * @param length        the number of characters
+     * @return the native cached text run or null when the text mixes directions
      */
 
-    public void cacheStroke(float strokeWidth) {
-        strokeCache.computeIfAbsent(strokeWidth, key -> new BasicStroke(strokeWidth));
+    public GlyphVector cacheAndGetNativeTextRun(java.awt.Font font, FontRenderContext renderContext,
+                                                char[] data, int offset, int length) {
+        GlyphVector result = textRunCache.get(
+                textRunLookupKey.set(font, renderContext, data, offset, length)
+        );
+        textRunLookupKey.data = null;
+
+        if (result == null) {
+            char[] text = Arrays.copyOfRange(data, offset, offset + length);
+            if (java.awt.Font.textRequiresLayout(text, 0, length)) {
+                Bidi bidi = new Bidi(text, 0, null, 0, length, Bidi.DIRECTION_DEFAULT_LEFT_TO_RIGHT);
+                // a glyph vector holds a single directional run
+                if (bidi.isMixed()) {
+                    return null;
+                }
+                int flags = bidi.isRightToLeft() ? java.awt.Font.LAYOUT_RIGHT_TO_LEFT : java.awt.Font.LAYOUT_LEFT_TO_RIGHT;
+                result = font.layoutGlyphVector(renderContext, text, 0, length, flags);
+            } else {
+                result = font.createGlyphVector(renderContext, text);
+            }
+            textRunCache.put(new TextRunKey().set(font, renderContext, text, 0, length), result);
+        }
+        return result;
     }
 
+    // shape cache
+
     /**
-     * @return the native stroke associated to the stroke value
+     * CachedShape keeps a world-space shape together with the versions of the Transform and Geometry
+     * it has been built from.
      */
 
-    public BasicStroke getNativeStroke(float strokeWidth) {
-        return strokeCache.get(strokeWidth);
+    private static final class CachedShape {
+        final Path2D path = new Path2D.Float();
+        boolean isBuilt = false;
+        int transformVersion;
+        int geometryVersion;
+
+        /**
+         * Helper method. Checks whether this shape has been built from the current versions
+         * of the given Transform and Geometry.
+         * <br>
+         * Time complexity: T(1)
+         */
+
+        boolean matches(Transform transform, Geometry geometry) {
+            return isBuilt
+                    && geometryVersion == geometry.getVersion()
+                    && (transform == null || transformVersion == transform.getVersion());
+        }
+
+        /**
+         * Helper method. Rebuilds this shape from the given Transform and Geometry.
+         * <br>
+         * Time complexity: T(n)
+         */
+
+        void build(Transform transform, Geometry geometry) {
+            GraphicsAWTUtility.buildShape(transform, geometry.vertices(), geometry.toArray(), path);
+            transformVersion = transform == null ? 0 : transform.getVersion();
+            geometryVersion = geometry.getVersion();
+            isBuilt = true;
+        }
     }
 
     /**
-     * Caches and returns the specified stroke. If the stroke is already cached, it immediately
-     * returns the native stroke.
+     * Returns the world-space shape built from the given Transform and Geometry.
+     * <br>
+     * Shapes are cached per Transform and Geometry: while neither of them changes, the same shape
+     * is returned without being rebuilt, even when a Transform is used to draw several geometries.
+     * When the Transform or the Geometry is no longer referenced, the shape is discarded.
+     * <br>
+     * The returned shape is owned by the cache and must not be modified.
      * <br>
      * <br>
      * Time complexity:
      * <ul>
-     *     <li>average case: O(1)</li>
-     *     <li>worst case: O(n).</li>
+     *     <li>cached shape: T(1);</li>
+     *     <li>changed shape: T(n) to rebuild it.</li>
      * </ul>
      *
-     * @param strokeWidth the value of the stroke to be cached
-     * @return the native cached stroke value
+     * @param transform the Transform used to transform the given Geometry; it could be null
+     * @param geometry  the shape to be transformed
+     * @return the native cached shape
+     * @throws NullPointerException if {@code geometry == null}
      */
 
-    public BasicStroke cacheAndGetNativeStroke(float strokeWidth) {
-        cacheStroke(strokeWidth);
-        return getNativeStroke(strokeWidth);
+    public Path2D cacheAndGetNativeShape(Transform transform, Geometry geometry) {
+        Objects.requireNonNull(geometry);
+        CachedShape cachedShape = shapeCache
+                .computeIfAbsent(transform, key -> new WeakHashMap<>(2))
+                .computeIfAbsent(geometry, key -> new CachedShape());
+        if (!cachedShape.matches(transform, geometry)) {
+            cachedShape.build(transform, geometry);
+        }
+        return cachedShape.path;
     }
 }
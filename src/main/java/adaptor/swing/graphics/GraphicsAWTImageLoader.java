@@ -0,0 +1,300 @@
+package adaptor.swing.graphics;
+
+import uia.application.ui.DamageRegion;
+import uia.core.rendering.image.Image;
+
+import javax.imageio.stream.ImageInputStream;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import javax.imageio.ImageReadParam;
+import java.awt.image.BufferedImage;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageIO;
+import java.awt.GraphicsEnvironment;
+import java.awt.RenderingHints;
+import java.awt.Transparency;
+import java.awt.Graphics2D;
+import java.util.*;
+import java.io.File;
+
+/**
+ * GraphicsAWTImageLoader is responsible for loading the images drawn by GraphicsAWT.
+ * <br>
+ * <br>
+ * <i>Policies:</i>
+ * <ul>
+ *     <li>images are decoded by a bounded pool of daemon threads;</li>
+ *     <li>concurrent requests for the same file and size are decoded only once;</li>
+ *     <li>images are decoded directly to the requested size, subsampling the file when it is larger,
+ *     into an image compatible with the screen;</li>
+ *     <li>decoded images are kept in a memory-budgeted cache that evicts the least recently used image;</li>
+ *     <li>when an image is decoded, only the screen areas of the waiting images are damaged, in the damage
+ *     region bound when they were requested;</li>
+ *     <li>a failed request is forgotten, so the file can be requested again.</li>
+ * </ul>
+ */
+
+public final class GraphicsAWTImageLoader {
+    /**
+     * The default memory budget, in bytes, of the decoded images cache.
+     */
+    public static final long DEFAULT_MEMORY_BUDGET = 64L * 1024L * 1024L;
+
+    private static final int BYTES_PER_PIXEL = 4;
+
+    private static final GraphicsAWTImageLoader IMAGE_LOADER = new GraphicsAWTImageLoader();
+
+    private final ExecutorService loaderPool;
+    private final Map<String, List<WaitingImage>> pendingRequests;
+    private final Map<String, BufferedImage> decodedImages;
+    private long memoryBudget = DEFAULT_MEMORY_BUDGET;
+    private long usedMemory = 0L;
+
+    /**
+     * WaitingImage is an Image waiting to be decoded, together with the screen area to be damaged
+     * when it is loaded.
+     */
+
+    private static final class WaitingImage {
+        final Image image;
+        final DamageRegion damageRegion;
+        final float[] area;
+
+        WaitingImage(Image image, DamageRegion damageRegion, float[] area) {
+            this.image = image;
+            this.damageRegion = damageRegion;
+            this.area = area == null ? null : area.clone();
+        }
+    }
+
+    private GraphicsAWTImageLoader() {
+        int threads = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() - 1));
+        loaderPool = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(),
+                task -> {
+                    Thread thread = new Thread(task, "UIa image loader");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        pendingRequests = new HashMap<>();
+        decodedImages = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * Sets the maximum memory used by the decoded images cache.
+     *
+     * @param memoryBudget the memory budget in bytes
+     * @throws IllegalArgumentException if {@code memoryBudget < 0}
+     */
+
+    public synchronized void setMemoryBudget(long memoryBudget) {
+        if (memoryBudget < 0) {
+            throw new IllegalArgumentException("'memoryBudget' must be >= 0");
+        }
+        this.memoryBudget = memoryBudget;
+        evict();
+    }
+
+    /**
+     * @return the memory, in bytes, used by the decoded images cache
+     */
+
+    public synchronized long getUsedMemory() {
+        return usedMemory;
+    }
+
+    /**
+     * Removes all the decoded images from the cache.
+     */
+
+    public synchronized void clear() {
+        decodedImages.clear();
+        usedMemory = 0L;
+    }
+
+    /**
+     * Loads the file of the given Image, decoded to the given size.
+     * <br>
+     * When the decoded image is cached, it is set immediately; otherwise, the Image is decoded in background.
+     * While loading, an Image without a native image shows the given placeholder. When the Image is loaded,
+     * the given area is added to the {@link DamageRegion} bound to the calling thread.
+     *
+     * @param image       the Image to be loaded
+     * @param placeholder the native image shown while loading
+     * @param width       the on-screen width of the Image; {@code <= 0} to decode the file at its size
+     * @param height      the on-screen height of the Image; {@code <= 0} to decode the file at its size
+     * @param area        the screen area covered by the Image, structured as [x, y, width, height];
+     *                    it could be null to damage nothing
+     * @throws NullPointerException if {@code image == null || image.getPath() == null}
+     */
+
+    public synchronized void load(Image image, java.awt.Image placeholder, int width, int height, float[] area) {
+        String path = Objects.requireNonNull(image.getPath());
+        String key = createKey(path, width, height);
+
+        BufferedImage decodedImage = decodedImages.get(key);
+        if (decodedImage != null) {
+            image.setNative(decodedImage, decodedImage.getWidth(), decodedImage.getHeight());
+            return;
+        }
+
+        if (image.getNative() == null) {
+            image.setNative(placeholder, 1, 1);
+        }
+
+        List<WaitingImage> waitingImages = pendingRequests.get(key);
+        if (waitingImages == null) {
+            waitingImages = new ArrayList<>();
+            pendingRequests.put(key, waitingImages);
+            loaderPool.execute(() -> decodeAndNotify(key, path, width, height));
+        }
+        for (WaitingImage waitingImage : waitingImages) {
+            if (waitingImage.image == image) {
+                return;
+            }
+        }
+        waitingImages.add(new WaitingImage(image, DamageRegion.getInstance(), area));
+    }
+
+    /**
+     * Helper function. Creates the key used to identify the given file decoded to the given size.
+     */
+
+    private static String createKey(String path, int width, int height) {
+        return path + '@' + width + 'x' + height;
+    }
+
+    /**
+     * Helper method. Decodes the given file and sets it to the waiting images.
+     */
+
+    private void decodeAndNotify(String key, String path, int width, int height) {
+        BufferedImage decodedImage = null;
+        List<WaitingImage> waitingImages;
+        try {
+            decodedImage = decode(new File(path), width, height);
+        } catch (Exception ignored) {
+            // the waiting images keep their current native image
+        } finally {
+            // a failed request is removed too, so it can be requested again
+            synchronized (this) {
+                waitingImages = pendingRequests.remove(key);
+                if (decodedImage != null) {
+                    decodedImages.put(key, decodedImage);
+                    usedMemory += getMemory(decodedImage);
+                    evict();
+                }
+            }
+        }
+
+        if (decodedImage != null) {
+            for (WaitingImage waitingImage : waitingImages) {
+                Image image = waitingImage.image;
+                // the image could have been changed while decoding
+                if (path.equals(image.getPath())) {
+                    image.setNative(decodedImage, decodedImage.getWidth(), decodedImage.getHeight());
+                    // the loaded image must be displayed
+                    float[] area = waitingImage.area;
+                    if (area != null) {
+                        waitingImage.damageRegion.add(area[0], area[1], area[2], area[3]);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Helper method. Evicts the least recently used images until the cache fits the memory budget.
+     */
+
+    private void evict() {
+        Iterator<BufferedImage> iterator = decodedImages.values().iterator();
+        while (usedMemory > memoryBudget && iterator.hasNext()) {
+            usedMemory -= getMemory(iterator.next());
+            iterator.remove();
+        }
+    }
+
+    /**
+     * Helper function. Returns the memory, in bytes, used by the given image.
+     */
+
+    private static long getMemory(BufferedImage image) {
+        return (long) BYTES_PER_PIXEL * image.getWidth() * image.getHeight();
+    }
+
+    /**
+     * Decodes the given file to the given size.
+     * <br>
+     * When the file is larger than the given size, it is subsampled while decoding, so the full-size
+     * image is never allocated; the result is then scaled to the exact size.
+     *
+     * @param file   the image file
+     * @param width  the target width; {@code <= 0} to use the file width
+     * @param height the target height; {@code <= 0} to use the file height
+     * @return the decoded image or null if the file can't be decoded
+     * @throws java.io.IOException if the file can't be read
+     */
+
+    public static BufferedImage decode(File file, int width, int height) throws java.io.IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(file)) {
+            if (input == null) {
+                return null;
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                return null;
+            }
+
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int fileWidth = reader.getWidth(0);
+                int fileHeight = reader.getHeight(0);
+                int targetWidth = width > 0 ? width : fileWidth;
+                int targetHeight = height > 0 ? height : fileHeight;
+
+                // skips the pixels that would be discarded by the scaling
+                ImageReadParam readParam = reader.getDefaultReadParam();
+                int subsampling = Math.max(1, Math.min(fileWidth / targetWidth, fileHeight / targetHeight));
+                readParam.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                BufferedImage subsampledImage = reader.read(0, readParam);
+
+                BufferedImage result = createCompatibleImage(targetWidth, targetHeight);
+                Graphics2D graphics = result.createGraphics();
+                graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION,
+                        RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                graphics.drawImage(subsampledImage, 0, 0, targetWidth, targetHeight, null);
+                graphics.dispose();
+                return result;
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * Helper function. Creates a translucent image compatible with the screen, when available.
+     */
+
+    private static BufferedImage createCompatibleImage(int width, int height) {
+        if (GraphicsEnvironment.isHeadless()) {
+            return new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        }
+        return GraphicsEnvironment
+                .getLocalGraphicsEnvironment()
+                .getDefaultScreenDevice()
+                .getDefaultConfiguration()
+                .createCompatibleImage(width, height, Transparency.TRANSLUCENT);
+    }
+
+    /**
+     * @return the unique GraphicsAWTImageLoader instance
+     */
+
+    public static GraphicsAWTImageLoader getInstance() {
+        return IMAGE_LOADER;
+    }
+}
@@ -1,15 +1,13 @@
 package adaptor.swing.graphics;
 
-import uia.core.rendering.geometry.GeometryUtility;
 import uia.core.rendering.color.Color;
 import uia.core.rendering.image.Image;
 import uia.core.rendering.Transform;
+import uia.utility.MathUtility;
 import uia.core.rendering.font.Font;
 
-import javax.imageio.ImageIO;
 import java.awt.geom.Path2D;
 import java.util.Objects;
-import java.io.File;
 import java.awt.*;
 
 /**
@@ -17,6 +15,7 @@ import java.awt.*;
  */
 
 public final class GraphicsAWTUtility {
+    private static final Canvas FONT_METRICS_CANVAS = new Canvas();
 
     private GraphicsAWTUtility() {
     }
@@ -45,13 +44,13 @@ public final class GraphicsAWTUtility {
     // Font
 
     /**
-     * Creates the AWT corresponding Font object.
+     * Creates the AWT corresponding Font object without building the given font.
      *
      * @param font the font used to create the AWT one
      * @return a new corresponding {@link java.awt.Font}
      */
 
-    public static java.awt.Font createFont(Font font) {
+    public static java.awt.Font createNativeFont(Font font) {
         java.awt.Font result = null;
 
         switch (font.getStyle()) {
@@ -65,6 +64,18 @@ public final class GraphicsAWTUtility {
                 result = new java.awt.Font(font.getName(), java.awt.Font.PLAIN, (int) font.getSize());
                 break;
         }
+        return result;
+    }
+
+    /**
+     * Creates the AWT corresponding Font object and builds the given font with its data.
+     *
+     * @param font the font used to create the AWT one
+     * @return a new corresponding {@link java.awt.Font}
+     */
+
+    public static java.awt.Font createFont(Font font) {
+        java.awt.Font result = createNativeFont(font);
 
         // builds the UIa font
         buildFontData(font, result);
@@ -75,6 +86,9 @@ public final class GraphicsAWTUtility {
     /**
      * Builds the given font with the awt font data.
      * <br>
+     * The font measure is only used to fill the font advance table, so text measurement
+     * doesn't call AWT once the font has been built.
+     * <br>
      * Time complexity: T(1).
      *
      * @param font    a font to be built
@@ -87,7 +101,7 @@ public final class GraphicsAWTUtility {
         Objects.requireNonNull(font);
         Objects.requireNonNull(awtFont);
 
-        FontMetrics metrics = new Canvas().getFontMetrics(awtFont);
+        FontMetrics metrics = FONT_METRICS_CANVAS.getFontMetrics(awtFont);
         font.buildFont(
                 metrics.getAscent(),
                 metrics.getDescent(),
@@ -100,26 +114,15 @@ public final class GraphicsAWTUtility {
 
     /**
      * Creates the AWT corresponding Image object.
+     * <br>
+     * The image is loaded in background, at its file size, by the {@link GraphicsAWTImageLoader}.
+     * Its screen area is unknown, so nothing is damaged when it is loaded.
      *
      * @param image the image used to create the AWT one
      */
 
     public static void createImage(Image image, java.awt.Image fakeImage) {
-        // sets a fake image while the specified one is loading
-        image.setNative(fakeImage, 1, 1);
-
-        new Thread(() -> {
-            try {
-                java.awt.Image awtImage = ImageIO.read(new File(image.getPath()));
-                image.setNative(
-                        awtImage,
-                        awtImage.getWidth(null),
-                        awtImage.getHeight(null)
-                );
-            } catch (Exception ignored) {
-                //
-            }
-        }).start();
+        GraphicsAWTImageLoader.getInstance().load(image, fakeImage, 0, 0, null);
     }
 
     // Shape
@@ -140,25 +143,31 @@ public final class GraphicsAWTUtility {
         targetPath.reset();
 
         if (length > 0) {
-            boolean firstVertex = true;
-            float[] transformedVertex = {0f, 0f};
+            float translationX = 0f;
+            float translationY = 0f;
+            float scaleX = 1f;
+            float scaleY = 1f;
+            float cos = 1f;
+            float sin = 0f;
+            // sine and cosine are computed once per shape
+            if (transform != null) {
+                float rotation = transform.getRotation();
+                translationX = transform.getTranslationX();
+                translationY = transform.getTranslationY();
+                scaleX = transform.getScaleX();
+                scaleY = transform.getScaleY();
+                cos = MathUtility.cos(rotation);
+                sin = MathUtility.sin(rotation);
+            }
 
             for (int i = 0; i < length; i++) {
-                float vertexX = vertices[2 * i];
-                float vertexY = vertices[2 * i + 1];
+                float vertexX = scaleX * vertices[2 * i];
+                float vertexY = scaleY * vertices[2 * i + 1];
 
                 // calculates the transformed vertex
-                if (transform == null) {
-                    transformedVertex[0] = vertexX;
-                    transformedVertex[1] = vertexY;
-                } else {
-                    GeometryUtility.computeTransformedVertex(transform, vertexX, vertexY, transformedVertex);
-                }
-
-                float newVertexX = transformedVertex[0];
-                float newVertexY = transformedVertex[1];
-                if (firstVertex) {
-                    firstVertex = false;
+                float newVertexX = translationX + vertexX * cos - vertexY * sin;
+                float newVertexY = translationY + vertexX * sin + vertexY * cos;
+                if (i == 0) {
                     targetPath.moveTo(newVertexX, newVertexY);
                 } else {
                     targetPath.lineTo(newVertexX, newVertexY);
@@ -76,6 +76,16 @@ public class CallbackStore implements Callable {
         }
     }
 
+    @Override
+    public boolean hasCallbacks(Class<? extends Callback> type) {
+        for (Callback callback : callbacks.values()) {
+            if (type.isInstance(callback)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     @Override
     public int numberOfCallbacks() {
         return callbacks.size();
@@ -0,0 +1,145 @@
+package uia.application.events;
+
+import uia.core.basement.Callable;
+import uia.core.basement.Callback;
+
+import java.util.LinkedHashMap;
+import java.util.ArrayDeque;
+import java.util.LinkedHashSet;
+import java.util.HashMap;
+import java.util.Objects;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * {@link Callable} implementation based on a dispatch table.
+ * <br>
+ * The {@link Callback} types implemented by a callback are resolved once, when it is registered. Each
+ * callback is then stored in an array for each of its types, so a notification is a direct loop on
+ * the array associated with the notified type.
+ * <br>
+ * <br>
+ * <i>Policies:</i>
+ * <ul>
+ *     <li>callbacks of the same type are notified in registration order;</li>
+ *     <li>a callback is notified for each Callback sub-interface implemented by its class, its
+ *     superclasses and their interfaces;</li>
+ *     <li>a callback registered or unregistered during a notification takes effect from the next one.</li>
+ * </ul>
+ */
+
+public class TypedCallbackStore implements Callable {
+    private static final Callback<?>[] NO_CALLBACKS = {};
+
+    private final Map<Long, Callback<?>> callbacks;
+    private final Map<Callback<?>, Long> callbackIDs;
+    private final Map<Class<?>, Callback<?>[]> dispatchTable;
+
+    private long idCounter = 0;
+
+    public TypedCallbackStore(int size) {
+        callbacks = new LinkedHashMap<>(size);
+        callbackIDs = new HashMap<>(size);
+        dispatchTable = new HashMap<>(size);
+    }
+
+    /**
+     * Helper function. Returns the Callback types implemented by the given callback class.
+     * <br>
+     * Time complexity: O(n) where 'n' is the number of the class interfaces and superclasses
+     */
+
+    private static Set<Class<?>> resolveCallbackTypes(Class<?> callbackClass) {
+        Set<Class<?>> result = new LinkedHashSet<>();
+        Deque<Class<?>> typesToVisit = new ArrayDeque<>();
+        for (Class<?> type = callbackClass; type != null; type = type.getSuperclass()) {
+            typesToVisit.addAll(Arrays.asList(type.getInterfaces()));
+        }
+
+        while (!typesToVisit.isEmpty()) {
+            Class<?> type = typesToVisit.removeFirst();
+            if (Callback.class.isAssignableFrom(type) && result.add(type)) {
+                typesToVisit.addAll(Arrays.asList(type.getInterfaces()));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public long registerCallback(Callback<?> callback) {
+        Objects.requireNonNull(callback, "'null' callbacks are forbidden");
+
+        long resultID = -1;
+        if (!callbackIDs.containsKey(callback)) {
+            idCounter++;
+            resultID = idCounter;
+            callbacks.put(resultID, callback);
+            callbackIDs.put(callback, resultID);
+
+            // adds the callback to the arrays of its types
+            for (Class<?> type : resolveCallbackTypes(callback.getClass())) {
+                Callback<?>[] typeCallbacks = dispatchTable.getOrDefault(type, NO_CALLBACKS);
+                Callback<?>[] newTypeCallbacks = Arrays.copyOf(typeCallbacks, typeCallbacks.length + 1);
+                newTypeCallbacks[typeCallbacks.length] = callback;
+                dispatchTable.put(type, newTypeCallbacks);
+            }
+        }
+        return resultID;
+    }
+
+    @Override
+    public void unregisterCallback(long callbackID) {
+        Callback<?> callback = callbacks.remove(callbackID);
+        if (callback == null) {
+            return;
+        }
+        callbackIDs.remove(callback);
+
+        // removes the callback from the arrays of its types
+        for (Class<?> type : resolveCallbackTypes(callback.getClass())) {
+            Callback<?>[] typeCallbacks = dispatchTable.get(type);
+            if (typeCallbacks.length == 1) {
+                dispatchTable.remove(type);
+            } else {
+                Callback<?>[] newTypeCallbacks = new Callback<?>[typeCallbacks.length - 1];
+                int index = 0;
+                for (Callback<?> typeCallback : typeCallbacks) {
+                    if (typeCallback != callback) {
+                        newTypeCallbacks[index++] = typeCallback;
+                    }
+                }
+                dispatchTable.put(type, newTypeCallbacks);
+            }
+        }
+    }
+
+    @Override
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public void notifyCallbacks(Class<? extends Callback> type, Object data) {
+        Objects.requireNonNull(type);
+        Objects.requireNonNull(data);
+
+        Callback[] typeCallbacks = dispatchTable.get(type);
+        if (typeCallbacks != null) {
+            try {
+                for (Callback callback : typeCallbacks) {
+                    callback.update(data);
+                }
+            } catch (Exception ignored) {
+                // ignored
+            }
+        }
+    }
+
+    @Override
+    public boolean hasCallbacks(Class<? extends Callback> type) {
+        return dispatchTable.containsKey(type);
+    }
+
+    @Override
+    public int numberOfCallbacks() {
+        return callbacks.size();
+    }
+}
@@ -0,0 +1,160 @@
+package uia.application.input;
+
+import uia.application.message.MessageFactory;
+import uia.core.ui.primitives.ScreenTouch;
+import uia.core.basement.message.Message;
+import uia.core.context.InputEmulator;
+import uia.core.ui.primitives.Key;
+
+import java.util.function.Consumer;
+import java.util.PriorityQueue;
+import java.util.Comparator;
+import java.util.Queue;
+
+/**
+ * {@link InputEmulator} implementation driven by an explicit timeline, without any thread.
+ * <br>
+ * Single events are delivered synchronously, when the corresponding method is invoked. The events of
+ * a sequence (for instance, a mouse movement) are spread over the timeline and delivered by
+ * {@link #advance(float)} once their time has come.
+ */
+
+public final class SynchronousEmulatedInput implements InputEmulator {
+
+    /**
+     * Helper class. An event waiting to be delivered.
+     */
+
+    private static final class ScheduledMessage {
+        private final Message message;
+        private final double time;
+        private final long order;
+
+        private ScheduledMessage(Message message, double time, long order) {
+            this.message = message;
+            this.time = time;
+            this.order = order;
+        }
+    }
+
+    private final Consumer<Message> generatedInputReader;
+    private final Queue<ScheduledMessage> scheduledMessages;
+    private double currentTime = 0d;
+    private long scheduledCount = 0;
+
+    public SynchronousEmulatedInput(Consumer<Message> generatedInputReader) {
+        this.generatedInputReader = generatedInputReader;
+        scheduledMessages = new PriorityQueue<>(Comparator
+                .comparingDouble((ScheduledMessage scheduledMessage) -> scheduledMessage.time)
+                .thenComparingLong(scheduledMessage -> scheduledMessage.order));
+    }
+
+    /**
+     * Moves the timeline forward and delivers the events whose time has come.
+     *
+     * @param seconds the seconds to move the timeline forward
+     * @throws IllegalArgumentException if {@code seconds < 0}
+     */
+
+    public void advance(float seconds) {
+        if (seconds < 0) {
+            throw new IllegalArgumentException("'seconds' must be >= 0");
+        }
+
+        currentTime += seconds;
+        while (!scheduledMessages.isEmpty() && scheduledMessages.peek().time <= currentTime) {
+            generatedInputReader.accept(scheduledMessages.poll().message);
+        }
+    }
+
+    /**
+     * @return the number of events waiting to be delivered
+     */
+
+    public int pendingEvents() {
+        return scheduledMessages.size();
+    }
+
+    /**
+     * Helper function. Creates a new screen touch message.
+     */
+
+    private static Message createScreenTouchMessage(ScreenTouch.Action action, int x, int y) {
+        int wheelRotation = 0;
+        ScreenTouch screenTouch = new ScreenTouch(action, null, x, y, wheelRotation);
+        return MessageFactory.create(screenTouch, null);
+    }
+
+    /**
+     * Helper function. Spreads a new sequence of screen touches over the timeline.
+     */
+
+    private void createScreenTouchSequence(ScreenTouch.Action action,
+                                           int xStart, int yStart, int xEnd, int yEnd,
+                                           int interactions, float duration) {
+        if (interactions <= 0) {
+            throw new IllegalArgumentException("the number of mouse 'movements' must be greater than zero");
+        }
+        if (duration <= 0) {
+            throw new IllegalArgumentException("the duration of the movement must be greater than zero");
+        }
+
+        double period = (double) duration / interactions;
+        for (int i = 0; i < interactions; i++) {
+            int touchX = xStart + i * (xEnd - xStart) / interactions;
+            int touchY = yStart + i * (yEnd - yStart) / interactions;
+            Message message = createScreenTouchMessage(action, touchX, touchY);
+            scheduledMessages.add(new ScheduledMessage(message, currentTime + i * period, scheduledCount++));
+        }
+        // delivers the events due now
+        advance(0f);
+    }
+
+    /**
+     * Helper function. Delivers a new key message.
+     */
+
+    private void generateKey(Key.Action action, char keyChar, int keyCode) {
+        int keyModifiers = 0;
+        Key key = new Key(action, keyModifiers, keyChar, keyCode);
+        generatedInputReader.accept(MessageFactory.create(key, null));
+    }
+
+    @Override
+    public InputEmulator clickOn(int x, int y) {
+        generatedInputReader.accept(createScreenTouchMessage(ScreenTouch.Action.CLICKED, x, y));
+        return this;
+    }
+
+    @Override
+    public InputEmulator moveMouseOnScreen(int xStart, int yStart, int xEnd, int yEnd,
+                                           int movements, float duration) {
+        createScreenTouchSequence(ScreenTouch.Action.MOVED, xStart, yStart, xEnd, yEnd, movements, duration);
+        return this;
+    }
+
+    @Override
+    public InputEmulator dragMouseOnScreen(int xStart, int yStart, int xEnd, int yEnd,
+                                           int movements, float duration) {
+        createScreenTouchSequence(ScreenTouch.Action.DRAGGED, xStart, yStart, xEnd, yEnd, movements, duration);
+        return this;
+    }
+
+    @Override
+    public InputEmulator pressKey(char key, int keyCode) {
+        generateKey(Key.Action.PRESSED, key, keyCode);
+        return this;
+    }
+
+    @Override
+    public InputEmulator releaseKey(char key, int keyCode) {
+        generateKey(Key.Action.RELEASED, key, keyCode);
+        return this;
+    }
+
+    @Override
+    public InputEmulator typeKey(char key, int keyCode) {
+        generateKey(Key.Action.TYPED, key, keyCode);
+        return this;
+    }
+}
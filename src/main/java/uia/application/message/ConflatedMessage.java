@@ -0,0 +1,101 @@
+package uia.application.message;
+
+import uia.core.basement.message.Message;
+
+import java.util.Objects;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * ConflatedMessage is a {@link Message} whose payload is a state where only the latest value matters,
+ * for instance a progress or a price.
+ * <br>
+ * The message carries a conflation key made of its sender, recipient and topic: when a message store
+ * supports conflation, a new message replaces, in place, the pending message with the same key.
+ * <br>
+ * The message can have a time to live: once expired, it is dropped instead of being dispatched.
+ *
+ * @see uia.application.message.store.ConcreteMessageStore
+ */
+
+public final class ConflatedMessage implements Message {
+    /**
+     * The time to live of a message that never expires.
+     */
+    public static final long NO_EXPIRATION = -1L;
+
+    private final List<Object> conflationKey;
+    private final Object payload;
+    private final String recipient;
+    private final String sender;
+    private final String topic;
+    private final long creationTime;
+    private final long timeToLive;
+
+    public ConflatedMessage(String sender, String recipient, String topic, Object payload, long timeToLive) {
+        this.topic = Objects.requireNonNull(topic);
+        this.recipient = recipient;
+        this.payload = payload;
+        this.sender = sender;
+        this.timeToLive = timeToLive;
+        creationTime = System.nanoTime();
+        conflationKey = Arrays.asList(sender, recipient, topic);
+    }
+
+    @Override
+    public String toString() {
+        return "ConflatedMessage{sender='" + sender + "', recipient='" + recipient + "', topic='" + topic +
+                "', payload=" + payload + ", timeToLive=" + timeToLive + '}';
+    }
+
+    /**
+     * @return the message topic
+     */
+
+    public String getTopic() {
+        return topic;
+    }
+
+    /**
+     * @return the conflation key made of the message sender, recipient and topic
+     */
+
+    public Object getConflationKey() {
+        return conflationKey;
+    }
+
+    /**
+     * @return the message time to live in nanoseconds or {@link #NO_EXPIRATION}
+     */
+
+    public long getTimeToLive() {
+        return timeToLive;
+    }
+
+    /**
+     * Checks if this message is expired.
+     *
+     * @param time the current time in nanoseconds, as given by {@link System#nanoTime()}
+     * @return true if this message has a time to live and it is elapsed
+     */
+
+    public boolean isExpired(long time) {
+        return timeToLive >= 0 && time - creationTime > timeToLive;
+    }
+
+    @Override
+    public String getSender() {
+        return sender;
+    }
+
+    @Override
+    public String getRecipient() {
+        return recipient;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <T> T getPayload() {
+        return (T) payload;
+    }
+}
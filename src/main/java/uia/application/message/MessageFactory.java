@@ -55,4 +55,59 @@ public final class MessageFactory {
     public static Message create(Object payload, String recipient) {
         return create(payload, null, recipient);
     }
+
+    /**
+     * Creates a new Message published on the given topic.
+     *
+     * @param payload the payload of the message
+     * @param sender  the sender of the message; it could be null
+     * @param topic   the topic of the message
+     * @return the created Message
+     * @throws NullPointerException if {@code payload == null || topic == null}
+     * @see TopicMessage
+     */
+
+    public static Message createTopicMessage(Object payload, String sender, String topic) {
+        Objects.requireNonNull(payload);
+        Objects.requireNonNull(topic);
+
+        return new TopicMessage(sender, topic, payload);
+    }
+
+    /**
+     * Creates a new Message where only the latest value matters. The message never expires.
+     *
+     * @param payload   the payload of the message
+     * @param sender    the sender of the message; it could be null
+     * @param recipient the recipient of the message; it could be null
+     * @param topic     the topic of the message
+     * @return the created Message
+     * @throws NullPointerException if {@code payload == null || topic == null}
+     * @see ConflatedMessage
+     */
+
+    public static Message createConflatedMessage(Object payload, String sender, String recipient, String topic) {
+        return createConflatedMessage(payload, sender, recipient, topic, ConflatedMessage.NO_EXPIRATION);
+    }
+
+    /**
+     * Creates a new Message where only the latest value matters.
+     *
+     * @param payload    the payload of the message
+     * @param sender     the sender of the message; it could be null
+     * @param recipient  the recipient of the message; it could be null
+     * @param topic      the topic of the message
+     * @param timeToLive the message time to live in nanoseconds or {@link ConflatedMessage#NO_EXPIRATION}
+     * @return the created Message
+     * @throws NullPointerException if {@code payload == null || topic == null}
+     * @see ConflatedMessage
+     */
+
+    public static Message createConflatedMessage(Object payload, String sender, String recipient,
+                                                 String topic, long timeToLive) {
+        Objects.requireNonNull(payload);
+        Objects.requireNonNull(topic);
+
+        return new ConflatedMessage(sender, recipient, topic, payload, timeToLive);
+    }
 }
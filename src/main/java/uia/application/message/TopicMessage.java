@@ -0,0 +1,55 @@
+package uia.application.message;
+
+import uia.core.basement.message.Message;
+
+import java.util.Objects;
+
+/**
+ * TopicMessage is a broadcast {@link Message} published on a named topic.
+ * <br>
+ * When the topic has subscribers, the message is delivered only to them;
+ * otherwise, it is delivered to all views like any other broadcast message.
+ *
+ * @see uia.application.message.messagingsystem.MessagingSystem#subscribe(uia.core.ui.View, String)
+ */
+
+public final class TopicMessage implements Message {
+    private final Object payload;
+    private final String sender;
+    private final String topic;
+
+    public TopicMessage(String sender, String topic, Object payload) {
+        this.topic = Objects.requireNonNull(topic);
+        this.payload = payload;
+        this.sender = sender;
+    }
+
+    @Override
+    public String toString() {
+        return "TopicMessage{sender='" + sender + "', topic='" + topic + "', payload=" + payload + '}';
+    }
+
+    /**
+     * @return the message topic
+     */
+
+    public String getTopic() {
+        return topic;
+    }
+
+    @Override
+    public String getSender() {
+        return sender;
+    }
+
+    @Override
+    public String getRecipient() {
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <T> T getPayload() {
+        return (T) payload;
+    }
+}
@@ -0,0 +1,162 @@
+package uia.application.message.messagingsystem;
+
+import uia.application.message.systemessages.ScreenTouchMessage;
+import uia.core.ui.primitives.ScreenTouch;
+import uia.core.basement.message.Message;
+
+import java.util.ArrayList;
+import java.util.Objects;
+import java.util.List;
+
+/**
+ * The InputCoalescer is responsible for merging the screen touch messages that describe a pointer motion.
+ * <br>
+ * A run of consecutive screen touch messages, with the same sender and recipient, made only of
+ * MOVED, DRAGGED and WHEEL touches is replaced by a single message that contains:
+ * <ul>
+ *     <li>the latest MOVED touch;</li>
+ *     <li>the latest DRAGGED touch;</li>
+ *     <li>a WHEEL touch, placed at the latest wheel position, whose rotation is the sum of the wheel rotations.</li>
+ * </ul>
+ * The touches are sorted by their last occurrence. Any other message, including the screen touch messages
+ * with PRESSED, RELEASED, CLICKED or EXITED touches, ends the run and is left untouched.
+ */
+
+public final class InputCoalescer {
+
+    private InputCoalescer() {
+    }
+
+    /**
+     * Helper function. Checks if the given message carries only motion touches.
+     */
+
+    private static boolean isMotionMessage(Message message) {
+        if (!(message instanceof ScreenTouchMessage)) {
+            return false;
+        }
+
+        ScreenTouch[] screenTouches = message.getPayload();
+        for (ScreenTouch screenTouch : screenTouches) {
+            ScreenTouch.Action action = screenTouch.getAction();
+            if (screenTouch.isConsumed()
+                    || (action != ScreenTouch.Action.MOVED
+                    && action != ScreenTouch.Action.DRAGGED
+                    && action != ScreenTouch.Action.WHEEL)) {
+                return false;
+            }
+        }
+        return screenTouches.length > 0;
+    }
+
+    /**
+     * Helper function. Checks if the given messages have the same sender and recipient.
+     */
+
+    private static boolean haveSameRoute(Message message, Message otherMessage) {
+        return Objects.equals(message.getSender(), otherMessage.getSender())
+                && Objects.equals(message.getRecipient(), otherMessage.getRecipient());
+    }
+
+    /**
+     * Helper function. Merges the given run of motion messages into a single message.
+     * <br>
+     * Time complexity: O(n)
+     *
+     * @param messages the messages to be merged
+     * @param start    the first message of the run
+     * @param end      the last message (excluded) of the run
+     * @return the merged message
+     */
+
+    private static Message merge(List<Message> messages, int start, int end) {
+        ScreenTouch moved = null;
+        ScreenTouch dragged = null;
+        ScreenTouch wheel = null;
+        int wheelRotation = 0;
+        // the last occurrence of each action
+        int[] occurrences = {-1, -1, -1};
+
+        int occurrence = 0;
+        for (int i = start; i < end; i++) {
+            ScreenTouch[] screenTouches = messages.get(i).getPayload();
+            for (ScreenTouch screenTouch : screenTouches) {
+                switch (screenTouch.getAction()) {
+                    case MOVED:
+                        moved = screenTouch;
+                        occurrences[0] = occurrence;
+                        break;
+                    case DRAGGED:
+                        dragged = screenTouch;
+                        occurrences[1] = occurrence;
+                        break;
+                    default:
+                        wheel = screenTouch;
+                        wheelRotation += screenTouch.getWheelRotation();
+                        occurrences[2] = occurrence;
+                }
+                occurrence++;
+            }
+        }
+        if (wheel != null) {
+            wheel = new ScreenTouch(ScreenTouch.Action.WHEEL, wheel.getButton(), wheel.getX(), wheel.getY(), wheelRotation);
+        }
+
+        // sorts the touches by their last occurrence
+        ScreenTouch[] candidates = {moved, dragged, wheel};
+        List<ScreenTouch> result = new ArrayList<>(3);
+        for (int i = 0; i < occurrence; i++) {
+            for (int j = 0; j < candidates.length; j++) {
+                if (occurrences[j] == i) {
+                    result.add(candidates[j]);
+                }
+            }
+        }
+
+        Message firstMessage = messages.get(start);
+        return new ScreenTouchMessage(
+                firstMessage.getSender(),
+                firstMessage.getRecipient(),
+                result.toArray(new ScreenTouch[0])
+        );
+    }
+
+    /**
+     * Merges the runs of motion messages contained in the given list.
+     * <br>
+     * Time complexity: O(n)
+     * <br>
+     * Space complexity: O(n)
+     *
+     * @param messages the messages to be coalesced
+     * @return a new list with the coalesced messages; the order of the messages is preserved
+     * @throws NullPointerException if {@code messages == null}
+     */
+
+    public static List<Message> coalesce(List<Message> messages) {
+        Objects.requireNonNull(messages);
+
+        int size = messages.size();
+        List<Message> result = new ArrayList<>(size);
+        int i = 0;
+        while (i < size) {
+            Message message = messages.get(i);
+            int runEnd = i + 1;
+            if (isMotionMessage(message)) {
+                while (runEnd < size
+                        && isMotionMessage(messages.get(runEnd))
+                        && haveSameRoute(message, messages.get(runEnd))) {
+                    runEnd++;
+                }
+            }
+
+            if (runEnd - i > 1) {
+                result.add(merge(messages, i, runEnd));
+            } else {
+                result.add(message);
+            }
+            i = runEnd;
+        }
+        return result;
+    }
+}
@@ -2,12 +2,15 @@ package uia.application.message.messagingsystem;
 
 import uia.core.basement.message.Message;
 
-import java.util.HashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.Objects;
 import java.util.Map;
 
 /**
  * The MessageLocker is a service responsible for handling the
  * message locking lifecycle.
+ * <br>
+ * The MessageLocker is thread-safe: locks can be requested and released from any thread.
  */
 
 public final class MessageLocker {
@@ -16,7 +19,7 @@ public final class MessageLocker {
     private final Map<Class<? extends Message>, String> lockTable;
 
     private MessageLocker() {
-        lockTable = new HashMap<>();
+        lockTable = new ConcurrentHashMap<>();
     }
 
     /**
@@ -29,11 +32,10 @@ public final class MessageLocker {
      */
 
     public boolean requestLockOn(String sourceID, Class<? extends Message> messageType) {
-        boolean isTypeFree = !lockTable.containsKey(messageType);
-        if (isTypeFree) {
-            lockTable.put(messageType, sourceID);
-        }
-        return isTypeFree;
+        Objects.requireNonNull(sourceID);
+        Objects.requireNonNull(messageType);
+
+        return lockTable.putIfAbsent(messageType, sourceID) == null;
     }
 
     /**
@@ -47,6 +49,30 @@ public final class MessageLocker {
         return lockTable.remove(messageType) != null;
     }
 
+    /**
+     * Releases the lock on the provided message type only when it is held by the specified source.
+     *
+     * @param sourceID    the ID of the source that acquired the lock
+     * @param messageType the type of message to be unlocked
+     * @return true if the type has been unlocked, false otherwise
+     */
+
+    public boolean releaseLockOn(String sourceID, Class<? extends Message> messageType) {
+        return lockTable.remove(messageType, sourceID);
+    }
+
+    /**
+     * Returns the ID of the source that locked the type of the provided message.
+     *
+     * @param message a not null message
+     * @return the ID of the source that locked the message type or null
+     * @throws NullPointerException if {@code message == null}
+     */
+
+    public String getLockOwner(Message message) {
+        return lockTable.get(message.getClass());
+    }
+
     /**
      * @return true if the provided message is to be locked; false otherwise
      */
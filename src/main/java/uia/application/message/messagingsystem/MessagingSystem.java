@@ -1,29 +1,199 @@
 package uia.application.message.messagingsystem;
 
+import uia.application.message.systemessages.ScreenTouchMessage;
+import uia.application.message.systemessages.KeyMessage;
 import uia.application.message.store.GlobalMessageStore;
+import uia.application.message.ConflatedMessage;
+import uia.application.resourcetracker.FrameProfiler;
 import uia.core.basement.message.MessageStore;
 import uia.core.basement.message.Message;
 import uia.core.ui.View;
 
-import java.util.Objects;
-import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.*;
 
 /**
  * MessagingSystem is responsible for dispatching messages.
+ * <br>
+ * Before being dispatched, the messages describing a pointer motion are merged with the {@link InputCoalescer},
+ * so that a burst of pointer events costs a single dispatch. Use {@link #setInputCoalescing(boolean)}
+ * to disable this feature.
+ * <br>
+ * When the given View is a {@link uia.application.ui.group.ComponentGroup}, the messages whose recipients
+ * are known are not dispatched to the whole tree: a message with a recipient is delivered straight to it,
+ * a message locked with the {@link MessageLocker} straight to the lock owner.
+ * <br>
+ * <br>
+ * <b>Topics</b>
+ * <br>
+ * A View can subscribe to a named topic with {@link #subscribe(View, String)}. Topic routing is opt-in:
+ * only a {@link uia.application.message.TopicMessage} or a {@link ConflatedMessage} published on a topic
+ * that has subscribers is delivered only to them; any other broadcast message, whatever its payload,
+ * is delivered to the whole tree. A subscription belongs to the View: the View receives the messages
+ * of the topic while it is in the tree, no matter how it has been inserted or removed.
+ * <br>
+ * <br>
+ * <b>Lanes</b>
+ * <br>
+ * The dequeued messages are sorted into {@link Lane}s, dispatched by priority: first the input, then the
+ * lifecycle messages, then the application messages. No message type is dispatched in the
+ * {@link Lane#LIFECYCLE} lane by default: it stays empty until a payload type is assigned to it with
+ * {@link #setLane(Class, Lane)}. Each call dispatches messages until its
+ * time budget, set with {@link #setTimeBudget(long)}, runs out; the messages left are kept, in order, for
+ * the next call. To prevent starvation, each lane dispatches at least {@link #MIN_MESSAGES_PER_LANE}
+ * messages per call, regardless of the time budget. The backlog of each lane is measured by the
+ * {@link FrameProfiler}.
+ * <br>
+ * The messages are dequeued from the {@link GlobalMessageStore} only while the lanes have room: the total
+ * backlog never exceeds the limit set with {@link #setMaxMessagesToProcess(int)}. The messages exceeding it
+ * are left in the store, subject to its capacity and overflow policy.
+ * <br>
+ * A {@link ConflatedMessage} is conflated in the lanes too: a new message replaces, in place, the waiting
+ * message with the same conflation key. An expired {@link ConflatedMessage} is dropped instead of being
+ * dispatched.
  */
 
 public class MessagingSystem {
+    /**
+     * The default maximum number of messages waiting in the lanes.
+     */
     public static final int MAX_MESSAGES_TO_PROCESS = 25_000;
 
+    /**
+     * The default time budget, in nanoseconds, of a dispatch.
+     */
+    public static final long DEFAULT_TIME_BUDGET = 4_000_000L;
+
+    /**
+     * The minimum number of messages that each lane dispatches per call.
+     */
+    public static final int MIN_MESSAGES_PER_LANE = 16;
+
+    /**
+     * Lane defines the dispatch priorities, from the highest to the lowest.
+     */
+
+    public enum Lane {
+        INPUT(FrameProfiler.Metric.INPUT_BACKLOG),
+        LIFECYCLE(FrameProfiler.Metric.LIFECYCLE_BACKLOG),
+        APPLICATION(FrameProfiler.Metric.APPLICATION_BACKLOG);
+
+        private final FrameProfiler.Metric backlogMetric;
+
+        Lane(FrameProfiler.Metric backlogMetric) {
+            this.backlogMetric = backlogMetric;
+        }
+    }
+
+    private static final Lane[] LANES = Lane.values();
+
+    private static final Map<View, Set<String>> SUBSCRIPTIONS = new WeakHashMap<>();
+    private static int subscriptionsVersion = 0;
+
     private final MessageStore globalMessageStore = GlobalMessageStore.getInstance();
     private final MessageLocker messageLocker = MessageLocker.getInstance();
+    private final FrameProfiler frameProfiler = FrameProfiler.getInstance();
+
+    private final Map<Object, ConflatedMessage> conflatedMessages;
+    private final Map<Class<?>, Lane> payloadLanes;
+    private final List<Deque<Message>> lanes;
+    private final List<Message> inputMessages;
 
     private int maxMessagesToProcess = MAX_MESSAGES_TO_PROCESS;
+    private long timeBudget = DEFAULT_TIME_BUDGET;
+    private boolean inputCoalescing = true;
+
+    public MessagingSystem() {
+        conflatedMessages = new HashMap<>();
+        payloadLanes = new HashMap<>();
+
+        lanes = new ArrayList<>(LANES.length);
+        for (int i = 0; i < LANES.length; i++) {
+            lanes.add(new ArrayDeque<>());
+        }
+
+        inputMessages = new ArrayList<>();
+    }
 
     /**
-     * Sets the maximum number of messages that can be processed.s
+     * Subscribes the given View to the given named topic.
+     * <br>
+     * The subscription is kept until {@link #unsubscribe(View, String)} is called or the View is
+     * no longer referenced.
      *
-     * @param maxMessagesToProcess the maximum messages (> 0) that can be processed
+     * @param view  a {@link View}
+     * @param topic the name of the topic
+     * @throws NullPointerException if {@code view == null || topic == null}
+     */
+
+    public static void subscribe(View view, String topic) {
+        Objects.requireNonNull(view);
+        Objects.requireNonNull(topic);
+
+        synchronized (SUBSCRIPTIONS) {
+            if (SUBSCRIPTIONS.computeIfAbsent(view, key -> new HashSet<>()).add(topic)) {
+                subscriptionsVersion++;
+            }
+        }
+    }
+
+    /**
+     * Unsubscribes the given View from the given named topic.
+     *
+     * @param view  a {@link View}
+     * @param topic the name of the topic
+     * @throws NullPointerException if {@code view == null || topic == null}
+     */
+
+    public static void unsubscribe(View view, String topic) {
+        Objects.requireNonNull(view);
+        Objects.requireNonNull(topic);
+
+        synchronized (SUBSCRIPTIONS) {
+            Set<String> topics = SUBSCRIPTIONS.get(view);
+            if (topics != null && topics.remove(topic)) {
+                if (topics.isEmpty()) {
+                    SUBSCRIPTIONS.remove(view);
+                }
+                subscriptionsVersion++;
+            }
+        }
+    }
+
+    /**
+     * @return the version of the subscriptions; it changes every time a subscription is added or removed
+     */
+
+    public static int getSubscriptionsVersion() {
+        synchronized (SUBSCRIPTIONS) {
+            return subscriptionsVersion;
+        }
+    }
+
+    /**
+     * Applies the given action to each subscription, as a pair of View and topic.
+     *
+     * @param action the action to be applied
+     * @throws NullPointerException if {@code action == null}
+     */
+
+    public static void forEachSubscription(BiConsumer<View, String> action) {
+        Objects.requireNonNull(action);
+
+        synchronized (SUBSCRIPTIONS) {
+            SUBSCRIPTIONS.forEach((view, topics) -> {
+                for (String topic : topics) {
+                    action.accept(view, topic);
+                }
+            });
+        }
+    }
+
+    /**
+     * Sets the maximum number of messages waiting in the lanes. When the lanes are full, no message
+     * is dequeued from the message store.
+     *
+     * @param maxMessagesToProcess the maximum messages (> 0) waiting in the lanes
      * @throws IllegalArgumentException if {@code maxMessagesToProcess <= 0}
      */
 
@@ -35,6 +205,140 @@ public class MessagingSystem {
         this.maxMessagesToProcess = maxMessagesToProcess;
     }
 
+    /**
+     * Sets the time available to dispatch the messages on each call.
+     *
+     * @param timeBudget the time budget (> 0) in nanoseconds
+     * @throws IllegalArgumentException if {@code timeBudget <= 0}
+     */
+
+    public void setTimeBudget(long timeBudget) {
+        if (timeBudget <= 0) {
+            throw new IllegalArgumentException("'timeBudget' must be > 0");
+        }
+
+        this.timeBudget = timeBudget;
+    }
+
+    /**
+     * Enables or disables the input coalescing.
+     *
+     * @param inputCoalescing true to merge the messages describing a pointer motion before dispatching them
+     */
+
+    public void setInputCoalescing(boolean inputCoalescing) {
+        this.inputCoalescing = inputCoalescing;
+    }
+
+    /**
+     * Dispatches the messages with the given payload type in the given lane.
+     * <br>
+     * By default, the screen touch and key messages are dispatched in the {@link Lane#INPUT} lane
+     * and all the other messages in the {@link Lane#APPLICATION} lane.
+     *
+     * @param payloadType the type of the message payload
+     * @param lane        the lane used to dispatch the messages
+     * @throws NullPointerException if {@code payloadType == null || lane == null}
+     */
+
+    public void setLane(Class<?> payloadType, Lane lane) {
+        Objects.requireNonNull(payloadType);
+        Objects.requireNonNull(lane);
+
+        payloadLanes.put(payloadType, lane);
+    }
+
+    /**
+     * @param lane a not null {@link Lane}
+     * @return the number of messages waiting to be dispatched in the given lane
+     * @throws NullPointerException if {@code lane == null}
+     */
+
+    public int getBacklog(Lane lane) {
+        return lanes.get(lane.ordinal()).size();
+    }
+
+    /**
+     * Helper function. Returns the number of messages waiting in all the lanes.
+     */
+
+    private int getTotalBacklog() {
+        int result = 0;
+        for (Deque<Message> messages : lanes) {
+            result += messages.size();
+        }
+        return result;
+    }
+
+    /**
+     * Helper function. Returns the lane of the given message.
+     */
+
+    private Lane getLane(Message message) {
+        if (message instanceof ScreenTouchMessage || message instanceof KeyMessage) {
+            return Lane.INPUT;
+        }
+        Object payload = message.getPayload();
+        Lane result = payload == null ? null : payloadLanes.get(payload.getClass());
+        return result == null ? Lane.APPLICATION : result;
+    }
+
+    /**
+     * Helper function. Sorts the given messages into the lanes.
+     */
+
+    private void sortIntoLanes(List<Message> messages) {
+        inputMessages.clear();
+        for (Message message : messages) {
+            if (message instanceof ConflatedMessage) {
+                ConflatedMessage conflatedMessage = (ConflatedMessage) message;
+                // the waiting message only holds the position of the latest one
+                if (conflatedMessages.put(conflatedMessage.getConflationKey(), conflatedMessage) != null) {
+                    continue;
+                }
+            }
+            Lane lane = getLane(message);
+            if (lane == Lane.INPUT) {
+                inputMessages.add(message);
+            } else {
+                lanes.get(lane.ordinal()).addLast(message);
+            }
+        }
+
+        List<Message> inputToDispatch = inputCoalescing ? InputCoalescer.coalesce(inputMessages) : inputMessages;
+        lanes.get(Lane.INPUT.ordinal()).addAll(inputToDispatch);
+        inputMessages.clear();
+    }
+
+    /**
+     * Helper function. Returns the latest message conflated with the given one.
+     */
+
+    private Message getLatest(Message message) {
+        if (message instanceof ConflatedMessage) {
+            return conflatedMessages.remove(((ConflatedMessage) message).getConflationKey());
+        }
+        return message;
+    }
+
+    /**
+     * Helper function. Dispatches the given message to the given View.
+     */
+
+    private void dispatch(View view, Message message) {
+        // drops the expired messages
+        if (message instanceof ConflatedMessage && ((ConflatedMessage) message).isExpired(System.nanoTime())) {
+            return;
+        }
+        // 1. lock message if required
+        String lockOwner = messageLocker.getLockOwner(message);
+        if (lockOwner != null) {
+            message = new LockedMessage(lockOwner, message);
+        }
+        // 2. dispatches the message to the view
+        view.readMessage(message);
+    }
+
     /**
      * Sends the dequeued messages to the given View.
      *
@@ -45,14 +349,25 @@ public class MessagingSystem {
     public void sendMessagesTo(View view) {
         Objects.requireNonNull(view);
 
-        List<Message> messages = globalMessageStore.pop(maxMessagesToProcess);
-        for (Message message : messages) {
-            // 1. lock message if required
-            if (messageLocker.isMessageToBeLocked(message)) {
-                message = messageLocker.createLock(message);
+        // dequeues only the messages that fit into the lanes
+        int room = maxMessagesToProcess - getTotalBacklog();
+        if (room > 0) {
+            sortIntoLanes(globalMessageStore.pop(room));
+        }
+
+        long deadline = System.nanoTime() + timeBudget;
+        int processedMessages = 0;
+        for (Lane lane : LANES) {
+            Deque<Message> messages = lanes.get(lane.ordinal());
+            int laneProcessedMessages = 0;
+            while (!messages.isEmpty()
+                    && (laneProcessedMessages < MIN_MESSAGES_PER_LANE || System.nanoTime() < deadline)) {
+                dispatch(view, getLatest(messages.pollFirst()));
+                laneProcessedMessages++;
             }
-            // 2. dispatches the message to the view
-            view.readMessage(message);
+            processedMessages += laneProcessedMessages;
+            frameProfiler.add(lane.backlogMetric, messages.size());
         }
+        frameProfiler.add(FrameProfiler.Metric.PROCESSED_MESSAGES, processedMessages);
     }
 }
@@ -1,27 +1,44 @@
 package uia.application.message.store;
 
+import uia.application.message.ConflatedMessage;
 import uia.core.basement.message.MessageStore;
 import uia.core.basement.message.Message;
 
 import java.util.LinkedList;
 import java.util.ArrayList;
 import java.util.Objects;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Concrete, not thread-safe, implementation of {@link MessageStore}.
+ * <br>
+ * The store conflates the {@link ConflatedMessage}s: a new message replaces, in place, the pending
+ * message with the same conflation key, so the memory used by these messages is bounded by the number
+ * of their keys. Expired messages are dropped when popped.
  */
 
 public class ConcreteMessageStore implements MessageStore {
     private final LinkedList<Message> messages;
+    private final Map<Object, ConflatedMessage> conflatedMessages;
 
     public ConcreteMessageStore() {
         messages = new LinkedList<>();
+        conflatedMessages = new HashMap<>();
     }
 
     @Override
     public void add(Message message) {
         Objects.requireNonNull(message);
+
+        if (message instanceof ConflatedMessage) {
+            ConflatedMessage conflatedMessage = (ConflatedMessage) message;
+            // the queued message only holds the position of the latest one
+            if (conflatedMessages.put(conflatedMessage.getConflationKey(), conflatedMessage) != null) {
+                return;
+            }
+        }
         messages.add(message);
     }
 
@@ -31,10 +48,18 @@ public class ConcreteMessageStore implements MessageStore {
             throw new IllegalArgumentException("size must be greater than 0");
         }
 
-        int length = Math.min(messages.size(), size);
-        List<Message> result = new ArrayList<>(length);
-        for (int i = 0; i < length; i++) {
-            result.add(messages.poll());
+        List<Message> result = new ArrayList<>(Math.min(messages.size(), size));
+        long time = System.nanoTime();
+        while (result.size() < size && !messages.isEmpty()) {
+            Message message = messages.poll();
+            if (message instanceof ConflatedMessage) {
+                ConflatedMessage latestMessage = conflatedMessages.remove(((ConflatedMessage) message).getConflationKey());
+                if (latestMessage.isExpired(time)) {
+                    continue;
+                }
+                message = latestMessage;
+            }
+            result.add(message);
         }
         return result;
     }
@@ -0,0 +1,330 @@
+package uia.application.message.store;
+
+import uia.application.message.systemessages.ScreenTouchMessage;
+import uia.application.message.systemessages.KeyMessage;
+import uia.application.message.ConflatedMessage;
+import uia.application.message.TopicMessage;
+import uia.core.basement.message.MessageStore;
+import uia.core.basement.message.Message;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+import java.util.LinkedHashMap;
+import java.util.Iterator;
+import java.util.ArrayList;
+import java.util.Objects;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bounded, lock-free and thread-safe implementation of {@link MessageStore}.
+ * <br>
+ * Messages are stored in a ring buffer whose slots are claimed with atomic operations, so producers
+ * never wait for each other and never allocate memory to store a message.
+ * <br>
+ * <br>
+ * <b>Overflow policies</b>
+ * <br>
+ * When the ring buffer is full, a new message is handled according to the {@link OverflowPolicy}:
+ * <ul>
+ *     <li>{@link OverflowPolicy#BLOCK}: the producer waits until a slot is available. When the producer
+ *     is the thread that consumes the messages, the oldest message is dropped instead, because
+ *     waiting would never end;</li>
+ *     <li>{@link OverflowPolicy#DROP_OLDEST}: the oldest message is removed to make room for the new one;</li>
+ *     <li>{@link OverflowPolicy#COALESCE}: the new message is stored in an overflow area where it replaces
+ *     the pending message with the same coalescing key. The overflow area is consumed after the ring
+ *     buffer and, as long as it is not empty, new messages are added to it to preserve their order.
+ *     The overflow area holds at most as many messages as the ring buffer: when it is full, a message
+ *     that doesn't replace a pending one makes room by dropping the oldest overflowing message, so
+ *     a burst of messages that can't be coalesced, such as screen touches, doesn't grow the store.</li>
+ * </ul>
+ * <br>
+ * By default, two {@link ConflatedMessage}s have the same coalescing key when they have the same conflation key;
+ * two other messages when they have the same type, topic, payload type, sender and recipient.
+ * Screen touch and key messages are never coalesced.
+ */
+
+public final class ConcurrentMessageStore implements MessageStore {
+    public enum OverflowPolicy {BLOCK, DROP_OLDEST, COALESCE}
+
+    /**
+     * The default coalescing key function.
+     */
+    public static final Function<Message, Object> DEFAULT_COALESCING_KEY = message -> {
+        if (message instanceof ScreenTouchMessage || message instanceof KeyMessage) {
+            return null;
+        }
+        if (message instanceof ConflatedMessage) {
+            return ((ConflatedMessage) message).getConflationKey();
+        }
+        Object payload = message.getPayload();
+        return Arrays.asList(
+                message.getClass(),
+                message instanceof TopicMessage ? ((TopicMessage) message).getTopic() : null,
+                payload == null ? null : payload.getClass(),
+                message.getSender(),
+                message.getRecipient()
+        );
+    };
+
+    private static final long BLOCK_PARK_NANOS = 50_000;
+
+    private final AtomicReferenceArray<Message> slots;
+    private final AtomicLongArray sequences;
+    private final AtomicLong head;
+    private final AtomicLong tail;
+    private final AtomicLong droppedMessages;
+    private final int mask;
+
+    private final OverflowPolicy overflowPolicy;
+    private final Function<Message, Object> coalescingKey;
+    private final Map<Object, Message> overflow;
+    private volatile boolean hasOverflow = false;
+
+    private volatile Thread consumer;
+
+    /**
+     * Creates a new ConcurrentMessageStore.
+     *
+     * @param capacity       the maximum number of messages stored in the ring buffer; it is rounded up
+     *                       to the next power of two, with a minimum of two
+     * @param overflowPolicy the policy applied when the ring buffer is full
+     * @throws IllegalArgumentException if {@code capacity <= 0 || capacity > 2^30}
+     * @throws NullPointerException     if {@code overflowPolicy == null}
+     */
+
+    public ConcurrentMessageStore(int capacity, OverflowPolicy overflowPolicy) {
+        this(capacity, overflowPolicy, DEFAULT_COALESCING_KEY);
+    }
+
+    /**
+     * Creates a new ConcurrentMessageStore.
+     *
+     * @param capacity       the maximum number of messages stored in the ring buffer; it is rounded up
+     *                       to the next power of two, with a minimum of two
+     * @param overflowPolicy the policy applied when the ring buffer is full
+     * @param coalescingKey  the function used to compute the message coalescing key when the policy
+     *                       is {@link OverflowPolicy#COALESCE}. A null key means that the message
+     *                       must not be coalesced
+     * @throws IllegalArgumentException if {@code capacity <= 0 || capacity > 2^30}
+     * @throws NullPointerException     if {@code overflowPolicy == null || coalescingKey == null}
+     */
+
+    public ConcurrentMessageStore(int capacity,
+                                  OverflowPolicy overflowPolicy,
+                                  Function<Message, Object> coalescingKey) {
+        Objects.requireNonNull(overflowPolicy);
+        Objects.requireNonNull(coalescingKey);
+        if (capacity <= 0 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("'capacity' must be in the range ]0, 2^30]");
+        }
+
+        // the ring buffer needs at least two slots to tell a full slot from an empty one
+        int slotsNumber = Math.max(2, Integer.highestOneBit(capacity));
+        if (slotsNumber < capacity) {
+            slotsNumber <<= 1;
+        }
+
+        mask = slotsNumber - 1;
+        slots = new AtomicReferenceArray<>(slotsNumber);
+        sequences = new AtomicLongArray(slotsNumber);
+        for (int i = 0; i < slotsNumber; i++) {
+            sequences.set(i, i);
+        }
+        head = new AtomicLong(0);
+        tail = new AtomicLong(0);
+        droppedMessages = new AtomicLong(0);
+
+        this.overflowPolicy = overflowPolicy;
+        this.coalescingKey = coalescingKey;
+        overflow = new LinkedHashMap<>();
+    }
+
+    /**
+     * Helper function. Tries to add the given message to the ring buffer.
+     * <br>
+     * Time complexity: T(1) without contention
+     *
+     * @return true if the message has been added; false if the ring buffer is full
+     */
+
+    private boolean offer(Message message) {
+        long position = tail.get();
+        while (true) {
+            int index = (int) position & mask;
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    slots.set(index, message);
+                    // publishes the message
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Helper function. Tries to remove the oldest message from the ring buffer.
+     * <br>
+     * Time complexity: T(1) without contention
+     *
+     * @return the oldest message or null if the ring buffer is empty
+     */
+
+    private Message poll() {
+        long position = head.get();
+        while (true) {
+            int index = (int) position & mask;
+            long difference = sequences.get(index) - (position + 1);
+            if (difference == 0) {
+                if (head.compareAndSet(position, position + 1)) {
+                    Message result = slots.getAndSet(index, null);
+                    // releases the slot
+                    sequences.set(index, position + mask + 1);
+                    return result;
+                }
+                position = head.get();
+            } else if (difference < 0) {
+                return null;
+            } else {
+                position = head.get();
+            }
+        }
+    }
+
+    /**
+     * Helper function. Adds the given message to the overflow area.
+     */
+
+    private synchronized void addToOverflow(Message message) {
+        Object key = coalescingKey.apply(message);
+        if (key == null) {
+            // a unique key prevents the message from being coalesced
+            key = new Object();
+        }
+        if (overflow.put(key, message) != null) {
+            droppedMessages.incrementAndGet();
+        } else if (overflow.size() > mask + 1) {
+            // the overflow area is bounded like the ring buffer
+            Iterator<Message> iterator = overflow.values().iterator();
+            iterator.next();
+            iterator.remove();
+            droppedMessages.incrementAndGet();
+        }
+        hasOverflow = true;
+    }
+
+    /**
+     * Helper function. Moves up to the specified number of messages from the overflow area to the given list.
+     */
+
+    private synchronized void popFromOverflow(int size, List<Message> result) {
+        Iterator<Message> iterator = overflow.values().iterator();
+        for (int i = 0; i < size && iterator.hasNext(); i++) {
+            result.add(iterator.next());
+            iterator.remove();
+        }
+        hasOverflow = !overflow.isEmpty();
+    }
+
+    /**
+     * Helper function. Makes room for a message by removing the oldest one.
+     */
+
+    private void dropOldest() {
+        if (poll() != null) {
+            droppedMessages.incrementAndGet();
+        }
+    }
+
+    @Override
+    public void add(Message message) {
+        Objects.requireNonNull(message);
+
+        if (hasOverflow) {
+            addToOverflow(message);
+            return;
+        }
+
+        while (!offer(message)) {
+            switch (overflowPolicy) {
+                case COALESCE:
+                    addToOverflow(message);
+                    return;
+                case BLOCK:
+                    if (Thread.currentThread() == consumer) {
+                        // the consumer can't wait for itself
+                        dropOldest();
+                    } else {
+                        LockSupport.parkNanos(BLOCK_PARK_NANOS);
+                    }
+                    break;
+                default:
+                    dropOldest();
+            }
+        }
+    }
+
+    @Override
+    public List<Message> pop(int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("size must be greater than 0");
+        }
+        consumer = Thread.currentThread();
+
+        List<Message> result = new ArrayList<>(Math.min(size, size()));
+        Message message;
+        while (result.size() < size && (message = poll()) != null) {
+            result.add(message);
+        }
+        if (hasOverflow && result.size() < size) {
+            popFromOverflow(size - result.size(), result);
+        }
+        return result;
+    }
+
+    @Override
+    public int size() {
+        int result = (int) Math.max(0L, tail.get() - head.get());
+        if (hasOverflow) {
+            synchronized (this) {
+                result += overflow.size();
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return the maximum number of messages stored in the ring buffer
+     */
+
+    public int getCapacity() {
+        return mask + 1;
+    }
+
+    /**
+     * @return the overflow policy of this store
+     */
+
+    public OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    /**
+     * @return the number of messages dropped or replaced because of an overflow
+     */
+
+    public long getDroppedMessages() {
+        return droppedMessages.get();
+    }
+}
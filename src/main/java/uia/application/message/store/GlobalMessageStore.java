@@ -3,6 +3,7 @@ package uia.application.message.store;
 import uia.core.basement.message.MessageStore;
 import uia.core.basement.message.Message;
 
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.ArrayList;
 import java.util.Objects;
 import java.util.List;
@@ -16,12 +17,21 @@ import java.util.List;
  * <br>
  * Formally, GlobalMessageStore is a wrapper whose responsibility is implemented by a concrete instance of
  * {@link MessageStore}.
+ * <br>
+ * Operations on the mounted store are synchronized, unless the store is a {@link ConcurrentMessageStore}:
+ * in that case, they are delegated without acquiring any lock.
+ * <br><br>
+ * <b>Message listeners</b>
+ * <br>
+ * Listeners registered with {@link #addMessageListener(Runnable)} are invoked, on the thread that adds the
+ * message, after each message is stored. They must be fast; for instance, they can wake up a waiting thread.
  */
 
 public final class GlobalMessageStore implements MessageStore {
     private static final GlobalMessageStore GLOBAL_MESSAGE_STORE = new GlobalMessageStore();
 
-    private MessageStore messageStore;
+    private final List<Runnable> messageListeners = new CopyOnWriteArrayList<>();
+    private volatile MessageStore messageStore;
 
     private GlobalMessageStore() {
         messageStore = new ConcreteMessageStore();
@@ -54,29 +64,96 @@ public final class GlobalMessageStore implements MessageStore {
         return result;
     }
 
+    /**
+     * Registers a listener invoked after each message is stored.
+     *
+     * @param listener the listener to be registered
+     * @throws NullPointerException if {@code listener == null}
+     */
+
+    public void addMessageListener(Runnable listener) {
+        Objects.requireNonNull(listener);
+        messageListeners.add(listener);
+    }
+
+    /**
+     * Unregisters the given listener.
+     *
+     * @param listener the listener to be unregistered
+     */
+
+    public void removeMessageListener(Runnable listener) {
+        messageListeners.remove(listener);
+    }
+
+    /**
+     * Helper function. Notifies the message listeners.
+     */
+
+    private void notifyMessageListeners() {
+        for (Runnable listener : messageListeners) {
+            listener.run();
+        }
+    }
+
     @Override
-    public synchronized void add(Message message) {
-        if (messageStore != null) {
-            messageStore.add(message);
+    public void add(Message message) {
+        MessageStore mountedStore = messageStore;
+        if (mountedStore instanceof ConcurrentMessageStore) {
+            mountedStore.add(message);
+        } else {
+            synchronized (this) {
+                if (messageStore != null) {
+                    messageStore.add(message);
+                }
+            }
+        }
+        notifyMessageListeners();
+    }
+
+    /**
+     * @return the number of messages dropped by the mounted store because of an overflow;
+     * 0 when the mounted store never drops messages
+     */
+
+    public long getDroppedMessages() {
+        MessageStore mountedStore = messageStore;
+        if (mountedStore instanceof ConcurrentMessageStore) {
+            return ((ConcurrentMessageStore) mountedStore).getDroppedMessages();
         }
+        return 0L;
     }
 
     @Override
-    public synchronized List<Message> pop(int size) {
-        List<Message> result = new ArrayList<>(0);
-        if (messageStore != null) {
-            result = messageStore.pop(size);
+    public List<Message> pop(int size) {
+        MessageStore mountedStore = messageStore;
+        if (mountedStore instanceof ConcurrentMessageStore) {
+            return mountedStore.pop(size);
+        }
+
+        synchronized (this) {
+            List<Message> result = new ArrayList<>(0);
+            if (messageStore != null) {
+                result = messageStore.pop(size);
+            }
+            return result;
         }
-        return result;
     }
 
     @Override
-    public synchronized int size() {
-        int result = 0;
-        if (messageStore != null) {
-            result = messageStore.size();
+    public int size() {
+        MessageStore mountedStore = messageStore;
+        if (mountedStore instanceof ConcurrentMessageStore) {
+            return mountedStore.size();
+        }
+
+        synchronized (this) {
+            int result = 0;
+            if (messageStore != null) {
+                result = messageStore.size();
+            }
+            return result;
         }
-        return result;
     }
 
     /**
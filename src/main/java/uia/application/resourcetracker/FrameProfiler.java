@@ -0,0 +1,140 @@
+package uia.application.resourcetracker;
+
+import uia.application.resourcetracker.monitorable.RollingHistogram;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.Objects;
+
+/**
+ * The FrameProfiler is a service responsible for measuring what happens during each frame.
+ * <br>
+ * During a frame, the rendering engine and the views add their measures to the current frame
+ * with {@link #add(Metric, long)} and {@link #increment(Metric)}. When the frame ends, the measures are
+ * recorded in a {@link RollingHistogram} for each {@link Metric}, registered in the {@link SystemTracker}.
+ * <br>
+ * <br>
+ * <i>Policies:</i>
+ * <ul>
+ *     <li>times are measured in nanoseconds;</li>
+ *     <li>a metric is recorded only for the frames in which it has been measured: for instance, the frames
+ *     skipped because nothing changed don't record a draw time, so they don't bias its percentiles;</li>
+ *     <li>measures can be added by any thread, for instance by the views updated in parallel;
+ *     histograms can be read by any thread;</li>
+ *     <li>adding a measure never allocates memory.</li>
+ * </ul>
+ */
+
+public final class FrameProfiler {
+    /**
+     * The number of frames kept by each histogram.
+     */
+    public static final int HISTOGRAM_SIZE = 300;
+
+    /**
+     * Metric defines the per-frame measures.
+     */
+
+    public enum Metric {
+        DISPATCH_TIME, UPDATE_TIME, DRAW_TIME, PAINT_LATENCY,
+        UPDATED_VIEWS, DRAWN_VIEWS, DRAW_CALLS,
+        PROCESSED_MESSAGES, DROPPED_MESSAGES,
+        INPUT_BACKLOG, LIFECYCLE_BACKLOG, APPLICATION_BACKLOG
+    }
+
+    private static final Metric[] METRICS = Metric.values();
+    private static final FrameProfiler FRAME_PROFILER = new FrameProfiler();
+
+    private final RollingHistogram[] histograms;
+    private final int[] propertyIDs;
+    private final AtomicLongArray frameMeasures;
+    private final AtomicIntegerArray sampledMetrics;
+
+    private FrameProfiler() {
+        histograms = new RollingHistogram[METRICS.length];
+        propertyIDs = new int[METRICS.length];
+        frameMeasures = new AtomicLongArray(METRICS.length);
+        sampledMetrics = new AtomicIntegerArray(METRICS.length);
+
+        SystemTracker tracker = SystemTracker.getInstance();
+        for (Metric metric : METRICS) {
+            RollingHistogram histogram = new RollingHistogram(HISTOGRAM_SIZE);
+            histograms[metric.ordinal()] = histogram;
+            propertyIDs[metric.ordinal()] = tracker.registerProperty(histogram);
+        }
+    }
+
+    /**
+     * Adds the given amount to the measure of the current frame.
+     * <br>
+     * Time complexity: T(1)
+     *
+     * @param metric the metric to be measured
+     * @param amount the amount to be added
+     */
+
+    public void add(Metric metric, long amount) {
+        frameMeasures.addAndGet(metric.ordinal(), amount);
+        sampledMetrics.set(metric.ordinal(), 1);
+    }
+
+    /**
+     * Increments by one the measure of the current frame.
+     * <br>
+     * Time complexity: T(1)
+     *
+     * @param metric the metric to be measured
+     */
+
+    public void increment(Metric metric) {
+        frameMeasures.incrementAndGet(metric.ordinal());
+        sampledMetrics.set(metric.ordinal(), 1);
+    }
+
+    /**
+     * Ends the current frame: records its measures in the histograms and starts a new frame.
+     * Only the metrics measured during the frame are recorded.
+     * <br>
+     * Time complexity: T(1)
+     */
+
+    public void endFrame() {
+        for (int i = 0; i < frameMeasures.length(); i++) {
+            if (sampledMetrics.getAndSet(i, 0) != 0) {
+                histograms[i].record(frameMeasures.getAndSet(i, 0L));
+            }
+        }
+    }
+
+    /**
+     * @param metric a not null metric
+     * @return the histogram with the measures of the latest frames
+     * @throws NullPointerException if {@code metric == null}
+     */
+
+    public RollingHistogram getHistogram(Metric metric) {
+        Objects.requireNonNull(metric);
+        return histograms[metric.ordinal()];
+    }
+
+    /**
+     * Returns the ID used to access the histogram of the given metric with {@link SystemTracker}.
+     *
+     * @param metric a not null metric
+     * @return the SystemTracker property ID
+     * @throws NullPointerException if {@code metric == null}
+     */
+
+    public int getPropertyID(Metric metric) {
+        Objects.requireNonNull(metric);
+        return propertyIDs[metric.ordinal()];
+    }
+
+    /**
+     * @return the unique FrameProfiler instance
+     */
+
+    public static FrameProfiler getInstance() {
+        return FRAME_PROFILER;
+    }
+}
@@ -0,0 +1,131 @@
+package uia.application.resourcetracker.monitorable;
+
+import java.util.Arrays;
+
+/**
+ * {@link Monitorable} implementation that keeps the latest samples of a value.
+ * <br>
+ * Samples are stored in a fixed-size ring, so recording a sample never allocates memory.
+ * The monitored value is the latest recorded sample; percentiles are calculated on the samples in the ring.
+ * <br>
+ * It is thread-safe: samples can be recorded by the rendering thread and read by any other thread.
+ */
+
+public final class RollingHistogram implements Monitorable<Long> {
+    private final long[] samples;
+    private final long[] sortedSamples;
+    private int size = 0;
+    private int next = 0;
+    private boolean sorted = true;
+
+    /**
+     * Creates a new RollingHistogram.
+     *
+     * @param capacity the maximum number of samples kept; when full, the oldest sample is replaced
+     * @throws IllegalArgumentException if {@code capacity <= 0}
+     */
+
+    public RollingHistogram(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("'capacity' must be greater than zero");
+        }
+        samples = new long[capacity];
+        sortedSamples = new long[capacity];
+    }
+
+    /**
+     * Records a new sample.
+     * <br>
+     * Time complexity: T(1)
+     *
+     * @param sample the sample to be recorded
+     */
+
+    public synchronized void record(long sample) {
+        samples[next] = sample;
+        next = (next + 1) % samples.length;
+        size = Math.min(size + 1, samples.length);
+        sorted = false;
+    }
+
+    /**
+     * Returns the given percentile of the recorded samples.
+     * <br>
+     * Time complexity: O(n * log(n)) the first time it is called after a new sample; T(1) otherwise
+     *
+     * @param percentile the percentile in the range [0, 100]
+     * @return the sample below which the given percentage of samples falls; 0 when there are no samples
+     * @throws IllegalArgumentException if {@code percentile < 0 || percentile > 100}
+     */
+
+    public synchronized long getPercentile(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("'percentile' must be in the range [0, 100]");
+        }
+        if (size == 0) {
+            return 0L;
+        }
+
+        if (!sorted) {
+            System.arraycopy(samples, 0, sortedSamples, 0, size);
+            Arrays.sort(sortedSamples, 0, size);
+            sorted = true;
+        }
+        int index = (int) Math.ceil(percentile / 100d * size) - 1;
+        return sortedSamples[Math.max(0, Math.min(size - 1, index))];
+    }
+
+    /**
+     * @return the median of the recorded samples
+     */
+
+    public long getP50() {
+        return getPercentile(50);
+    }
+
+    /**
+     * @return the 95th percentile of the recorded samples
+     */
+
+    public long getP95() {
+        return getPercentile(95);
+    }
+
+    /**
+     * @return the 99th percentile of the recorded samples
+     */
+
+    public long getP99() {
+        return getPercentile(99);
+    }
+
+    /**
+     * @return the number of recorded samples, up to the histogram capacity
+     */
+
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Removes all the recorded samples.
+     */
+
+    public synchronized void clear() {
+        size = next = 0;
+        sorted = true;
+    }
+
+    @Override
+    public void update(Long value) {
+        record(value);
+    }
+
+    @Override
+    public synchronized Long getValue() {
+        if (size == 0) {
+            return null;
+        }
+        return samples[(next - 1 + samples.length) % samples.length];
+    }
+}
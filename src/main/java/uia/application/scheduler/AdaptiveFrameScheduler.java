@@ -0,0 +1,61 @@
+package uia.application.scheduler;
+
+import uia.core.context.FrameScheduler;
+
+/**
+ * {@link FrameScheduler} implementation that adapts the frame rate to the activity.
+ * <br>
+ * Frames are produced at the maximum rate while something changes. When nothing changes for the
+ * given idle time, the rate drops to the minimum one; the first change brings it back to the maximum.
+ */
+
+public final class AdaptiveFrameScheduler implements FrameScheduler {
+    private final long minFramePeriod;
+    private final long idleFramePeriod;
+    private final long idleTimeout;
+    private long idleTime = 0L;
+
+    /**
+     * Creates a new AdaptiveFrameScheduler.
+     *
+     * @param minFPS      the frames per second produced when idle
+     * @param maxFPS      the frames per second produced while something changes
+     * @param idleSeconds the seconds without changes after which the rate drops to the minimum
+     * @throws IllegalArgumentException if {@code minFPS <= 0 || maxFPS < minFPS || idleSeconds < 0}
+     */
+
+    public AdaptiveFrameScheduler(int minFPS, int maxFPS, float idleSeconds) {
+        if (minFPS <= 0) {
+            throw new IllegalArgumentException("'minFPS' must be greater than zero");
+        }
+        if (maxFPS < minFPS) {
+            throw new IllegalArgumentException("'maxFPS' must be greater than or equal to 'minFPS'");
+        }
+        if (idleSeconds < 0) {
+            throw new IllegalArgumentException("'idleSeconds' must be >= 0");
+        }
+
+        minFramePeriod = 1_000_000_000L / maxFPS;
+        idleFramePeriod = 1_000_000_000L / minFPS;
+        idleTimeout = (long) (1e9 * idleSeconds);
+    }
+
+    @Override
+    public long nextFramePeriod(long frameTime, boolean isIdle) {
+        if (!isIdle) {
+            idleTime = 0L;
+            return minFramePeriod;
+        }
+
+        if (idleTime < idleTimeout) {
+            idleTime += Math.max(frameTime, minFramePeriod);
+            return minFramePeriod;
+        }
+        return idleFramePeriod;
+    }
+
+    @Override
+    public long getMinFramePeriod() {
+        return minFramePeriod;
+    }
+}
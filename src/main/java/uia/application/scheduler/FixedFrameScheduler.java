@@ -0,0 +1,41 @@
+package uia.application.scheduler;
+
+import uia.core.context.FrameScheduler;
+
+/**
+ * {@link FrameScheduler} implementation that produces frames at a fixed rate, whether something changes or not.
+ */
+
+public final class FixedFrameScheduler implements FrameScheduler {
+
+    /**
+     * The frame rate used to produce frames as fast as possible.
+     */
+    public static final int UNLIMITED_FPS = Integer.MAX_VALUE;
+
+    private final long framePeriod;
+
+    /**
+     * Creates a new FixedFrameScheduler.
+     *
+     * @param fps the target frames per second; {@link #UNLIMITED_FPS} to produce frames as fast as possible
+     * @throws IllegalArgumentException if {@code fps <= 0}
+     */
+
+    public FixedFrameScheduler(int fps) {
+        if (fps <= 0) {
+            throw new IllegalArgumentException("'fps' must be greater than zero");
+        }
+        framePeriod = fps == UNLIMITED_FPS ? 0L : 1_000_000_000L / fps;
+    }
+
+    @Override
+    public long nextFramePeriod(long frameTime, boolean isIdle) {
+        return framePeriod;
+    }
+
+    @Override
+    public long getMinFramePeriod() {
+        return framePeriod;
+    }
+}
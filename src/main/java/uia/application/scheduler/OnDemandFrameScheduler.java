@@ -0,0 +1,40 @@
+package uia.application.scheduler;
+
+import uia.core.context.FrameScheduler;
+
+/**
+ * {@link FrameScheduler} implementation that produces frames only when something changes.
+ * <br>
+ * A frame is produced when a message is sent or a frame is explicitly requested, and frames keep
+ * being produced, up to the maximum rate, until nothing changes anymore.
+ * <br>
+ * <b>Note:</b> views animated by time (for instance, a blinking text cursor) are not refreshed while idle.
+ */
+
+public final class OnDemandFrameScheduler implements FrameScheduler {
+    private final long minFramePeriod;
+
+    /**
+     * Creates a new OnDemandFrameScheduler.
+     *
+     * @param maxFPS the maximum frames per second produced while something changes
+     * @throws IllegalArgumentException if {@code maxFPS <= 0}
+     */
+
+    public OnDemandFrameScheduler(int maxFPS) {
+        if (maxFPS <= 0) {
+            throw new IllegalArgumentException("'maxFPS' must be greater than zero");
+        }
+        minFramePeriod = 1_000_000_000L / maxFPS;
+    }
+
+    @Override
+    public long nextFramePeriod(long frameTime, boolean isIdle) {
+        return isIdle ? WAIT_FOR_CHANGES : minFramePeriod;
+    }
+
+    @Override
+    public long getMinFramePeriod() {
+        return minFramePeriod;
+    }
+}
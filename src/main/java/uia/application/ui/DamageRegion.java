@@ -0,0 +1,334 @@
+package uia.application.ui;
+
+import uia.core.ui.View;
+
+import java.util.Collections;
+import java.util.Arrays;
+import java.util.WeakHashMap;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * The DamageRegion is responsible for collecting the screen areas that must be redrawn.
+ * <br>
+ * Each rendering engine owns a DamageRegion and binds it, with {@link #bind(DamageRegion)}, to the thread
+ * that updates or draws its View; {@link #getInstance()} returns the region bound to the calling thread,
+ * so several contexts can run at the same time without stealing each other's damages. The damages reported
+ * by a thread without a bound region, for instance a View changed by an application thread between two
+ * frames, are added to every DamageRegion.
+ * <br>
+ * Views report the area they occupied and the area they occupy whenever their appearance changes.
+ * All the reported areas are merged into a single rectangle that is consumed once per frame by the
+ * rendering engine with {@link #collect(float[], float[])}.
+ * <br>
+ * <br>
+ * <b>Custom views</b>
+ * <br>
+ * Standard components report their changes automatically. A custom View whose appearance depends on
+ * its own state (for instance, a time-based animation) must call {@link #invalidate(View)} when that
+ * state changes; otherwise, the change could not be displayed until another damage covers the View area.
+ * <br>
+ * <br>
+ * <b>Watched areas</b>
+ * <br>
+ * A cached rendering of an area, for instance the layer of a {@link uia.application.ui.group.ComponentGroup},
+ * is valid as long as no damage intersects that area. Use {@link #watch(WatchedArea, float, float, float, float)}
+ * to start watching an area and {@link #isDamaged(WatchedArea)} to find out whether it has been damaged since then,
+ * wherever the damage has been reported from.
+ */
+
+public final class DamageRegion {
+    private static final Set<DamageRegion> REGIONS = Collections.newSetFromMap(new WeakHashMap<>());
+    private static final ThreadLocal<DamageRegion> BOUND_REGION = new ThreadLocal<>();
+    private static final DamageRegion UNBOUND_REGION = new DamageRegion(false);
+
+    /**
+     * The extra space, in pixels, added around the damaged view bounds to cover antialiasing.
+     */
+    public static final float DAMAGE_PADDING = 2f;
+
+    /**
+     * WatchedArea is a screen area that records whether it has been damaged.
+     */
+
+    public static final class WatchedArea {
+        private final float[] area = {0f, 0f, 0f, 0f};
+        private boolean damaged = true;
+
+        @Override
+        public String toString() {
+            return "WatchedArea{area=" + Arrays.toString(area) + ", damaged=" + damaged + '}';
+        }
+    }
+
+    private final float[] region = {0f, 0f, 0f, 0f};
+    private final Set<WatchedArea> watchedAreas = Collections.newSetFromMap(new WeakHashMap<>());
+    private boolean empty = true;
+    private boolean fullyDamaged = false;
+    private long damageCount = 0;
+
+    private final boolean bound;
+
+    public DamageRegion() {
+        this(true);
+    }
+
+    private DamageRegion(boolean bound) {
+        this.bound = bound;
+        if (bound) {
+            synchronized (REGIONS) {
+                REGIONS.add(this);
+            }
+        }
+    }
+
+    /**
+     * Helper function. Returns the regions that receive the damages reported to this one.
+     */
+
+    private DamageRegion[] getTargets() {
+        if (bound) {
+            return new DamageRegion[]{this};
+        }
+        synchronized (REGIONS) {
+            return REGIONS.toArray(new DamageRegion[0]);
+        }
+    }
+
+    /**
+     * Binds the given DamageRegion to the calling thread.
+     *
+     * @param damageRegion the {@link DamageRegion} returned by {@link #getInstance()} on the calling thread;
+     *                     null to unbind the current one
+     * @return the DamageRegion previously bound to the calling thread or null
+     */
+
+    public static DamageRegion bind(DamageRegion damageRegion) {
+        DamageRegion result = BOUND_REGION.get();
+        if (damageRegion == null) {
+            BOUND_REGION.remove();
+        } else {
+            BOUND_REGION.set(damageRegion);
+        }
+        return result;
+    }
+
+    /**
+     * Starts watching the specified area: the given WatchedArea is marked as not damaged until
+     * a damage intersects the area. An area that is already watched is moved to the new position.
+     * <br>
+     * Watched areas are weakly referenced, so they don't need to be unwatched before being discarded.
+     *
+     * @param watchedArea the {@link WatchedArea} used to record the damages
+     * @param x           the top left corner of the area on the x-axis
+     * @param y           the top left corner of the area on the y-axis
+     * @param width       the area width
+     * @param height      the area height
+     * @throws NullPointerException if {@code watchedArea == null}
+     */
+
+    public synchronized void watch(WatchedArea watchedArea, float x, float y, float width, float height) {
+        Objects.requireNonNull(watchedArea);
+
+        watchedArea.area[0] = x;
+        watchedArea.area[1] = y;
+        watchedArea.area[2] = x + Math.max(0f, width);
+        watchedArea.area[3] = y + Math.max(0f, height);
+        watchedArea.damaged = false;
+        watchedAreas.add(watchedArea);
+    }
+
+    /**
+     * Stops watching the specified area. The given WatchedArea is marked as damaged.
+     *
+     * @param watchedArea the {@link WatchedArea} to be removed
+     * @throws NullPointerException if {@code watchedArea == null}
+     */
+
+    public void unwatch(WatchedArea watchedArea) {
+        Objects.requireNonNull(watchedArea);
+
+        for (DamageRegion target : getTargets()) {
+            synchronized (target) {
+                watchedArea.damaged = true;
+                target.watchedAreas.remove(watchedArea);
+            }
+        }
+    }
+
+    /**
+     * @param watchedArea a not null {@link WatchedArea}
+     * @return true if the given area has been damaged since it started being watched or if it isn't watched
+     * @throws NullPointerException if {@code watchedArea == null}
+     */
+
+    public synchronized boolean isDamaged(WatchedArea watchedArea) {
+        return watchedArea.damaged;
+    }
+
+    /**
+     * Helper function. Marks the watched areas that intersect the specified area as damaged.
+     * <br>
+     * Time complexity: O(w) where 'w' is the number of watched areas
+     */
+
+    private void damageWatchedAreas(float minX, float minY, float maxX, float maxY) {
+        for (WatchedArea watchedArea : watchedAreas) {
+            float[] area = watchedArea.area;
+            if (minX < area[2] && maxX > area[0] && minY < area[3] && maxY > area[1]) {
+                watchedArea.damaged = true;
+            }
+        }
+    }
+
+    /**
+     * Adds the specified area to the damaged region.
+     * <br>
+     * Time complexity: O(w) where 'w' is the number of watched areas
+     * <br>
+     * Space complexity: O(1)
+     *
+     * @param x      the top left corner of the area on the x-axis
+     * @param y      the top left corner of the area on the y-axis
+     * @param width  the area width; an area with no width and height is ignored
+     * @param height the area height; an area with no width and height is ignored
+     */
+
+    public void add(float x, float y, float width, float height) {
+        if (width <= 0f && height <= 0f) {
+            return;
+        }
+
+        if (bound) {
+            addArea(x, y, width, height);
+        } else {
+            for (DamageRegion target : getTargets()) {
+                target.addArea(x, y, width, height);
+            }
+        }
+    }
+
+    /**
+     * Helper function. Adds the specified area to this damaged region.
+     */
+
+    private synchronized void addArea(float x, float y, float width, float height) {
+        damageCount++;
+        float maxX = x + Math.max(0f, width);
+        float maxY = y + Math.max(0f, height);
+        damageWatchedAreas(x, y, maxX, maxY);
+        if (empty) {
+            region[0] = x;
+            region[1] = y;
+            region[2] = maxX;
+            region[3] = maxY;
+            empty = false;
+        } else {
+            region[0] = Math.min(region[0], x);
+            region[1] = Math.min(region[1], y);
+            region[2] = Math.max(region[2], maxX);
+            region[3] = Math.max(region[3], maxY);
+        }
+    }
+
+    /**
+     * Adds the area currently occupied by the specified View to the damaged region.
+     *
+     * @param view the View to be redrawn
+     * @throws NullPointerException if {@code view == null}
+     */
+
+    public void invalidate(View view) {
+        Objects.requireNonNull(view);
+
+        float[] bounds = view.getBounds();
+        float padding = DAMAGE_PADDING + view.getStyle().getBorderWidth();
+        add(bounds[0] - padding, bounds[1] - padding, bounds[2] + 2f * padding, bounds[3] + 2f * padding);
+    }
+
+    /**
+     * Marks the entire screen as damaged.
+     */
+
+    public void invalidateAll() {
+        for (DamageRegion target : getTargets()) {
+            synchronized (target) {
+                target.fullyDamaged = true;
+                target.empty = false;
+                target.damageCount++;
+                for (WatchedArea watchedArea : target.watchedAreas) {
+                    watchedArea.damaged = true;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the number of damages reported since the creation of this region.
+     * <br>
+     * Comparing two readings tells whether an area has been damaged in between; this is useful
+     * to find out whether the views updated in a given time window have changed.
+     *
+     * @return the number of reported damages
+     */
+
+    public synchronized long getDamageCount() {
+        return damageCount;
+    }
+
+    /**
+     * @return true if no area has been damaged since the last collection
+     */
+
+    public synchronized boolean isEmpty() {
+        return empty;
+    }
+
+    /**
+     * Removes and returns the damaged area constrained to the given viewport.
+     * <br>
+     * Time complexity: T(1)
+     * <br>
+     * Space complexity: O(1)
+     *
+     * @param viewport   the viewport as an array of four elements: the top left corner on the x-axis and
+     *                   on the y-axis, the viewport width and the viewport height
+     * @param targetArea a four-element array used to store the damaged area structured as the viewport
+     * @return true if an area of the viewport has been damaged; false otherwise
+     * @throws NullPointerException if {@code viewport == null || targetArea == null}
+     */
+
+    public synchronized boolean collect(float[] viewport, float[] targetArea) {
+        Objects.requireNonNull(viewport);
+        Objects.requireNonNull(targetArea);
+
+        float viewportMaxX = viewport[0] + viewport[2];
+        float viewportMaxY = viewport[1] + viewport[3];
+        if (fullyDamaged) {
+            System.arraycopy(viewport, 0, targetArea, 0, 4);
+        } else if (!empty) {
+            float minX = Math.max(viewport[0], region[0]);
+            float minY = Math.max(viewport[1], region[1]);
+            targetArea[0] = minX;
+            targetArea[1] = minY;
+            targetArea[2] = Math.min(viewportMaxX, region[2]) - minX;
+            targetArea[3] = Math.min(viewportMaxY, region[3]) - minY;
+        }
+        boolean result = !empty && targetArea[2] > 0f && targetArea[3] > 0f;
+
+        // resets the region
+        fullyDamaged = false;
+        empty = true;
+        return result;
+    }
+
+    /**
+     * @return the DamageRegion bound to the calling thread or, when there is none, a region that adds
+     * the reported damages to every DamageRegion
+     */
+
+    public static DamageRegion getInstance() {
+        DamageRegion result = BOUND_REGION.get();
+        return result != null ? result : UNBOUND_REGION;
+    }
+}
@@ -4,11 +4,13 @@ import uia.application.message.systemessages.ScreenTouchMessage;
 import uia.application.message.messagingsystem.LockedMessage;
 import uia.application.ui.component.utility.ComponentUtility;
 import uia.application.message.store.GlobalMessageStore;
+import uia.application.resourcetracker.FrameProfiler;
+import uia.application.ui.DamageRegion;
 import uia.application.message.systemessages.KeyMessage;
 import uia.core.rendering.geometry.GeometryCollection;
 import uia.core.rendering.geometry.GeometryUtility;
 import uia.core.basement.message.MessageStore;
-import uia.application.events.CallbackStore;
+import uia.application.events.TypedCallbackStore;
 import uia.core.rendering.geometry.Geometry;
 import uia.core.ui.primitives.ScreenTouch;
 import uia.core.basement.message.Message;
@@ -24,6 +26,7 @@ import uia.core.ui.View;
 import java.util.function.Consumer;
 import java.util.ArrayList;
 import java.util.Objects;
+import java.util.Arrays;
 
 import static java.lang.Math.*;
 
@@ -32,6 +35,8 @@ import static java.lang.Math.*;
  */
 
 public final class Component implements View {
+    private static final FrameProfiler FRAME_PROFILER = FrameProfiler.getInstance();
+
     private ColliderPolicy colliderPolicy = ColliderPolicy.SAT;
     private final Callable callable;
     private final Transform transform;
@@ -44,6 +49,12 @@ public final class Component implements View {
 
     private int previousGeometryBuilderHashcode = -1;
 
+    // damage tracking
+    private final float[] drawnArea = new float[4];
+    private final float[] drawnBounds = new float[5];
+    private int drawnStyleRevision = -1;
+    private boolean dirty = true;
+
     private boolean over = false;
     private boolean focus = false;
     private boolean visible = true;
@@ -57,7 +68,7 @@ public final class Component implements View {
                 .setDimension(width, height)
                 .setPosition(x, y);
 
-        callable = new CallbackStore(4);
+        callable = new TypedCallbackStore(4);
 
         transform = new Transform();
 
@@ -96,6 +107,11 @@ public final class Component implements View {
         callable.notifyCallbacks(type, data);
     }
 
+    @Override
+    public boolean hasCallbacks(Class<? extends Callback> type) {
+        return callable.hasCallbacks(type);
+    }
+
     @Override
     public int numberOfCallbacks() {
         return callable.numberOfCallbacks();
@@ -131,6 +147,9 @@ public final class Component implements View {
 
     @Override
     public void setVisible(boolean visible) {
+        if (this.visible != visible) {
+            dirty = true;
+        }
         this.visible = visible;
         if (!visible) {
             over = false;
@@ -204,7 +223,7 @@ public final class Component implements View {
             // invokes the callback for the 'mouse exit' event
             if (over) {
                 over = false;
-                if (visible) {
+                if (visible && hasCallbacks(OnMouseExit.class)) {
                     notifyCallbacks(OnMouseExit.class, new ArrayList<ScreenTouch>(0));
                 }
             }
@@ -301,8 +320,60 @@ public final class Component implements View {
         boolean isGeometryToBeBuilt = style.isGeometryToBeBuiltDynamically();
         boolean isBuilderDifferent = previousGeometryBuilderHashcode != currentGeometryBuilderHashcode;
         if (isGeometryToBeBuilt || isBuilderDifferent) {
+            int previousGeometryHashcode = hashGeometry();
             previousGeometryBuilderHashcode = currentGeometryBuilderHashcode;
             geometryBuilder.accept(geometry);
+            if (isBuilderDifferent || previousGeometryHashcode != hashGeometry()) {
+                dirty = true;
+            }
+        }
+    }
+
+    /**
+     * Helper function. Hashes the geometry vertices.
+     * <br>
+     * Time complexity: T(n)
+     * <br>
+     * Space complexity: O(1)
+     */
+
+    private int hashGeometry() {
+        float[] vertices = geometry.toArray();
+        int length = 2 * geometry.vertices();
+        int result = length;
+        for (int i = 0; i < length; i++) {
+            result = 31 * result + Float.floatToIntBits(vertices[i]);
+        }
+        return result;
+    }
+
+    /**
+     * Helper function. Reports the area to be redrawn when the View appearance changes.
+     * <br>
+     * Both the previously drawn area and the current one are reported.
+     */
+
+    private void updateDamage() {
+        float[] bounds = getBounds();
+        int styleRevision = style.getRevision();
+        boolean isAppearanceChanged = dirty
+                || styleRevision != drawnStyleRevision
+                || (visible && !Arrays.equals(bounds, drawnBounds));
+        if (isAppearanceChanged) {
+            DamageRegion damageRegion = DamageRegion.getInstance();
+            // damages the previously drawn area
+            damageRegion.add(drawnArea[0], drawnArea[1], drawnArea[2], drawnArea[3]);
+            // damages the current area
+            float padding = DamageRegion.DAMAGE_PADDING + style.getBorderWidth();
+            drawnArea[0] = bounds[0] - padding;
+            drawnArea[1] = bounds[1] - padding;
+            drawnArea[2] = bounds[2] + 2f * padding;
+            drawnArea[3] = bounds[3] + 2f * padding;
+            damageRegion.add(drawnArea[0], drawnArea[1], drawnArea[2], drawnArea[3]);
+
+            System.arraycopy(bounds, 0, drawnBounds, 0, drawnBounds.length);
+            drawnStyleRevision = styleRevision;
+            dirty = false;
         }
     }
 
@@ -325,21 +396,24 @@ public final class Component implements View {
 
     @Override
     public void update(View parent) {
+        FRAME_PROFILER.increment(FrameProfiler.Metric.UPDATED_VIEWS);
         if (visible) {
             updateAnimation();
             updateTransform(parent);
             updateGeometry();
         }
+        updateDamage();
     }
 
     @Override
     public void draw(Graphics graphics) {
         if (visible) {
+            FRAME_PROFILER.increment(FrameProfiler.Metric.DRAWN_VIEWS);
             graphics
                     .setShapeColor(style.getBackgroundColor())
                     .setShapeBorderColor(style.getBorderColor())
                     .setShapeBorderWidth(style.getBorderWidth())
-                    .drawShape(transform, geometry.vertices(), geometry.toArray());
+                    .drawShape(transform, geometry);
         }
     }
 
@@ -39,6 +39,11 @@ public final class ComponentHiddenRoot implements View {
         throw new UnsupportedOperationException(UNSUPPORTED_ERROR);
     }
 
+    @Override
+    public boolean hasCallbacks(Class<? extends Callback> type) {
+        return false;
+    }
+
     @Override
     public int numberOfCallbacks() {
         return 0;
@@ -1,6 +1,7 @@
 package uia.application.ui.component;
 
 import uia.application.ui.component.utility.ComponentUtility;
+import uia.application.ui.DamageRegion;
 import uia.core.rendering.image.Image;
 import uia.core.rendering.Graphics;
 import uia.core.ui.View;
@@ -30,6 +31,7 @@ public final class ComponentImage extends WrapperView {
     public void setImagePosition(float x, float y) {
         imgBounds[0] = x;
         imgBounds[1] = y;
+        DamageRegion.getInstance().invalidate(this);
     }
 
     /**
@@ -42,6 +44,7 @@ public final class ComponentImage extends WrapperView {
     public void setImageDimension(float x, float y) {
         imgBounds[2] = x;
         imgBounds[3] = y;
+        DamageRegion.getInstance().invalidate(this);
     }
 
     /**
@@ -52,6 +55,7 @@ public final class ComponentImage extends WrapperView {
 
     public void setImageRotation(float radians) {
         imgBounds[4] = radians;
+        DamageRegion.getInstance().invalidate(this);
     }
 
     @Override
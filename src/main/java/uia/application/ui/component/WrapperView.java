@@ -42,6 +42,11 @@ public abstract class WrapperView implements View {
         view.notifyCallbacks(type, data);
     }
 
+    @Override
+    public boolean hasCallbacks(Class<? extends Callback> type) {
+        return view.hasCallbacks(type);
+    }
+
     @Override
     public int numberOfCallbacks() {
         return view.numberOfCallbacks();
@@ -7,6 +7,7 @@ import uia.application.ui.component.utility.ComponentUtility;
 import uia.core.ui.style.TextHorizontalAlignment;
 import uia.application.ui.scroller.WheelScroller;
 import uia.application.ui.component.WrapperView;
+import uia.application.ui.DamageRegion;
 import uia.application.ui.scroller.Scroller;
 import uia.core.rendering.geometry.Geometry;
 import uia.core.ui.callbacks.OnMouseHover;
@@ -37,6 +38,7 @@ public final class ComponentText extends WrapperView implements ViewText {
     private String text = "";
 
     private final float[] textBounds = {0f, 0f, 0f, 0f, 0f};
+    private final float[] drawnScrollValue = {0f, 0f};
     private int lines = 1;
     private boolean singleLine = false;
 
@@ -57,7 +59,11 @@ public final class ComponentText extends WrapperView implements ViewText {
 
     @Override
     public void setText(String text) {
+        String previousText = this.text;
         this.text = (text == null) ? "" : text;
+        if (!this.text.equals(previousText)) {
+            DamageRegion.getInstance().invalidate(this);
+        }
 
         if (this.text.isEmpty()) {
             textBounds[2] = 0f;
@@ -77,11 +83,18 @@ public final class ComponentText extends WrapperView implements ViewText {
 
     @Override
     public void setPlaceholder(String placeholder) {
+        String previousPlaceholder = this.placeholder;
         this.placeholder = (placeholder == null) ? "" : placeholder;
+        if (!this.placeholder.equals(previousPlaceholder)) {
+            DamageRegion.getInstance().invalidate(this);
+        }
     }
 
     @Override
     public void setSingleLine(boolean singleLine) {
+        if (this.singleLine != singleLine) {
+            DamageRegion.getInstance().invalidate(this);
+        }
         this.singleLine = singleLine;
     }
 
@@ -180,6 +193,21 @@ public final class ComponentText extends WrapperView implements ViewText {
             calculateAndSetScrollerData(width, height);
             updateTextBounds(bounds, width, height);
             updateClipShape(bounds, width, height);
+            updateDamage();
+        }
+    }
+
+    /**
+     * Helper function. Reports the text area to be redrawn when the text is scrolled.
+     */
+
+    private void updateDamage() {
+        float xScroll = scroller[0].getValue();
+        float yScroll = scroller[1].getValue();
+        if (Float.compare(xScroll, drawnScrollValue[0]) != 0 || Float.compare(yScroll, drawnScrollValue[1]) != 0) {
+            drawnScrollValue[0] = xScroll;
+            drawnScrollValue[1] = yScroll;
+            DamageRegion.getInstance().invalidate(this);
         }
     }
 
@@ -193,7 +221,7 @@ public final class ComponentText extends WrapperView implements ViewText {
             graphics
                     .setTextColor(style.getTextColor())
                     .setFont(style.getFont())
-                    .setClip(clipTransform, geometry.vertices(), geometry.toArray());
+                    .setClip(clipTransform, geometry);
 
             String textToDisplay = !text.isEmpty() ? text : placeholder;
             int renderer = singleLine ? 0 : 1;
@@ -4,6 +4,7 @@ import uia.application.ui.component.text.edit.structure.CharList;
 import uia.application.ui.component.utility.ComponentUtility;
 import uia.application.ui.component.text.WrapperViewText;
 import uia.application.ui.component.text.ComponentText;
+import uia.application.ui.DamageRegion;
 import uia.core.rendering.geometry.GeometryCollection;
 import uia.core.ui.style.TextHorizontalAlignment;
 import uia.core.ui.style.TextVerticalAlignment;
@@ -41,7 +42,7 @@ public class UIEditText extends WrapperViewText {
     private final KeyHandler keyHandler;
 
     private final Color hightlightColor;
-    private final Transform highlightTransform;
+    private final List<Transform> highlightTransforms;
     private final Geometry highlightGeometry;
     private final Transform clipTransform;
     private final UITextCursor textCursor;
@@ -49,6 +50,11 @@ public class UIEditText extends WrapperViewText {
     private int index;
     private int hIndex;
 
+    // damage tracking
+    private int drawnIndex;
+    private int drawnHIndex;
+    private boolean drawnFocus;
+
     public UIEditText(View view) {
         super(new ComponentText(view));
 
@@ -67,7 +73,7 @@ public class UIEditText extends WrapperViewText {
         // highlight
         hightlightColor = Color.createColor(65, 105, 225, 126);
         highlightGeometry = GeometryCollection.rect(new Geometry());
-        highlightTransform = new Transform();
+        highlightTransforms = new ArrayList<>();
 
         // clip
         clipTransform = new Transform();
@@ -188,6 +194,7 @@ public class UIEditText extends WrapperViewText {
         int endOfLine;
         int lastLineIndex;
         int line = 1;
+        int highlightedLines = 0;
 
         // calculates the first highlight offset position on the x-axis
         for (int i = 0; i < startSelection; i++) {
@@ -219,11 +226,12 @@ public class UIEditText extends WrapperViewText {
                 // aligner
                 diff += ax * (width - lineWidth) / 2f;
 
+                Transform highlightTransform = getHighlightTransform(highlightedLines++);
                 highlightTransform
                         .setTranslation(x + diff + wShape / 2f, y + (line - 0.5f) * lineHeight)
                         .setScale(wShape, lineHeight)
                         .setRotation(0f);
-                graphics.drawShape(highlightTransform, highlightGeometry.vertices(), highlightGeometry.toArray());
+                graphics.drawShape(highlightTransform, highlightGeometry);
 
                 lastLineIndex = i;
                 line++;
@@ -311,7 +319,36 @@ public class UIEditText extends WrapperViewText {
             // updates cursor
             float[] cursorPosition = calculateCursorPosition(currentLine, startOfLine);
             updateCursor(cursorPosition);
+            updateDamage();
+        }
+    }
+
+    /**
+     * Helper function. Reports the View area to be redrawn when the text selection
+     * or the cursor visibility changes.
+     */
+
+    private void updateDamage() {
+        boolean focus = isOnFocus();
+        if (index != drawnIndex || hIndex != drawnHIndex || focus != drawnFocus) {
+            drawnIndex = index;
+            drawnHIndex = hIndex;
+            drawnFocus = focus;
+            DamageRegion.getInstance().invalidate(this);
+        }
+    }
+
+    /**
+     * Helper function. Returns the Transform of the specified highlighted line.
+     * <br>
+     * Each line has its own Transform, so the shapes of the lines can be cached by the Graphics.
+     */
+
+    private Transform getHighlightTransform(int line) {
+        while (highlightTransforms.size() <= line) {
+            highlightTransforms.add(new Transform());
         }
+        return highlightTransforms.get(line);
     }
 
     /**
@@ -331,7 +368,7 @@ public class UIEditText extends WrapperViewText {
             if (isSingleLine()) {
                 float[] boxPosition = getSingleLineTextBoxPosition(this, getMinIndex());
                 int[] selectionRange = {getMinIndex(), getMaxIndex()};
-                drawInlineBox(this, highlightGeometry, highlightTransform, graphics, selectionRange, boxPosition);
+                drawInlineBox(this, highlightGeometry, getHighlightTransform(0), graphics, selectionRange, boxPosition);
             } else {
                 drawMultilineBox(graphics);
             }
@@ -344,7 +381,7 @@ public class UIEditText extends WrapperViewText {
 
         if (isVisible()) {
             Geometry geometry = getGeometry();
-            graphics.setClip(clipTransform, geometry.vertices(), geometry.toArray());
+            graphics.setClip(clipTransform, geometry);
 
             drawBox(graphics);
             if (isOnFocus()) {
@@ -2,7 +2,9 @@ package uia.application.ui.component.text.edit;
 
 import uia.core.rendering.color.ColorCollection;
 import uia.application.ui.component.Component;
+import uia.application.ui.DamageRegion;
 import uia.core.rendering.Graphics;
+import uia.core.ui.View;
 
 import uia.application.ui.component.WrapperView;
 import uia.utility.Timer;
@@ -13,6 +15,7 @@ import uia.utility.Timer;
 
 public class UITextCursor extends WrapperView {
     private final Timer timer;
+    private boolean blinkOn = true;
 
     public UITextCursor(String id) {
         super(new Component(id, 0f, 0f, 1f, 1f));
@@ -26,12 +29,26 @@ public class UITextCursor extends WrapperView {
     }
 
     @Override
-    public void draw(Graphics graphics) {
+    public void update(View parent) {
+        super.update(parent);
+
         float seconds = timer.seconds();
-        if (seconds <= 0.5f) {
-            super.draw(graphics);
-        } else if (seconds >= 1f) {
+        if (seconds >= 1f) {
             timer.reset();
+            seconds = 0f;
+        }
+        // redraws the cursor when it blinks
+        boolean isBlinkOn = seconds <= 0.5f;
+        if (isBlinkOn != blinkOn) {
+            blinkOn = isBlinkOn;
+            DamageRegion.getInstance().invalidate(this);
+        }
+    }
+
+    @Override
+    public void draw(Graphics graphics) {
+        if (blinkOn) {
+            super.draw(graphics);
         }
     }
 }
\ No newline at end of file
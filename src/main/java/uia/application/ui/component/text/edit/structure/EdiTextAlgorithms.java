@@ -5,6 +5,7 @@ import uia.core.rendering.Transform;
 import uia.core.rendering.geometry.Geometry;
 import uia.core.ui.style.TextHorizontalAlignment;
 import uia.core.ui.style.TextVerticalAlignment;
+import uia.core.rendering.font.GlyphAdvanceTable;
 import uia.core.rendering.font.Font;
 import uia.core.ui.style.Style;
 import uia.core.ui.ViewText;
@@ -35,6 +36,22 @@ public final class EdiTextAlgorithms {
         return position;
     }
 
+    /**
+     * Helper function. Returns the index of the character of the given line nearest to the given
+     * horizontal position. The line is measured once and the character is found with a binary search.
+     * <br>
+     * Time complexity: T(n) to measure the line and O(log(n)) to find the character
+     */
+
+    private static int getIndexInLine(Font font, char[] chars, int startOfLine, int endOfLine,
+                                      int ax, float width, float pointerX) {
+        int lineLength = endOfLine - startOfLine;
+        float[] prefixWidths = new float[lineLength + 1];
+        font.getAdvanceTable().computePrefixWidths(startOfLine, lineLength, chars, prefixWidths);
+        float x = ax * (width - prefixWidths[lineLength]) / 2f;
+        return startOfLine + GlyphAdvanceTable.getIndexAt(prefixWidths, lineLength, pointerX - x);
+    }
+
     /**
      * Returns the character index covered by cursor.
      * <br>
@@ -43,7 +60,7 @@ public final class EdiTextAlgorithms {
      * <br>
      * Time complexity: O(n)
      * <br>
-     * Space complexity: O(1)
+     * Space complexity: O(n)
      *
      * @return the character index or -1
      */
@@ -61,20 +78,7 @@ public final class EdiTextAlgorithms {
                 * (bounds[3] - heightLine) / 2f;
 
         if (pointerY > y && pointerY < y + heightLine) {
-            float x = ax * (bounds[2] - font.getWidth(0, length, chars)) / 2f;
-
-            float dim;
-            int j = 0;
-            while (j < length) {
-                dim = font.getWidth(chars[j]);
-                if (pointerX < x + dim / 2f) {
-                    break;
-                }
-                x += dim;
-                j++;
-            }
-
-            return j;
+            return getIndexInLine(font, chars, 0, length, ax, bounds[2], pointerX);
         }
 
         return -1;
@@ -88,7 +92,7 @@ public final class EdiTextAlgorithms {
      * <br>
      * Time required: O(n);
      * <br>
-     * Space required: O(1).
+     * Space required: O(k) where 'k' is the length of the pointed line.
      *
      * @return the character index or -1
      */
@@ -113,19 +117,7 @@ public final class EdiTextAlgorithms {
                 endOfLine = i;
                 y += heightLine;
                 if (pointerY > y - heightLine && pointerY < y) {
-                    float x = ax * (bounds[2] - font.getWidth(startOfLine, endOfLine - startOfLine, chars)) / 2f;
-                    float dim;
-                    int j = startOfLine;
-                    while (j < endOfLine) {
-                        dim = font.getWidth(chars[j]);
-                        if (pointerX < x + dim / 2f) {
-                            break;
-                        }
-                        x += dim;
-                        j++;
-                    }
-
-                    return j;
+                    return getIndexInLine(font, chars, startOfLine, endOfLine, ax, bounds[2], pointerX);
                 }
             }
         }
@@ -184,6 +176,6 @@ public final class EdiTextAlgorithms {
                 .setTranslation(boxPosition[0] + width / 2f, boxPosition[1] + height / 2f)
                 .setScale(width, height)
                 .setRotation(0f);
-        graphics.drawShape(transform, geometry.vertices(), geometry.toArray());
+        graphics.drawShape(transform, geometry);
     }
 }
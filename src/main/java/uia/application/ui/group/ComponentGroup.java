@@ -1,17 +1,25 @@
 package uia.application.ui.group;
 
+import uia.application.message.ConflatedMessage;
+import uia.application.message.TopicMessage;
 import uia.application.message.systemessages.ScreenTouchMessage;
 import uia.application.message.systemessages.KeyMessage;
 import uia.application.ui.component.WrapperView;
 import uia.core.rendering.geometry.Geometry;
+import uia.core.rendering.image.Image;
+import uia.core.ui.primitives.ScreenTouch;
 import uia.core.basement.message.Message;
 import uia.application.ui.LayoutUtility;
+import uia.application.ui.DamageRegion;
 import uia.core.rendering.Transform;
 import uia.core.basement.Collidable;
 import uia.core.rendering.Graphics;
 import uia.core.ui.ViewGroup;
 import uia.core.ui.View;
+import uia.utility.Timer;
 
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.LongSupplier;
 import java.util.*;
 
 /**
@@ -24,12 +32,38 @@ import java.util.*;
  *         use the {@link #setClip(boolean)} method;
  *     </li>
  *     <li>
- *         the last added View is the first to handle events.
+ *         the last added View is the first to handle events;
+ *     </li>
+ *     <li>
+ *         screen touches are dispatched only to the children whose bounds contain them, to the groups without
+ *         clip, whose children can lie outside their bounds, to the children touched by the previous screen
+ *         touches and, when a touch is pressed, to all the children.
+ *         Candidates are found with a {@link SpatialIndex} rebuilt after each update;
+ *     </li>
+ *     <li>
+ *         the children can be rasterized into an off-screen layer that is redrawn only when a child
+ *         changes. This feature is disabled by default; use {@link #setCacheAsBitmap(boolean)} to enable it;
+ *     </li>
+ *     <li>
+ *         the views of the tree are indexed by ID in a {@link ViewRegistry}: a message with a recipient,
+ *         including a locked message whose recipient is the lock owner, is delivered by the tree root straight to the recipient, without traversing the tree. Likewise,
+ *         a message published on a named topic that has subscribers is delivered only to them, while any other
+ *         broadcast message is dispatched to the whole tree. The groups wrapped by a {@link WrapperView} are
+ *         indexed too;
+ *     </li>
+ *     <li>
+ *         the children subtrees can be updated in parallel. This feature is disabled by default;
+ *         use {@link #setParallelUpdate(boolean)} to enable it.
  *     </li>
  * </ul>
  */
 
 public final class ComponentGroup extends WrapperView implements ViewGroup {
+    /**
+     * The minimum number of views a child subtree must contain to be updated in parallel.
+     */
+    public static final int PARALLEL_UPDATE_THRESHOLD = 64;
+
     private final List<View> views;
 
     private final Transform clipTransform;
@@ -38,12 +72,43 @@ public final class ComponentGroup extends WrapperView implements ViewGroup {
 
     private boolean enableClipRegion = true;
 
+    private final Image layer;
+    private final DamageRegion.WatchedArea layerArea;
+    private final int[] layerPosition = {0, 0};
+    private boolean isLayerValid = false;
+    private boolean cacheAsBitmap = false;
+
+    private final SpatialIndex spatialIndex;
+    private final BitSet touchedChildren;
+    private final BitSet touchCandidates;
+    private final BitSet touchRecipients;
+    private boolean isTouchTrackingLost = false;
+
+    private final List<ForkJoinTask<?>> updateTasks;
+    private boolean parallelUpdate = false;
+    private int subtreeSize = 1;
+
+    private final ViewRegistry registry;
+
     public ComponentGroup(View view) {
         super(view);
 
         views = new ArrayList<>();
 
+        registry = new ViewRegistry();
+        registry.register(this);
+
         clipTransform = new Transform();
+
+        layer = new Image();
+        layerArea = new DamageRegion.WatchedArea();
+
+        spatialIndex = new SpatialIndex();
+        touchedChildren = new BitSet();
+        touchCandidates = new BitSet();
+        touchRecipients = new BitSet();
+
+        updateTasks = new ArrayList<>();
     }
 
     @Override
@@ -73,20 +138,123 @@ public final class ComponentGroup extends WrapperView implements ViewGroup {
     @Override
     public void readMessage(Message message) {
         if (message instanceof ScreenTouchMessage) {
-            ComponentGroupUtility.dispatchScreenTouchMessageToChildren(this, message);
+            dispatchScreenTouchMessage(message);
             super.readMessage(message);
         } else if (message instanceof KeyMessage) {
             ComponentGroupUtility.dispatchKeyMessageToChildren(this, message);
             super.readMessage(message);
-        } else {
+        } else if (!deliverToRecipients(message)) {
             super.readMessage(message);
             ComponentGroupUtility.dispatchMessageToChildren(this, message);
         }
     }
 
+    /**
+     * Helper function. Returns the named topic of the given broadcast message or null.
+     * Topic routing is opt-in: the payload of a message is never used as a topic.
+     */
+
+    private static String getTopic(Message message) {
+        if (message instanceof TopicMessage) {
+            return ((TopicMessage) message).getTopic();
+        }
+        if (message instanceof ConflatedMessage) {
+            return ((ConflatedMessage) message).getTopic();
+        }
+        return null;
+    }
+
+    /**
+     * Helper function. Delivers the given message straight to its recipients, when this group
+     * is the tree root and the recipients belong to the tree. The recipient of a locked message
+     * is the lock owner, while the recipients of a message published on a named topic are the
+     * subscribers of the topic.
+     * <br>
+     * The groups between the root and a recipient don't read the message; a cached layer is still redrawn
+     * because the damage caused by the recipient invalidates the layers it intersects.
+     * <br>
+     * Time complexity: T(k) where 'k' is the number of recipients
+     *
+     * @param message the message to be delivered
+     * @return true if the message has been delivered; false if it must be dispatched through the tree
+     */
+
+    private boolean deliverToRecipients(Message message) {
+        if (!registry.isRoot()) {
+            return false;
+        }
+
+        String recipient = message.getRecipient();
+        View[] recipients;
+        if (recipient != null) {
+            recipients = registry.get(recipient);
+        } else {
+            String topic = getTopic(message);
+            recipients = topic == null ? null : registry.getSubscribers(topic);
+        }
+        if (recipients == null) {
+            return false;
+        }
+        for (View view : recipients) {
+            // a group reads the message without dispatching it to its children
+            if (view instanceof ComponentGroup) {
+                ((ComponentGroup) view).getView().readMessage(message);
+            } else {
+                view.readMessage(message);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Helper function. Dispatches the given screen touch message to the children that could be interested in it.
+     * <br>
+     * Time complexity: O(k) where 'k' is the number of recipients; O(n) when a touch is pressed
+     *
+     * @param screenTouchMessage the screen touch message to be dispatched
+     */
+
+    private void dispatchScreenTouchMessage(Message screenTouchMessage) {
+        Message messageToSend = ComponentGroupUtility.createChildrenScreenTouchMessage(this, screenTouchMessage);
+        ScreenTouch[] screenTouches = messageToSend.getPayload();
+
+        // finds the children under the screen touches before they are consumed
+        boolean isPressed = false;
+        touchCandidates.clear();
+        for (ScreenTouch screenTouch : screenTouches) {
+            isPressed |= screenTouch.getAction() == ScreenTouch.Action.PRESSED;
+            if (spatialIndex.isValid() && !screenTouch.isConsumed()) {
+                spatialIndex.query(screenTouch.getX(), screenTouch.getY(), touchCandidates);
+            }
+        }
+
+        // a press could change the focus of any child
+        if (isPressed || isTouchTrackingLost || !spatialIndex.isValid()) {
+            for (int i = size() - 1; i >= 0; i--) {
+                views.get(i).readMessage(messageToSend);
+            }
+        } else {
+            // the previously touched children must be notified that they are no longer touched
+            touchRecipients.clear();
+            touchRecipients.or(touchCandidates);
+            touchRecipients.or(touchedChildren);
+            for (int i = touchRecipients.previousSetBit(size() - 1); i >= 0; i = touchRecipients.previousSetBit(i - 1)) {
+                views.get(i).readMessage(messageToSend);
+            }
+        }
+
+        touchedChildren.clear();
+        touchedChildren.or(touchCandidates);
+        isTouchTrackingLost = !spatialIndex.isValid();
+    }
+
     @Override
     public void setClip(boolean clipRegion) {
+        if (enableClipRegion != clipRegion) {
+            DamageRegion.getInstance().invalidate(this);
+        }
         this.enableClipRegion = clipRegion;
+        isLayerValid = false;
     }
 
     @Override
@@ -104,6 +272,15 @@ public final class ComponentGroup extends WrapperView implements ViewGroup {
         boolean result = false;
         if (!views.contains(view)) {
             views.add(index, view);
+            ComponentGroup group = ViewRegistry.getWrappedGroup(view);
+            if (group != null) {
+                group.registry.attach(registry);
+            } else {
+                registry.register(view);
+            }
+            DamageRegion.getInstance().invalidate(this);
+            isLayerValid = false;
+            invalidateSpatialIndex();
             result = true;
         }
         return result;
@@ -111,28 +288,202 @@ public final class ComponentGroup extends WrapperView implements ViewGroup {
 
     @Override
     public boolean remove(View view) {
-        return views.remove(view);
+        boolean result = views.remove(view);
+        if (result) {
+            unregister(view);
+            DamageRegion damageRegion = DamageRegion.getInstance();
+            damageRegion.invalidate(view);
+            damageRegion.invalidate(this);
+            isLayerValid = false;
+            invalidateSpatialIndex();
+        }
+        return result;
     }
 
     @Override
     public void removeAll() {
+        for (View view : views) {
+            unregister(view);
+        }
         views.clear();
+        DamageRegion.getInstance().invalidate(this);
+        isLayerValid = false;
+        invalidateSpatialIndex();
         Arrays.fill(boundaries, 0);
     }
 
+    /**
+     * Helper function. Removes the given child subtree from the registry.
+     */
+
+    private void unregister(View view) {
+        ComponentGroup group = ViewRegistry.getWrappedGroup(view);
+        if (group != null) {
+            group.registry.detach(group);
+        } else {
+            registry.unregister(view);
+        }
+    }
+
+    /**
+     * Helper function. Invalidates the spatial index after the children list has changed.
+     */
+
+    private void invalidateSpatialIndex() {
+        spatialIndex.invalidate();
+        // the touched children positions could have changed
+        if (!touchedChildren.isEmpty()) {
+            isTouchTrackingLost = true;
+        }
+    }
+
+    /**
+     * Enables or disables the layer cache.
+     * <br>
+     * When enabled, the group children are rasterized once into an off-screen layer that is drawn
+     * in their place until a child changes. This is useful for large and visually static groups,
+     * for instance a sidebar filled with labels.
+     * <br>
+     * The layer is redrawn whenever the {@link DamageRegion} reports a damage that intersects it, so a child
+     * changed outside the group update, for instance by a callback or by a background task, is displayed too.
+     * <br>
+     * Note: the layer is used only when the clip feature is enabled and the group is not rotated;
+     * otherwise, the children are drawn directly. Messages are always dispatched to the children.
+     *
+     * @param cacheAsBitmap true to enable the layer cache
+     */
+
+    public void setCacheAsBitmap(boolean cacheAsBitmap) {
+        this.cacheAsBitmap = cacheAsBitmap;
+        isLayerValid = false;
+        if (!cacheAsBitmap) {
+            // releases the layer memory
+            layer.setNative(null, 0, 0);
+            DamageRegion.getInstance().unwatch(layerArea);
+        }
+    }
+
+    /**
+     * @return true if the layer cache is enabled
+     */
+
+    public boolean isCacheAsBitmap() {
+        return cacheAsBitmap;
+    }
+
+    /**
+     * Enables or disables the parallel update.
+     * <br>
+     * When enabled, the children subtrees with at least {@link #PARALLEL_UPDATE_THRESHOLD} views
+     * are updated in parallel on the common fork/join pool, while the smaller ones are updated
+     * on the calling thread. All the updates are joined before the group boundaries are measured,
+     * so the group is drawn only once its children have been updated.
+     * <br>
+     * Note: the children update must not depend on its siblings. The built-in views only read
+     * the bounds of their parent and report damages with the thread-safe {@link DamageRegion},
+     * so they can be updated in parallel.
+     *
+     * @param parallelUpdate true to enable the parallel update
+     */
+
+    public void setParallelUpdate(boolean parallelUpdate) {
+        this.parallelUpdate = parallelUpdate;
+    }
+
+    /**
+     * @return true if the parallel update is enabled
+     */
+
+    public boolean isParallelUpdate() {
+        return parallelUpdate;
+    }
+
+    /**
+     * @return the registry that indexes the views of the tree this group belongs to
+     */
+
+    public ViewRegistry getRegistry() {
+        return registry;
+    }
+
+    /**
+     * Helper function. Returns the number of views of the given subtree, as measured by its last update.
+     */
+
+    private static int getSubtreeSize(View view) {
+        if (view instanceof ComponentGroup) {
+            return ((ComponentGroup) view).subtreeSize;
+        } else if (view instanceof ViewGroup) {
+            return 1 + ((ViewGroup) view).size();
+        }
+        return 1;
+    }
+
+    /**
+     * Helper function. Updates the given View with the given damage region and clock bound to the calling thread.
+     */
+
+    private void updateInScope(View view, DamageRegion damageRegion, LongSupplier clock) {
+        DamageRegion previousDamageRegion = DamageRegion.bind(damageRegion);
+        LongSupplier previousClock = Timer.setClock(clock);
+        try {
+            view.update(this);
+        } finally {
+            Timer.setClock(previousClock);
+            DamageRegion.bind(previousDamageRegion);
+        }
+    }
+
+    /**
+     * Helper function. Updates the children subtrees in parallel: the large subtrees are forked,
+     * the small ones are updated on the calling thread, then all the forked updates are joined.
+     */
+
+    private void updateViewsInParallel() {
+        // the forked updates run with the damage region and the clock of the calling thread
+        DamageRegion damageRegion = DamageRegion.getInstance();
+        LongSupplier clock = Timer.getClock();
+        try {
+            for (View view : views) {
+                if (getSubtreeSize(view) >= PARALLEL_UPDATE_THRESHOLD) {
+                    updateTasks.add(ForkJoinTask.adapt(() -> updateInScope(view, damageRegion, clock)).fork());
+                } else {
+                    view.update(this);
+                }
+            }
+        } finally {
+            for (ForkJoinTask<?> task : updateTasks) {
+                task.join();
+            }
+            updateTasks.clear();
+        }
+    }
+
     /**
      * Helper function. Updates views and their boundaries.
      */
 
     private void updateGroup() {
         if (isVisible()) {
-            for (View view : views) {
-                view.update(this);
+            if (parallelUpdate && views.size() > 1) {
+                updateViewsInParallel();
+            } else {
+                for (View view : views) {
+                    view.update(this);
+                }
             }
         }
 
+        // updates the subtree size used to decide whether the subtree is worth a parallel update
+        int size = 1;
+        for (View view : views) {
+            size += getSubtreeSize(view);
+        }
+        subtreeSize = size;
         // updates boundaries
         boundaries = LayoutUtility.measureBoundaries(views);
+        // updates the index used to dispatch screen touches
+        spatialIndex.build(views);
     }
 
     /**
@@ -181,6 +532,47 @@ public final class ComponentGroup extends WrapperView implements ViewGroup {
         }
     }
 
+    /**
+     * Helper method. Draws the group views on the given graphics through the off-screen layer.
+     * The layer is redrawn only when it has been invalidated or when its area has been damaged.
+     *
+     * @param graphics the graphics on which the group views are displayed
+     */
+
+    private void drawLayer(Graphics graphics) {
+        float[] bounds = getBounds();
+        int x = (int) Math.floor(bounds[0]);
+        int y = (int) Math.floor(bounds[1]);
+        int width = (int) Math.ceil(bounds[0] + bounds[2]) - x;
+        int height = (int) Math.ceil(bounds[1] + bounds[3]) - y;
+        if (width <= 0 || height <= 0) {
+            return;
+        }
+
+        DamageRegion damageRegion = DamageRegion.getInstance();
+        if (!isLayerValid
+                || damageRegion.isDamaged(layerArea)
+                || layerPosition[0] != x
+                || layerPosition[1] != y
+                || layer.width() != width
+                || layer.height() != height) {
+            // starts watching before drawing, so a damage reported in the meantime isn't lost.
+            // The padding added to the damages of the views outside the layer is ignored
+            float padding = DamageRegion.DAMAGE_PADDING;
+            damageRegion.watch(layerArea, x + padding, y + padding, width - 2f * padding, height - 2f * padding);
+
+            graphics.beginLayer(layer, x, y, width, height);
+            drawViews(graphics);
+            graphics.endLayer();
+
+            layerPosition[0] = x;
+            layerPosition[1] = y;
+            isLayerValid = true;
+        }
+
+        graphics.drawImage(layer, x + width / 2f, y + height / 2f, width, height, 0f);
+    }
+
     @Override
     public void draw(Graphics graphics) {
         super.draw(graphics);
@@ -188,9 +580,13 @@ public final class ComponentGroup extends WrapperView implements ViewGroup {
         if (isVisible()) {
             if (enableClipRegion) {
                 Geometry geometry = getGeometry();
-                graphics.setClip(clipTransform, geometry.vertices(), geometry.toArray());
+                graphics.setClip(clipTransform, geometry);
+            }
+            if (cacheAsBitmap && enableClipRegion && getBounds()[4] == 0f) {
+                drawLayer(graphics);
+            } else {
+                drawViews(graphics);
             }
-            drawViews(graphics);
             // restores the previous clip region
             if (enableClipRegion) {
                 graphics.restoreClip();
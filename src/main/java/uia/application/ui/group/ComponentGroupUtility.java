@@ -53,14 +53,17 @@ public final class ComponentGroupUtility {
     }
 
     /**
-     * Dispatches the screen touch message to the group children.
+     * Creates the screen touch message to be dispatched to the group children.
+     * <br>
+     * The screen touches outside the group area are consumed when the group has the clip feature enabled.
      *
      * @param group              the group whose children will receive the screenTouches
-     * @param screenTouchMessage the screen touch message to be dispatched
+     * @param screenTouchMessage the screen touch message received by the group
+     * @return a new message with the screen touches to be dispatched to the children
      * @throws NullPointerException if {@code group == null || message == null}
      */
 
-    public static void dispatchScreenTouchMessageToChildren(ViewGroup group, Message screenTouchMessage) {
+    public static Message createChildrenScreenTouchMessage(ViewGroup group, Message screenTouchMessage) {
         Objects.requireNonNull(screenTouchMessage);
         Objects.requireNonNull(group);
 
@@ -85,7 +88,19 @@ public final class ComponentGroupUtility {
 
         // creates the message to be dispatched
         String recipient = screenTouchMessage.getRecipient();
-        Message messageToSend = MessageFactory.create(screenTouchesToDispatch, recipient);
+        return MessageFactory.create(screenTouchesToDispatch, recipient);
+    }
+
+    /**
+     * Dispatches the screen touch message to the group children.
+     *
+     * @param group              the group whose children will receive the screenTouches
+     * @param screenTouchMessage the screen touch message to be dispatched
+     * @throws NullPointerException if {@code group == null || message == null}
+     */
+
+    public static void dispatchScreenTouchMessageToChildren(ViewGroup group, Message screenTouchMessage) {
+        Message messageToSend = createChildrenScreenTouchMessage(group, screenTouchMessage);
         // dispatches the message
         for (int i = group.size() - 1; i >= 0; i--) {
             group.get(i).readMessage(messageToSend);
@@ -0,0 +1,241 @@
+package uia.application.ui.group;
+
+import uia.application.ui.component.WrapperView;
+import uia.core.ui.ViewGroup;
+import uia.core.ui.View;
+
+import java.util.Objects;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * The SpatialIndex is a uniform grid used to find the views whose bounds contain a given point.
+ * <br>
+ * Each View is registered in all the grid cells overlapped by its bounds, so a query only visits
+ * the views registered in the cell that contains the point.
+ * <br>
+ * <br>
+ * <i>Policies:</i>
+ * <ul>
+ *     <li>the index is a snapshot: it must be rebuilt when the views change their bounds
+ *     or when views are added or removed;</li>
+ *     <li>views are identified by their position in the list used to build the index;</li>
+ *     <li>a {@link ViewGroup} without clip, even when wrapped, can draw its children outside its bounds:
+ *     it isn't registered in the grid and is returned by every query.</li>
+ * </ul>
+ */
+
+public final class SpatialIndex {
+    private static final int MAX_CELLS_PER_AXIS = 128;
+
+    private float[] viewsBounds = new float[0];
+    private final BitSet unboundedViews = new BitSet();
+    private int[] cellStart = new int[1];
+    private int[] cellCursor = new int[1];
+    private int[] cellViews = new int[0];
+    private final float[] area = {0f, 0f, 0f, 0f};
+    private float cellWidth = 1f;
+    private float cellHeight = 1f;
+    private int columns = 0;
+    private int rows = 0;
+    private boolean valid = false;
+
+    /**
+     * Invalidates this index. An invalid index must be rebuilt before being queried.
+     */
+
+    public void invalidate() {
+        valid = false;
+    }
+
+    /**
+     * @return true if this index has been built and not invalidated since
+     */
+
+    public boolean isValid() {
+        return valid;
+    }
+
+    /**
+     * Helper function. Returns the column that contains the given position on the x-axis.
+     */
+
+    private int column(float x) {
+        int result = (int) ((x - area[0]) / cellWidth);
+        return Math.max(0, Math.min(columns - 1, result));
+    }
+
+    /**
+     * Helper function. Returns the row that contains the given position on the y-axis.
+     */
+
+    private int row(float y) {
+        int result = (int) ((y - area[1]) / cellHeight);
+        return Math.max(0, Math.min(rows - 1, result));
+    }
+
+    /**
+     * Helper function. Returns true if the given View is a group, or wraps a group, whose children
+     * can be drawn outside its bounds.
+     */
+
+    private static boolean isUnbounded(View view) {
+        while (!(view instanceof ViewGroup)) {
+            if (!(view instanceof WrapperView)) {
+                return false;
+            }
+            view = ((WrapperView) view).getView();
+        }
+        return !((ViewGroup) view).hasClip();
+    }
+
+    /**
+     * Helper function. Stores the bounds of the given views and measures the area covered by the bounded ones.
+     *
+     * @return the number of bounded views
+     */
+
+    private int storeBounds(List<View> views) {
+        int size = views.size();
+        if (viewsBounds.length < 4 * size) {
+            viewsBounds = new float[4 * size];
+        }
+
+        unboundedViews.clear();
+        int boundedViews = 0;
+        for (int i = 0; i < size; i++) {
+            View view = views.get(i);
+            if (isUnbounded(view)) {
+                unboundedViews.set(i);
+                continue;
+            }
+
+            float[] bounds = view.getBounds();
+            int offset = 4 * i;
+            viewsBounds[offset] = bounds[0];
+            viewsBounds[offset + 1] = bounds[1];
+            viewsBounds[offset + 2] = bounds[0] + bounds[2];
+            viewsBounds[offset + 3] = bounds[1] + bounds[3];
+
+            if (boundedViews++ == 0) {
+                System.arraycopy(viewsBounds, offset, area, 0, 4);
+            } else {
+                area[0] = Math.min(area[0], viewsBounds[offset]);
+                area[1] = Math.min(area[1], viewsBounds[offset + 1]);
+                area[2] = Math.max(area[2], viewsBounds[offset + 2]);
+                area[3] = Math.max(area[3], viewsBounds[offset + 3]);
+            }
+        }
+        return boundedViews;
+    }
+
+    /**
+     * Builds this index with the current bounds of the given views.
+     * <br>
+     * Time complexity: O(n + c) where 'c' is the number of cells overlapped by the views
+     * <br>
+     * Space complexity: O(n + c)
+     *
+     * @param views the views to be indexed
+     * @throws NullPointerException if {@code views == null}
+     */
+
+    public void build(List<View> views) {
+        Objects.requireNonNull(views);
+
+        int size = views.size();
+        int boundedViews = storeBounds(views);
+        if (boundedViews == 0) {
+            columns = rows = 0;
+            valid = true;
+            return;
+        }
+
+        // sizes the grid to obtain about one view per cell
+        float width = Math.max(area[2] - area[0], 1f);
+        float height = Math.max(area[3] - area[1], 1f);
+        columns = Math.round((float) Math.sqrt(boundedViews * width / height));
+        columns = Math.max(1, Math.min(MAX_CELLS_PER_AXIS, columns));
+        rows = Math.max(1, Math.min(MAX_CELLS_PER_AXIS, (boundedViews + columns - 1) / columns));
+        cellWidth = width / columns;
+        cellHeight = height / rows;
+
+        int cells = columns * rows;
+        if (cellStart.length < cells + 1) {
+            cellStart = new int[cells + 1];
+            cellCursor = new int[cells + 1];
+        }
+
+        // counts the views registered in each cell
+        Arrays.fill(cellStart, 0, cells + 1, 0);
+        for (int i = unboundedViews.nextClearBit(0); i < size; i = unboundedViews.nextClearBit(i + 1)) {
+            int offset = 4 * i;
+            int maxColumn = column(viewsBounds[offset + 2]);
+            int maxRow = row(viewsBounds[offset + 3]);
+            for (int r = row(viewsBounds[offset + 1]); r <= maxRow; r++) {
+                for (int c = column(viewsBounds[offset]); c <= maxColumn; c++) {
+                    cellStart[r * columns + c + 1]++;
+                }
+            }
+        }
+        for (int i = 1; i <= cells; i++) {
+            cellStart[i] += cellStart[i - 1];
+        }
+
+        // registers the views
+        if (cellViews.length < cellStart[cells]) {
+            cellViews = new int[cellStart[cells]];
+        }
+        System.arraycopy(cellStart, 0, cellCursor, 0, cells);
+        for (int i = unboundedViews.nextClearBit(0); i < size; i = unboundedViews.nextClearBit(i + 1)) {
+            int offset = 4 * i;
+            int maxColumn = column(viewsBounds[offset + 2]);
+            int maxRow = row(viewsBounds[offset + 3]);
+            for (int r = row(viewsBounds[offset + 1]); r <= maxRow; r++) {
+                for (int c = column(viewsBounds[offset]); c <= maxColumn; c++) {
+                    cellViews[cellCursor[r * columns + c]++] = i;
+                }
+            }
+        }
+
+        valid = true;
+    }
+
+    /**
+     * Finds the views whose bounds contain the given point, together with the unbounded views.
+     * <br>
+     * Time complexity: O(k + u) where 'k' is the number of views registered in the cell that contains the point
+     * and 'u' the number of unbounded views
+     * <br>
+     * Space complexity: T(1)
+     *
+     * @param x      the point position on the x-axis
+     * @param y      the point position on the y-axis
+     * @param result the set used to store the position of the found views
+     * @throws NullPointerException  if {@code result == null}
+     * @throws IllegalStateException if this index is not valid
+     */
+
+    public void query(float x, float y, BitSet result) {
+        Objects.requireNonNull(result);
+        if (!valid) {
+            throw new IllegalStateException("the index must be built before being queried");
+        }
+
+        result.or(unboundedViews);
+        if (columns == 0 || x < area[0] || x > area[2] || y < area[1] || y > area[3]) {
+            return;
+        }
+
+        int cell = row(y) * columns + column(x);
+        for (int i = cellStart[cell]; i < cellStart[cell + 1]; i++) {
+            int view = cellViews[i];
+            int offset = 4 * view;
+            if (x >= viewsBounds[offset] && x <= viewsBounds[offset + 2]
+                    && y >= viewsBounds[offset + 1] && y <= viewsBounds[offset + 3]) {
+                result.set(view);
+            }
+        }
+    }
+}
@@ -0,0 +1,322 @@
+package uia.application.ui.group;
+
+import uia.application.message.messagingsystem.MessagingSystem;
+import uia.application.ui.component.WrapperView;
+import uia.core.ui.ViewGroup;
+import uia.core.ui.View;
+
+import java.util.function.Consumer;
+import java.util.*;
+
+/**
+ * The ViewRegistry indexes the views of a tree by their ID, so that a View can be found
+ * without traversing the tree.
+ * <br>
+ * Each {@link ComponentGroup} owns a registry. When a group is inserted into another one, its
+ * registry is attached to the parent registry: the indexed views are moved to the registry of the
+ * tree root and the group registry forwards all the requests to it. When the group is removed,
+ * its registry is detached and indexes its subtree again. A group wrapped by one or more
+ * {@link WrapperView}s is handled the same way and is indexed as the group itself, not as its wrappers.
+ * <br>
+ * <br>
+ * <b>Topics</b>
+ * <br>
+ * The registry indexes the registered views subscribed to a named topic with
+ * {@link MessagingSystem#subscribe(View, String)}. The index is rebuilt lazily, when the subscriptions
+ * or the registered views have changed, so a View receives the messages of its topics only while
+ * it belongs to the tree, whether it has been removed on its own or together with its group.
+ * <br>
+ * <br>
+ * <i>Policies:</i>
+ * <ul>
+ *     <li>a registry indexes the views of its tree, root included;</li>
+ *     <li>views with the same ID, as well as the subscribers of a topic, are indexed together in an
+ *     array that is copied when it changes, so the returned views can be iterated while the tree changes;</li>
+ *     <li>the registry is thread-safe, so views can be inserted during a parallel update.</li>
+ * </ul>
+ */
+
+public final class ViewRegistry {
+    private final Map<String, View[]> views = new HashMap<>();
+    private final Map<String, View[]> subscribers = new HashMap<>();
+    private boolean isSubscribersIndexValid = false;
+    private int subscriptionsVersion;
+    private ViewRegistry parent;
+
+    @Override
+    public String toString() {
+        return "ViewRegistry{size=" + size() + '}';
+    }
+
+    /**
+     * Helper function. Returns the registry of the tree root.
+     */
+
+    private ViewRegistry getRoot() {
+        ViewRegistry result = this;
+        while (result.parent != null) {
+            result = result.parent;
+        }
+        return result;
+    }
+
+    /**
+     * Helper function. Returns a copy of the given array with the given View appended.
+     */
+
+    private static View[] append(View[] array, View view) {
+        if (array == null) {
+            return new View[]{view};
+        }
+        View[] result = Arrays.copyOf(array, array.length + 1);
+        result[array.length] = view;
+        return result;
+    }
+
+    /**
+     * Helper function. Returns a copy of the given array without the given View, or null when the copy is empty.
+     */
+
+    private static View[] delete(View[] array, View view) {
+        int index = array == null ? -1 : Arrays.asList(array).indexOf(view);
+        if (index < 0) {
+            return array;
+        }
+        if (array.length == 1) {
+            return null;
+        }
+        View[] result = new View[array.length - 1];
+        System.arraycopy(array, 0, result, 0, index);
+        System.arraycopy(array, index + 1, result, index, result.length - index);
+        return result;
+    }
+
+    /**
+     * Helper function. Adds the given View to this registry.
+     */
+
+    private void add(View view) {
+        views.put(view.getID(), append(views.get(view.getID()), view));
+        isSubscribersIndexValid = false;
+    }
+
+    /**
+     * Helper function. Moves the given View from this registry to the given one.
+     * When the given registry is null, the View is removed.
+     */
+
+    private void move(View view, ViewRegistry target) {
+        isSubscribersIndexValid = false;
+        String id = view.getID();
+        View[] result = delete(views.get(id), view);
+        if (result == null) {
+            views.remove(id);
+        } else {
+            views.put(id, result);
+        }
+        if (target != null) {
+            target.add(view);
+        }
+    }
+
+    /**
+     * Returns the {@link ComponentGroup} wrapped by the given View, following its chain of
+     * {@link WrapperView}s.
+     *
+     * @param view a {@link View}
+     * @return the given View when it is a ComponentGroup, the ComponentGroup it wraps or null
+     */
+
+    static ComponentGroup getWrappedGroup(View view) {
+        while (view instanceof WrapperView) {
+            if (view instanceof ComponentGroup) {
+                return (ComponentGroup) view;
+            }
+            view = ((WrapperView) view).getView();
+        }
+        return null;
+    }
+
+    /**
+     * Helper function. Applies the given action to the given View and to all its descendants.
+     * A wrapped group is visited in place of its wrappers.
+     */
+
+    private static void visit(View view, Consumer<View> action) {
+        ComponentGroup wrappedGroup = getWrappedGroup(view);
+        if (wrappedGroup != null) {
+            view = wrappedGroup;
+        }
+        action.accept(view);
+        if (view instanceof ViewGroup) {
+            ViewGroup group = (ViewGroup) view;
+            for (int i = 0; i < group.size(); i++) {
+                visit(group.get(i), action);
+            }
+        }
+    }
+
+    /**
+     * Registers the given View and its descendants.
+     *
+     * @param view the {@link View} to be registered
+     * @throws NullPointerException if {@code view == null}
+     */
+
+    void register(View view) {
+        Objects.requireNonNull(view);
+
+        ViewRegistry root = getRoot();
+        synchronized (root) {
+            visit(view, root::add);
+        }
+    }
+
+    /**
+     * Unregisters the given View and its descendants, together with their subscriptions.
+     *
+     * @param view the {@link View} to be unregistered
+     * @throws NullPointerException if {@code view == null}
+     */
+
+    void unregister(View view) {
+        Objects.requireNonNull(view);
+
+        ViewRegistry root = getRoot();
+        synchronized (root) {
+            visit(view, registeredView -> root.move(registeredView, null));
+        }
+    }
+
+    /**
+     * Attaches this registry to the given one. The views indexed by this registry are moved
+     * to the registry of the tree root.
+     *
+     * @param parent the registry of the parent group
+     * @throws NullPointerException if {@code parent == null}
+     */
+
+    void attach(ViewRegistry parent) {
+        Objects.requireNonNull(parent);
+
+        ViewRegistry root = parent.getRoot();
+        synchronized (root) {
+            for (View[] registeredViews : views.values()) {
+                for (View view : registeredViews) {
+                    root.add(view);
+                }
+            }
+            views.clear();
+            subscribers.clear();
+            isSubscribersIndexValid = false;
+            this.parent = parent;
+        }
+    }
+
+    /**
+     * Detaches this registry from its parent. The given group subtree is moved from the registry
+     * of the tree root to this registry.
+     *
+     * @param group the group that owns this registry
+     * @throws NullPointerException if {@code group == null}
+     */
+
+    void detach(View group) {
+        Objects.requireNonNull(group);
+
+        ViewRegistry root = getRoot();
+        if (root != this) {
+            synchronized (root) {
+                synchronized (this) {
+                    visit(group, view -> root.move(view, this));
+                    parent = null;
+                }
+            }
+        }
+    }
+
+    /**
+     * @return true if this registry is not attached to a parent registry
+     */
+
+    boolean isRoot() {
+        return parent == null;
+    }
+
+    /**
+     * Returns the views with the given ID.
+     * <br>
+     * Time complexity: T(1)
+     *
+     * @param id the views ID
+     * @return the registered views with the given ID or null. The returned array must not be modified
+     */
+
+    public View[] get(String id) {
+        ViewRegistry root = getRoot();
+        synchronized (root) {
+            return root.views.get(id);
+        }
+    }
+
+    /**
+     * Helper function. Checks if the given View is registered.
+     */
+
+    private boolean contains(View view) {
+        View[] registeredViews = views.get(view.getID());
+        return registeredViews != null && Arrays.asList(registeredViews).contains(view);
+    }
+
+    /**
+     * Helper function. Indexes the registered views by the topics they are subscribed to,
+     * when the subscriptions or the registered views have changed.
+     * <br>
+     * Time complexity: T(1) when nothing has changed; O(s) otherwise, where 's' is the number of subscriptions
+     */
+
+    private void indexSubscribers() {
+        int version = MessagingSystem.getSubscriptionsVersion();
+        if (isSubscribersIndexValid && subscriptionsVersion == version) {
+            return;
+        }
+
+        subscribers.clear();
+        MessagingSystem.forEachSubscription((view, topic) -> {
+            if (contains(view)) {
+                subscribers.put(topic, append(subscribers.get(topic), view));
+            }
+        });
+        subscriptionsVersion = version;
+        isSubscribersIndexValid = true;
+    }
+
+    /**
+     * Returns the registered views subscribed to the given topic.
+     * <br>
+     * Time complexity: T(1) when the subscriptions and the tree have not changed
+     *
+     * @param topic the name of a topic
+     * @return the subscribers of the given topic or null. The returned array must not be modified
+     * @see MessagingSystem#subscribe(View, String)
+     */
+
+    public View[] getSubscribers(String topic) {
+        ViewRegistry root = getRoot();
+        synchronized (root) {
+            root.indexSubscribers();
+            return root.subscribers.get(topic);
+        }
+    }
+
+    /**
+     * @return the number of registered IDs
+     */
+
+    public int size() {
+        ViewRegistry root = getRoot();
+        synchronized (root) {
+            return root.views.size();
+        }
+    }
+}
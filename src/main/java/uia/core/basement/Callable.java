@@ -38,6 +38,17 @@ public interface Callable {
 
     void notifyCallbacks(Class<? extends Callback> type, Object data);
 
+    /**
+     * Checks if at least one callback of the specified type is registered.
+     * <br>
+     * It can be used to avoid building a notification payload that nobody would receive.
+     *
+     * @param type the {@link Callback} type
+     * @return true if at least one callback of the specified type is registered
+     */
+
+    boolean hasCallbacks(Class<? extends Callback> type);
+
     /**
      * @return the number of registered callbacks
      */
@@ -25,6 +25,12 @@ import uia.core.ui.View;
  *     </li>
  * </ul>
  * <br>
+ * <b>Frame scheduling</b>
+ * <p>
+ * When a Context produces its frames is decided by a {@link FrameScheduler}: frames can be produced at a fixed
+ * rate, at a rate adapted to the activity or only when something changes. Use {@link #requestFrame()} to
+ * notify a change that the Context can't detect by itself.
+ * </p>
  * <b>Input emulation</b>
  * <p>
  * Sometimes it might be useful to emulate some events (ie pressing a key or moving the mouse around) to test some assumptions
@@ -116,4 +122,21 @@ public interface Context {
      */
 
     InputEmulator getInputEmulator();
+
+    /**
+     * Sets the scheduler that decides when frames are produced.
+     *
+     * @param frameScheduler a not null {@link FrameScheduler}
+     * @throws NullPointerException if {@code frameScheduler == null}
+     */
+
+    void setFrameScheduler(FrameScheduler frameScheduler);
+
+    /**
+     * Requests a new frame as soon as the {@link FrameScheduler} allows it.
+     * <br>
+     * It is useful when a View is changed outside the message flow; for instance, by a background task.
+     */
+
+    void requestFrame();
 }
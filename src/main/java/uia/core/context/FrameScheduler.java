@@ -0,0 +1,38 @@
+package uia.core.context;
+
+/**
+ * FrameScheduler ADT.
+ * <br>
+ * FrameScheduler is responsible for deciding when a {@link Context} produces its frames.
+ * <br>
+ * After each frame, the Context tells the scheduler how long the frame took and whether anything
+ * changed during it; the scheduler answers with the time to wait before the next frame.
+ * A change (for instance, a new input) can start the next frame earlier, but never before
+ * {@link #getMinFramePeriod()} has elapsed since the start of the previous frame.
+ */
+
+public interface FrameScheduler {
+
+    /**
+     * Returned by {@link #nextFramePeriod(long, boolean)} to wait for a change before producing the next frame.
+     */
+    long WAIT_FOR_CHANGES = -1;
+
+    /**
+     * Calculates when the next frame must be produced.
+     *
+     * @param frameTime the time spent to produce the last frame in nanoseconds
+     * @param isIdle    true if nothing changed during the last frame: no messages were dispatched
+     *                  and no area was redrawn
+     * @return the time, in nanoseconds, between the start of the last frame and the start of the next one,
+     * or {@link #WAIT_FOR_CHANGES} to produce the next frame only when a change happens
+     */
+
+    long nextFramePeriod(long frameTime, boolean isIdle);
+
+    /**
+     * @return the minimum time, in nanoseconds, between the start of two frames
+     */
+
+    long getMinFramePeriod();
+}
@@ -1,5 +1,6 @@
 package uia.core.rendering;
 
+import uia.core.rendering.geometry.Geometry;
 import uia.core.rendering.color.Color;
 import uia.core.rendering.image.Image;
 import uia.core.rendering.font.Font;
@@ -46,6 +47,23 @@ public interface Graphics {
 
     Graphics setClip(Transform transform, int length, float... vertices);
 
+    /**
+     * Sets the current clipping area to the given Geometry.
+     * <br>
+     * Unlike {@link #setClip(Transform, int, float...)}, the implementation can keep the clip shape
+     * built from the given Transform and Geometry until one of them changes.
+     *
+     * @param transform the shape transformation; it could be null
+     * @param geometry  the clip shape
+     * @return this Graphics
+     * @throws NullPointerException if {@code geometry == null}
+     * @since 2.6.0
+     */
+
+    default Graphics setClip(Transform transform, Geometry geometry) {
+        return setClip(transform, geometry.vertices(), geometry.toArray());
+    }
+
     /**
      * Restores the previous clipping area.
      *
@@ -54,6 +72,39 @@ public interface Graphics {
 
     Graphics restoreClip();
 
+    // layer
+
+    /**
+     * Redirects the next drawing operations to the given Image, used as an off-screen layer,
+     * until {@link #endLayer()} is called.
+     * <br>
+     * The layer covers the specified area, expressed in the coordinates of this Graphics, and it is cleared
+     * before being used. Once completed, the layer can be drawn with {@link #drawImage(Image, float, float, float, float, float)}.
+     * <br>
+     * Layers can be nested.
+     *
+     * @param layer  a not null {@link Image} used to store the layer
+     * @param x      the top left corner of the layer area on the x-axis
+     * @param y      the top left corner of the layer area on the y-axis
+     * @param width  the layer width greater than zero
+     * @param height the layer height greater than zero
+     * @return this Graphics
+     * @throws NullPointerException     if {@code layer == null}
+     * @throws IllegalArgumentException if {@code width <= 0 || height <= 0}
+     */
+
+    Graphics beginLayer(Image layer, int x, int y, int width, int height);
+
+    /**
+     * Completes the last layer started with {@link #beginLayer(Image, int, int, int, int)} and redirects
+     * the next drawing operations to the previous drawing target.
+     *
+     * @return this Graphics
+     * @throws IllegalStateException if no layer has been started
+     */
+
+    Graphics endLayer();
+
     // shape
 
     /**
@@ -123,6 +174,23 @@ public interface Graphics {
 
     Graphics drawShape(Transform transform, int length, float... vertices);
 
+    /**
+     * Draws the given Geometry on this Graphics.
+     * <br>
+     * Unlike {@link #drawShape(Transform, int, float...)}, the implementation can keep the shape
+     * built from the given Transform and Geometry until one of them changes.
+     *
+     * @param transform the shape transformation; it could be null
+     * @param geometry  the shape to be drawn
+     * @return this Graphics
+     * @throws NullPointerException if {@code geometry == null}
+     * @since 2.6.0
+     */
+
+    default Graphics drawShape(Transform transform, Geometry geometry) {
+        return drawShape(transform, geometry.vertices(), geometry.toArray());
+    }
+
     // text
 
     /**
@@ -0,0 +1,732 @@
+package uia.core.rendering;
+
+import uia.core.rendering.geometry.GeometryUtility;
+import uia.core.rendering.geometry.Geometry;
+import uia.core.rendering.color.ColorCollection;
+import uia.core.rendering.color.Color;
+import uia.core.rendering.image.Image;
+import uia.core.rendering.font.Font;
+import uia.utility.MathUtility;
+
+import java.util.function.Consumer;
+import java.util.IdentityHashMap;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Objects;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@link Graphics} implementation that records the draw operations into a display list.
+ * <br>
+ * The display list is a compact command buffer made of primitive arrays: integer opcodes and references,
+ * float operands and characters. Colors are interned by value; fonts and images by identity.
+ * A recorded frame can be replayed, any number of times, onto any Graphics with {@link #replay(Graphics)}.
+ * <br>
+ * <br>
+ * <b>State-sorted replay</b>
+ * <br>
+ * State changes are not recorded as commands: each draw command stores the state it needs, so the replay
+ * only sets the state that actually changes between two draws. Moreover, within a clip or layer scope,
+ * a draw is moved up to join a previous draw with the same state when it doesn't overlap any draw in between;
+ * the painting order of overlapping draws is always preserved.
+ * <br>
+ * <br>
+ * <b>Fonts</b>
+ * <br>
+ * Text is laid out with the font measures while it is recorded, so a font must be built before its text
+ * is recorded. A RecordingGraphics created with a font builder, see {@link #RecordingGraphics(Consumer)},
+ * builds the invalid fonts as soon as they are set; otherwise, they are built only when replayed.
+ * <br>
+ * A built font is recorded as a copy made with {@link Font#copy()}, so the replay never reads a font
+ * changed after the recording: the recording can be replayed by a thread other than the one that
+ * changes the fonts. The copies of the fonts used by the previous recording are reused.
+ * <br>
+ * <br>
+ * <i>Policies:</i>
+ * <ul>
+ *     <li>clips and layers are replayed in their recording order and end the current scope;</li>
+ *     <li>a draw whose bounds can't be calculated (for instance, rotated text) is never reordered;</li>
+ *     <li>images, and the fonts that can't be built while recording, are referenced, not copied:
+ *     they must not change between recording and replay.</li>
+ * </ul>
+ */
+
+public final class RecordingGraphics implements Graphics {
+    private static final int DRAW_SHAPE = 1;
+    private static final int DRAW_TEXT = 2;
+    private static final int DRAW_IMAGE = 3;
+    private static final int SET_CLIP = 4;
+    private static final int RESTORE_CLIP = 5;
+    private static final int BEGIN_LAYER = 6;
+    private static final int END_LAYER = 7;
+
+    private static final int NO_REFERENCE = -1;
+    private static final int UNKNOWN_REFERENCE = -2;
+    private static final int MAX_SCOPE_SIZE = 64;
+    private static final float BOUNDS_PADDING = 1f;
+
+    // command buffer
+    private int[] commands = new int[256];
+    private float[] operands = new float[1024];
+    private char[] characters = new char[256];
+    private Object[] references = new Object[32];
+    private int commandsSize = 0;
+    private int operandsSize = 0;
+    private int charactersSize = 0;
+    private int referencesSize = 0;
+    private int drawCommands = 0;
+
+    private final Consumer<Font> fontBuilder;
+    private final Map<Color, Integer> colorReferences = new HashMap<>();
+    private final Map<Object, Integer> objectReferences = new IdentityHashMap<>();
+    private Map<Font, Font> fontCopies = new IdentityHashMap<>();
+    private Map<Font, Font> previousFontCopies = new IdentityHashMap<>();
+
+    // recording state
+    private int shapeColor;
+    private int shapeBorderColor;
+    private float shapeBorderWidth;
+    private int font;
+    private int textColor;
+
+    // replay state
+    // each replayed shape has its own Transform and Geometry, so the target can cache it
+    private final List<Transform> replayTransforms = new ArrayList<>();
+    private final List<Geometry> replayGeometries = new ArrayList<>();
+    private int replayedShapes;
+    private final int[] scope = new int[MAX_SCOPE_SIZE];
+    private final boolean[] replayed = new boolean[MAX_SCOPE_SIZE];
+    private int replayShapeColor;
+    private int replayShapeBorderColor;
+    private float replayShapeBorderWidth;
+    private int replayFont;
+    private int replayTextColor;
+
+    private final float[] transformedVertex = new float[2];
+
+    public RecordingGraphics() {
+        this(font -> {
+        });
+    }
+
+    /**
+     * Creates a new RecordingGraphics that builds the fonts when they are set.
+     *
+     * @param fontBuilder the function used to build an invalid {@link Font}; for instance, the native font
+     *                    factory of the Graphics the commands will be replayed on
+     * @throws NullPointerException if {@code fontBuilder == null}
+     */
+
+    public RecordingGraphics(Consumer<Font> fontBuilder) {
+        this.fontBuilder = Objects.requireNonNull(fontBuilder);
+        clear();
+    }
+
+    /**
+     * Removes all the recorded commands and resets the recording state.
+     */
+
+    public void clear() {
+        commandsSize = operandsSize = charactersSize = 0;
+        drawCommands = 0;
+        Arrays.fill(references, 0, referencesSize, null);
+        referencesSize = 0;
+        colorReferences.clear();
+        objectReferences.clear();
+
+        // keeps the font copies of the last recording
+        Map<Font, Font> swap = previousFontCopies;
+        previousFontCopies = fontCopies;
+        fontCopies = swap;
+        fontCopies.clear();
+
+        // the same initial state as the platform graphics
+        shapeColor = internColor(ColorCollection.WHITE);
+        shapeBorderColor = shapeColor;
+        shapeBorderWidth = 0f;
+        font = NO_REFERENCE;
+        textColor = internColor(ColorCollection.BLACK);
+    }
+
+    /**
+     * @return true if no command has been recorded
+     */
+
+    public boolean isEmpty() {
+        return commandsSize == 0;
+    }
+
+    /**
+     * @return the number of recorded draw commands
+     */
+
+    public int getDrawCommands() {
+        return drawCommands;
+    }
+
+    // recording
+
+    /**
+     * Helper function. Makes room for the given number of commands.
+     */
+
+    private void ensureCommands(int size) {
+        if (commandsSize + size > commands.length) {
+            commands = Arrays.copyOf(commands, Math.max(2 * commands.length, commandsSize + size));
+        }
+    }
+
+    /**
+     * Helper function. Makes room for the given number of operands.
+     */
+
+    private void ensureOperands(int size) {
+        if (operandsSize + size > operands.length) {
+            operands = Arrays.copyOf(operands, Math.max(2 * operands.length, operandsSize + size));
+        }
+    }
+
+    /**
+     * Helper function. Stores the given object and returns its reference.
+     */
+
+    private int addReference(Object object) {
+        if (referencesSize == references.length) {
+            references = Arrays.copyOf(references, 2 * references.length);
+        }
+        references[referencesSize] = object;
+        return referencesSize++;
+    }
+
+    /**
+     * Helper function. Returns the reference of the given color; equal colors share the same reference.
+     */
+
+    private int internColor(Color color) {
+        Integer result = colorReferences.get(color);
+        if (result == null) {
+            result = addReference(color);
+            colorReferences.put(color, result);
+        }
+        return result;
+    }
+
+    /**
+     * Helper function. Returns the reference of the given object; the same object is stored once.
+     */
+
+    private int internObject(Object object) {
+        Integer result = objectReferences.get(object);
+        if (result == null) {
+            result = addReference(object);
+            objectReferences.put(object, result);
+        }
+        return result;
+    }
+
+    /**
+     * Helper function. Records the given transform; a null transform is recorded as NaN.
+     */
+
+    private void recordTransform(Transform transform) {
+        if (transform == null) {
+            operands[operandsSize] = Float.NaN;
+            operandsSize += 5;
+        } else {
+            operands[operandsSize++] = transform.getTranslationX();
+            operands[operandsSize++] = transform.getTranslationY();
+            operands[operandsSize++] = transform.getScaleX();
+            operands[operandsSize++] = transform.getScaleY();
+            operands[operandsSize++] = transform.getRotation();
+        }
+    }
+
+    /**
+     * Helper function. Records the given bounds: the top left and the bottom right corner.
+     * Unknown bounds are recorded as NaN.
+     */
+
+    private void recordBounds(float minX, float minY, float maxX, float maxY) {
+        operands[operandsSize++] = minX - BOUNDS_PADDING;
+        operands[operandsSize++] = minY - BOUNDS_PADDING;
+        operands[operandsSize++] = maxX + BOUNDS_PADDING;
+        operands[operandsSize++] = maxY + BOUNDS_PADDING;
+    }
+
+    /**
+     * Helper function. Records the bounds of the given shape.
+     */
+
+    private void recordShapeBounds(Transform transform, int length, float[] vertices) {
+        float minX = Float.POSITIVE_INFINITY;
+        float minY = Float.POSITIVE_INFINITY;
+        float maxX = Float.NEGATIVE_INFINITY;
+        float maxY = Float.NEGATIVE_INFINITY;
+        for (int i = 0; i < length; i++) {
+            if (transform == null) {
+                transformedVertex[0] = vertices[2 * i];
+                transformedVertex[1] = vertices[2 * i + 1];
+            } else {
+                GeometryUtility.computeTransformedVertex(transform, vertices[2 * i], vertices[2 * i + 1], transformedVertex);
+            }
+            minX = Math.min(minX, transformedVertex[0]);
+            minY = Math.min(minY, transformedVertex[1]);
+            maxX = Math.max(maxX, transformedVertex[0]);
+            maxY = Math.max(maxY, transformedVertex[1]);
+        }
+
+        float borderOffset = shapeBorderWidth / 2f;
+        recordBounds(minX - borderOffset, minY - borderOffset, maxX + borderOffset, maxY + borderOffset);
+    }
+
+    @Override
+    public void dispose() {
+        // nothing to dispose
+    }
+
+    @Override
+    public Graphics setClip(Transform transform, int length, float... vertices) {
+        int recordedLength = vertices == null ? -1 : length;
+        ensureCommands(3);
+        ensureOperands(5 + 2 * Math.max(0, recordedLength));
+        commands[commandsSize++] = SET_CLIP;
+        commands[commandsSize++] = operandsSize;
+        commands[commandsSize++] = recordedLength;
+        recordTransform(transform);
+        if (recordedLength > 0) {
+            System.arraycopy(vertices, 0, operands, operandsSize, 2 * recordedLength);
+            operandsSize += 2 * recordedLength;
+        }
+        return this;
+    }
+
+    @Override
+    public Graphics restoreClip() {
+        ensureCommands(1);
+        commands[commandsSize++] = RESTORE_CLIP;
+        return this;
+    }
+
+    @Override
+    public Graphics beginLayer(Image layer, int x, int y, int width, int height) {
+        Objects.requireNonNull(layer);
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("the layer dimension must be > 0");
+        }
+
+        ensureCommands(6);
+        commands[commandsSize++] = BEGIN_LAYER;
+        commands[commandsSize++] = internObject(layer);
+        commands[commandsSize++] = x;
+        commands[commandsSize++] = y;
+        commands[commandsSize++] = width;
+        commands[commandsSize++] = height;
+        return this;
+    }
+
+    @Override
+    public Graphics endLayer() {
+        ensureCommands(1);
+        commands[commandsSize++] = END_LAYER;
+        return this;
+    }
+
+    @Override
+    public Graphics setShapeColor(Color color) {
+        if (color != null) {
+            shapeColor = internColor(color);
+            shapeBorderColor = shapeColor;
+        }
+        return this;
+    }
+
+    @Override
+    public Graphics setShapeBorderColor(Color borderColor) {
+        shapeBorderColor = borderColor == null ? shapeColor : internColor(borderColor);
+        return this;
+    }
+
+    @Override
+    public Graphics setShapeBorderWidth(float lineWidth) {
+        if (lineWidth < 0) {
+            throw new IllegalArgumentException("'lineWidth' is < 0. It must be >= 0.");
+        }
+        shapeBorderWidth = lineWidth;
+        return this;
+    }
+
+    @Override
+    public Graphics drawShape(Transform transform, int length, float... vertices) {
+        int recordedLength = Math.max(0, length);
+        ensureCommands(5);
+        ensureOperands(10 + 2 * recordedLength);
+        commands[commandsSize++] = DRAW_SHAPE;
+        commands[commandsSize++] = operandsSize;
+        commands[commandsSize++] = recordedLength;
+        commands[commandsSize++] = shapeColor;
+        commands[commandsSize++] = shapeBorderColor;
+        recordShapeBounds(transform, recordedLength, vertices);
+        operands[operandsSize++] = shapeBorderWidth;
+        recordTransform(transform);
+        System.arraycopy(vertices, 0, operands, operandsSize, 2 * recordedLength);
+        operandsSize += 2 * recordedLength;
+        drawCommands++;
+        return this;
+    }
+
+    /**
+     * Helper function. Returns the copy of the given built font, made once per font version.
+     */
+
+    private Font copyOf(Font font) {
+        Font result = fontCopies.get(font);
+        if (result == null) {
+            result = previousFontCopies.get(font);
+        }
+        if (result == null || result.getVersion() != font.getVersion()) {
+            result = font.copy();
+        }
+        fontCopies.put(font, result);
+        return result;
+    }
+
+    @Override
+    public Graphics setFont(Font font) {
+        // the text is laid out with the font measures before being replayed
+        if (font != null && !font.isValid()) {
+            fontBuilder.accept(font);
+        }
+        if (font == null) {
+            this.font = NO_REFERENCE;
+        } else {
+            this.font = internObject(font.isValid() ? copyOf(font) : font);
+        }
+        return this;
+    }
+
+    @Override
+    public Graphics setTextColor(Color color) {
+        if (color != null) {
+            textColor = internColor(color);
+        }
+        return this;
+    }
+
+    @Override
+    public Graphics drawText(char[] data, int offset, int length, float x, float y, float rotation) {
+        if (charactersSize + length > characters.length) {
+            characters = Arrays.copyOf(characters, Math.max(2 * characters.length, charactersSize + length));
+        }
+        ensureCommands(6);
+        ensureOperands(7);
+        commands[commandsSize++] = DRAW_TEXT;
+        commands[commandsSize++] = operandsSize;
+        commands[commandsSize++] = charactersSize;
+        commands[commandsSize++] = length;
+        commands[commandsSize++] = font;
+        commands[commandsSize++] = textColor;
+
+        // the text bounds are known only when the font has been built
+        Font textFont = font == NO_REFERENCE ? null : (Font) references[font];
+        boolean rotated = Float.compare(rotation % MathUtility.TWO_PI, 0f) != 0;
+        if (textFont != null && textFont.isValid() && !rotated) {
+            float width = textFont.getWidth(offset, length, data);
+            recordBounds(x, y - textFont.getAscent(), x + width, y + textFont.getDescent());
+        } else {
+            recordBounds(Float.NaN, Float.NaN, Float.NaN, Float.NaN);
+        }
+        operands[operandsSize++] = x;
+        operands[operandsSize++] = y;
+        operands[operandsSize++] = rotation;
+
+        System.arraycopy(data, offset, characters, charactersSize, length);
+        charactersSize += length;
+        drawCommands++;
+        return this;
+    }
+
+    @Override
+    public Graphics drawImage(Image image, float x, float y, float width, float height, float rotation) {
+        ensureCommands(3);
+        ensureOperands(9);
+        commands[commandsSize++] = DRAW_IMAGE;
+        commands[commandsSize++] = operandsSize;
+        commands[commandsSize++] = internObject(image);
+
+        boolean rotated = Float.compare(rotation % MathUtility.TWO_PI, 0f) != 0;
+        if (rotated) {
+            recordBounds(Float.NaN, Float.NaN, Float.NaN, Float.NaN);
+        } else {
+            recordBounds(x - width / 2f, y - height / 2f, x + width / 2f, y + height / 2f);
+        }
+        operands[operandsSize++] = x;
+        operands[operandsSize++] = y;
+        operands[operandsSize++] = width;
+        operands[operandsSize++] = height;
+        operands[operandsSize++] = rotation;
+        drawCommands++;
+        return this;
+    }
+
+    // replay
+
+    /**
+     * Helper function. Returns the number of integers used by the command at the given position.
+     */
+
+    private int commandSize(int command) {
+        switch (commands[command]) {
+            case DRAW_SHAPE:
+                return 5;
+            case DRAW_TEXT:
+            case BEGIN_LAYER:
+                return 6;
+            case DRAW_IMAGE:
+            case SET_CLIP:
+                return 3;
+            default:
+                return 1;
+        }
+    }
+
+    /**
+     * Helper function. Checks if the given command is a draw command.
+     */
+
+    private boolean isDrawCommand(int command) {
+        int opcode = commands[command];
+        return opcode == DRAW_SHAPE || opcode == DRAW_TEXT || opcode == DRAW_IMAGE;
+    }
+
+    /**
+     * Helper function. Forgets the state of the target Graphics, so the next draw sets all the state it needs.
+     */
+
+    private void resetReplayState() {
+        replayShapeColor = UNKNOWN_REFERENCE;
+        replayShapeBorderColor = UNKNOWN_REFERENCE;
+        replayShapeBorderWidth = Float.NaN;
+        replayFont = UNKNOWN_REFERENCE;
+        replayTextColor = UNKNOWN_REFERENCE;
+    }
+
+    /**
+     * Helper function. Checks if the bounds of the given draw commands overlap.
+     */
+
+    private boolean overlap(int command, int otherCommand) {
+        int bounds = commands[command + 1];
+        int otherBounds = commands[otherCommand + 1];
+        // NaN bounds make the comparisons fail, so unknown bounds overlap everything
+        return !(operands[bounds + 2] < operands[otherBounds]
+                || operands[otherBounds + 2] < operands[bounds]
+                || operands[bounds + 3] < operands[otherBounds + 1]
+                || operands[otherBounds + 3] < operands[bounds + 1]);
+    }
+
+    /**
+     * Helper function. Checks if the given draw command can be replayed without changing the target state.
+     */
+
+    private boolean matchesReplayState(int command) {
+        switch (commands[command]) {
+            case DRAW_SHAPE:
+                return commands[command + 3] == replayShapeColor
+                        && commands[command + 4] == replayShapeBorderColor
+                        && operands[commands[command + 1] + 4] == replayShapeBorderWidth;
+            case DRAW_TEXT:
+                return commands[command + 4] == replayFont
+                        && commands[command + 5] == replayTextColor;
+            default:
+                return true;
+        }
+    }
+
+    /**
+     * Helper function. Replays the given draw command, setting only the state that changes.
+     */
+
+    private void replayDraw(int command, Graphics target) {
+        int operand = commands[command + 1];
+        switch (commands[command]) {
+            case DRAW_SHAPE:
+                int shapeColorReference = commands[command + 3];
+                int shapeBorderColorReference = commands[command + 4];
+                float borderWidth = operands[operand + 4];
+                if (shapeColorReference != replayShapeColor) {
+                    target.setShapeColor((Color) references[shapeColorReference]);
+                    replayShapeColor = replayShapeBorderColor = shapeColorReference;
+                }
+                if (shapeBorderColorReference != replayShapeBorderColor) {
+                    target.setShapeBorderColor((Color) references[shapeBorderColorReference]);
+                    replayShapeBorderColor = shapeBorderColorReference;
+                }
+                if (Float.compare(borderWidth, replayShapeBorderWidth) != 0) {
+                    target.setShapeBorderWidth(borderWidth);
+                    replayShapeBorderWidth = borderWidth;
+                }
+                int length = commands[command + 2];
+                int shape = replayedShapes++;
+                target.drawShape(toTransform(operand + 5, shape), toGeometry(operand + 10, length, shape));
+                break;
+            case DRAW_TEXT:
+                int fontReference = commands[command + 4];
+                int textColorReference = commands[command + 5];
+                if (fontReference != replayFont && fontReference != NO_REFERENCE) {
+                    target.setFont((Font) references[fontReference]);
+                    replayFont = fontReference;
+                }
+                if (textColorReference != replayTextColor) {
+                    target.setTextColor((Color) references[textColorReference]);
+                    replayTextColor = textColorReference;
+                }
+                target.drawText(characters, commands[command + 2], commands[command + 3],
+                        operands[operand + 4], operands[operand + 5], operands[operand + 6]);
+                break;
+            default:
+                target.drawImage((Image) references[commands[command + 2]],
+                        operands[operand + 4], operands[operand + 5],
+                        operands[operand + 6], operands[operand + 7], operands[operand + 8]);
+        }
+    }
+
+    /**
+     * Helper function. Returns the Geometry of the specified replayed shape, set to the recorded vertices
+     * at the given operand. The Geometry is modified only when the vertices differ from the last replay.
+     */
+
+    private Geometry toGeometry(int operand, int length, int shape) {
+        while (replayGeometries.size() <= shape) {
+            replayGeometries.add(new Geometry());
+        }
+        Geometry result = replayGeometries.get(shape);
+        if (result.vertices() != length
+                || !Arrays.equals(result.toArray(), 0, 2 * length, operands, operand, operand + 2 * length)) {
+            result.removeAllVertices();
+            for (int i = 0; i < length; i++) {
+                result.addVertex(operands[operand + 2 * i], operands[operand + 2 * i + 1]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Helper function. Returns the Transform of the specified replayed shape, set to the recorded
+     * transform at the given operand, or null.
+     */
+
+    private Transform toTransform(int operand, int shape) {
+        if (Float.isNaN(operands[operand])) {
+            return null;
+        }
+        while (replayTransforms.size() <= shape) {
+            replayTransforms.add(new Transform());
+        }
+        return replayTransforms.get(shape)
+                .setTranslation(operands[operand], operands[operand + 1])
+                .setScale(operands[operand + 2], operands[operand + 3])
+                .setRotation(operands[operand + 4]);
+    }
+
+    /**
+     * Helper function. Replays the given scope of draw commands, batching the draws with the same state.
+     * <br>
+     * Time complexity: O(n^2) where 'n' is the number of draws in the scope
+     */
+
+    private void replayScope(int size, Graphics target) {
+        Arrays.fill(replayed, 0, size, false);
+        int first = 0;
+        for (int replayedDraws = 0; replayedDraws < size; replayedDraws++) {
+            while (replayed[first]) {
+                first++;
+            }
+
+            // looks for a draw with the current state that can be moved up
+            int next = first;
+            if (!matchesReplayState(scope[first])) {
+                for (int i = first + 1; i < size; i++) {
+                    if (!replayed[i] && matchesReplayState(scope[i]) && canBeMovedUp(i, first)) {
+                        next = i;
+                        break;
+                    }
+                }
+            }
+
+            replayDraw(scope[next], target);
+            replayed[next] = true;
+        }
+    }
+
+    /**
+     * Helper function. Checks if the given draw doesn't overlap any draw to be replayed before it.
+     */
+
+    private boolean canBeMovedUp(int draw, int first) {
+        for (int i = first; i < draw; i++) {
+            if (!replayed[i] && overlap(scope[i], scope[draw])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Replays the recorded commands onto the given Graphics.
+     * <br>
+     * Time complexity: O(n)
+     *
+     * @param target the Graphics on which the commands are replayed
+     * @throws NullPointerException if {@code target == null}
+     */
+
+    public void replay(Graphics target) {
+        Objects.requireNonNull(target);
+
+        resetReplayState();
+        replayedShapes = 0;
+        int scopeSize = 0;
+        for (int command = 0; command < commandsSize; command += commandSize(command)) {
+            if (isDrawCommand(command)) {
+                if (scopeSize == MAX_SCOPE_SIZE) {
+                    replayScope(scopeSize, target);
+                    scopeSize = 0;
+                }
+                scope[scopeSize++] = command;
+                continue;
+            }
+
+            // clips and layers end the scope
+            replayScope(scopeSize, target);
+            scopeSize = 0;
+            switch (commands[command]) {
+                case SET_CLIP:
+                    int length = commands[command + 2];
+                    int operand = commands[command + 1];
+                    int shape = replayedShapes++;
+                    if (length < 0) {
+                        target.setClip(toTransform(operand, shape), 0, (float[]) null);
+                    } else {
+                        target.setClip(toTransform(operand, shape), toGeometry(operand + 5, length, shape));
+                    }
+                    break;
+                case RESTORE_CLIP:
+                    target.restoreClip();
+                    break;
+                case BEGIN_LAYER:
+                    target.beginLayer((Image) references[commands[command + 1]],
+                            commands[command + 2], commands[command + 3],
+                            commands[command + 4], commands[command + 5]);
+                    // the layer has its own native state
+                    resetReplayState();
+                    break;
+                default:
+                    target.endLayer();
+                    resetReplayState();
+            }
+        }
+        replayScope(scopeSize, target);
+    }
+}
@@ -19,6 +19,7 @@ public final class Transform {
     private final float[] translation;
     private final float[] scale;
     private float rotation;
+    private int version = 0;
 
     public Transform() {
         translation = new float[]{0f, 0f};
@@ -43,8 +44,11 @@ public final class Transform {
      */
 
     public Transform setTranslation(float x, float y) {
-        translation[0] = x;
-        translation[1] = y;
+        if (translation[0] != x || translation[1] != y) {
+            translation[0] = x;
+            translation[1] = y;
+            version++;
+        }
         return this;
     }
 
@@ -57,9 +61,7 @@ public final class Transform {
      */
 
     public Transform translate(float x, float y) {
-        translation[0] += x;
-        translation[1] += y;
-        return this;
+        return setTranslation(translation[0] + x, translation[1] + y);
     }
 
     /**
@@ -95,8 +97,11 @@ public final class Transform {
             throw new IllegalArgumentException("the scale on the y-axis must be greater than or equal to 0");
         }
 
-        scale[0] = x;
-        scale[1] = y;
+        if (scale[0] != x || scale[1] != y) {
+            scale[0] = x;
+            scale[1] = y;
+            version++;
+        }
         return this;
     }
 
@@ -124,7 +129,11 @@ public final class Transform {
      */
 
     public Transform setRotation(float radians) {
-        rotation = radians % MathUtility.TWO_PI;
+        float newRotation = radians % MathUtility.TWO_PI;
+        if (rotation != newRotation) {
+            rotation = newRotation;
+            version++;
+        }
         return this;
     }
 
@@ -137,7 +146,10 @@ public final class Transform {
 
     public Transform rotate(float radians) {
         float amount = radians % MathUtility.TWO_PI;
-        rotation += amount;
+        if (amount != 0f) {
+            rotation += amount;
+            version++;
+        }
         return this;
     }
 
@@ -148,4 +160,15 @@ public final class Transform {
     public float getRotation() {
         return rotation;
     }
+
+    /**
+     * Returns the version of this Transform. The version changes every time the transformation
+     * is modified, so it can be used to check whether data derived from it is still valid.
+     *
+     * @return the version of this Transform
+     */
+
+    public int getVersion() {
+        return version;
+    }
 }
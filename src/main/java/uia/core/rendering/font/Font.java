@@ -8,6 +8,7 @@ import java.util.Objects;
 
 public class Font {
     private static final FontMeasure NO_MEASURE = (offset, length, text) -> 0;
+    private static final GlyphAdvanceTable NO_ADVANCES = new GlyphAdvanceTable(NO_MEASURE);
 
     /**
      * Default desktop font size.
@@ -22,6 +23,7 @@ public class Font {
     public enum FontStyle {PLAIN, BOLD, ITALIC}
 
     private FontMeasure measure = NO_MEASURE;
+    private GlyphAdvanceTable advances = NO_ADVANCES;
 
     private FontStyle fontStyle;
     private String name;
@@ -32,6 +34,7 @@ public class Font {
     private float size;
 
     private boolean isValid = false;
+    private int version = 0;
 
     public Font(String name, FontStyle fontStyle, float size) {
         this.fontStyle = fontStyle;
@@ -74,12 +77,46 @@ public class Font {
         return new Font(getName(), getStyle(), getSize());
     }
 
+    /**
+     * Returns a copy of this font that shares its measures and its version.
+     * <br>
+     * Unlike {@link #clone()}, the copy of a valid font is valid, so it can be used without
+     * being built again; for instance, by a thread that must not read this font while it changes.
+     *
+     * @return a copy of this font
+     */
+
+    public Font copy() {
+        Font result = new Font(name, fontStyle, size);
+        result.measure = measure;
+        result.advances = advances;
+        result.leadingFactor = leadingFactor;
+        result.descent = descent;
+        result.leading = leading;
+        result.ascent = ascent;
+        result.isValid = isValid;
+        result.version = version;
+        return result;
+    }
+
     /**
      * Invalidates this font and force UIa to rebuild it.
      */
 
     public void invalidate() {
         isValid = false;
+        version++;
+    }
+
+    /**
+     * Returns the version of this font. The version changes every time the font is invalidated,
+     * so a native font can be cached per font instance and version.
+     *
+     * @return the version of this font
+     */
+
+    public int getVersion() {
+        return version;
     }
 
     /**
@@ -92,6 +129,9 @@ public class Font {
 
     /**
      * Builds this Font with the given data.
+     * <br>
+     * The given measure is used to fill the {@link GlyphAdvanceTable} of this font; text is then
+     * measured by summing the advances of its characters.
      *
      * @param ascent  the font ascent
      * @param descent the font descent
@@ -105,6 +145,7 @@ public class Font {
 
         this.isValid = true;
         this.measure = measure;
+        this.advances = new GlyphAdvanceTable(measure);
         this.ascent = ascent;
         this.descent = descent;
         this.leading = leading;
@@ -125,7 +166,8 @@ public class Font {
         size = font.size;
         fontStyle = font.fontStyle;
         leadingFactor = font.leadingFactor;
-        measure = null;
+        measure = NO_MEASURE;
+        advances = NO_ADVANCES;
         invalidate();
         return this;
     }
@@ -248,7 +290,7 @@ public class Font {
      */
 
     public float getWidth(char character) {
-        return measure.width(0, 1, character);
+        return advances.getAdvance(character);
     }
 
     /**
@@ -269,7 +311,15 @@ public class Font {
      */
 
     public float getWidth(int offset, int length, char... text) {
-        return measure.width(offset, length, text);
+        return advances.getWidth(offset, length, text);
+    }
+
+    /**
+     * @return the table with the advance width of each character of this font
+     */
+
+    public GlyphAdvanceTable getAdvanceTable() {
+        return advances;
     }
 
     /**
@@ -0,0 +1,173 @@
+package uia.core.rendering.font;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.Objects;
+
+/**
+ * GlyphAdvanceTable stores the advance width of each character of a font.
+ * <br>
+ * Advances are measured once with a {@link FontMeasure} and then read from primitive arrays, so that
+ * measuring text doesn't call the native platform.
+ * <br>
+ * <br>
+ * <i>Policies:</i>
+ * <ul>
+ *     <li>ASCII advances are measured when the table is created;</li>
+ *     <li>the other advances are measured lazily, one block of {@link #BLOCK_SIZE} characters at a time;</li>
+ *     <li>the width of a text is the sum of the advances of its characters (kerning is not applied);</li>
+ *     <li>the table can be read by any thread: each block is measured once and published atomically,
+ *     so a reader never sees a partially measured block.</li>
+ * </ul>
+ */
+
+public final class GlyphAdvanceTable {
+    /**
+     * The number of characters measured together.
+     */
+    public static final int BLOCK_SIZE = 256;
+
+    private static final int ASCII_SIZE = 128;
+
+    private final AtomicReferenceArray<float[]> blocks = new AtomicReferenceArray<>((Character.MAX_VALUE + 1) / BLOCK_SIZE);
+    private final float[] asciiAdvances = new float[ASCII_SIZE];
+    private final char[] measuredChar = new char[1];
+    private final FontMeasure measure;
+
+    /**
+     * Creates a new GlyphAdvanceTable.
+     *
+     * @param measure the FontMeasure used to measure each character
+     * @throws NullPointerException if {@code measure == null}
+     */
+
+    public GlyphAdvanceTable(FontMeasure measure) {
+        Objects.requireNonNull(measure);
+        this.measure = measure;
+
+        for (char i = 0; i < ASCII_SIZE; i++) {
+            asciiAdvances[i] = measure.width(0, 1, i);
+        }
+    }
+
+    /**
+     * Helper method. Measures the given block of characters, unless another thread has already measured it.
+     */
+
+    private float[] measureBlock(int blockIndex) {
+        synchronized (measuredChar) {
+            float[] result = blocks.get(blockIndex);
+            if (result == null) {
+                result = new float[BLOCK_SIZE];
+                for (int i = 0; i < BLOCK_SIZE; i++) {
+                    measuredChar[0] = (char) (blockIndex * BLOCK_SIZE + i);
+                    result[i] = measure.width(0, 1, measuredChar);
+                }
+                blocks.set(blockIndex, result);
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Returns the advance width of the given character.
+     * <br>
+     * Time complexity: T(1)
+     *
+     * @param character a character
+     * @return the advance width in pixels of the given character
+     */
+
+    public float getAdvance(char character) {
+        if (character < ASCII_SIZE) {
+            return asciiAdvances[character];
+        }
+        int blockIndex = character / BLOCK_SIZE;
+        float[] block = blocks.get(blockIndex);
+        if (block == null) {
+            block = measureBlock(blockIndex);
+        }
+        return block[character % BLOCK_SIZE];
+    }
+
+    /**
+     * Returns the width of the given text.
+     * <br>
+     * Time complexity: T(n)
+     *
+     * @param offset the position of the first character to be measured
+     * @param length the number of characters to be measured
+     * @param text   the text to be measured
+     * @return the width in pixels of the given text
+     * @throws NullPointerException      if {@code text == null}
+     * @throws IndexOutOfBoundsException if the range exceeds the text bounds
+     */
+
+    public float getWidth(int offset, int length, char[] text) {
+        Objects.checkFromIndexSize(offset, length, text.length);
+
+        float result = 0f;
+        for (int i = offset; i < offset + length; i++) {
+            char character = text[i];
+            result += character < ASCII_SIZE ? asciiAdvances[character] : getAdvance(character);
+        }
+        return result;
+    }
+
+    /**
+     * Computes the prefix widths of the given text: {@code target[i]} is the width of the first
+     * {@code i} characters, so {@code target[0] = 0} and {@code target[length]} is the width of the whole text.
+     * <br>
+     * The width of any range [i, j) is {@code target[j] - target[i]}.
+     * <br>
+     * Time complexity: T(n)
+     *
+     * @param offset the position of the first character to be measured
+     * @param length the number of characters to be measured
+     * @param text   the text to be measured
+     * @param target an array of at least {@code length + 1} elements used to store the prefix widths
+     * @throws NullPointerException      if {@code text == null || target == null}
+     * @throws IndexOutOfBoundsException if the range exceeds the text bounds or the target is too small
+     */
+
+    public void computePrefixWidths(int offset, int length, char[] text, float[] target) {
+        Objects.checkFromIndexSize(offset, length, text.length);
+        Objects.checkIndex(length, target.length);
+
+        float width = 0f;
+        target[0] = 0f;
+        for (int i = 0; i < length; i++) {
+            char character = text[offset + i];
+            width += character < ASCII_SIZE ? asciiAdvances[character] : getAdvance(character);
+            target[i + 1] = width;
+        }
+    }
+
+    /**
+     * Returns the index of the character nearest to the given horizontal position, using the prefix
+     * widths computed with {@link #computePrefixWidths(int, int, char[], float[])}.
+     * <br>
+     * Time complexity: O(log(n))
+     *
+     * @param prefixWidths the prefix widths of a text
+     * @param length       the number of measured characters
+     * @param x            the horizontal position relative to the start of the text
+     * @return the index, in the range [0, length], of the nearest character boundary
+     * @throws NullPointerException if {@code prefixWidths == null}
+     */
+
+    public static int getIndexAt(float[] prefixWidths, int length, float x) {
+        int low = 0;
+        int high = length;
+        // finds the first character whose middle point is after x
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            float middlePoint = (prefixWidths[middle] + prefixWidths[middle + 1]) / 2f;
+            if (x < middlePoint) {
+                high = middle;
+            } else {
+                low = middle + 1;
+            }
+        }
+        return low;
+    }
+}
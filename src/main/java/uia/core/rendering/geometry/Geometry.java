@@ -10,17 +10,36 @@ import static uia.utility.MathUtility.*;
  * Geometry is responsible for handling a list of normalized vertices.
  * <br>
  * A normalized vertex has its dimensions (values) constrained between [-0.5, 0.5].
+ * <br>
+ * <br>
+ * <b>Shared vertices</b>
+ * <br>
+ * The geometries built by {@link GeometryCollection} share immutable, interned vertices:
+ * identical shapes are stored only once. A geometry copies the shared vertices the first time
+ * it is modified (copy-on-write), so sharing is transparent to the clients.
+ * <br>
+ * A geometry built again by {@link GeometryCollection} with different parameters, for instance
+ * an animated arc, is considered dynamic: from then on, it is built in its own vertices array,
+ * which is reused by the next builds.
  */
 
 public final class Geometry {
     private static final int INIT_VERTICES = 8;
     private static final int VERTICES_CHUNK_SIZE = 32;
+    private static final float[] NO_VERTICES = {};
 
     private float[] vertices;
     private int length = 0;
+    private boolean isShared;
+    private int version = 0;
+
+    // the GeometryCollection shape and parameters the vertices have been built with
+    private final float[] builtParameters = new float[7];
+    private boolean isBuilt = false;
 
     public Geometry() {
-        vertices = new float[INIT_VERTICES];
+        vertices = NO_VERTICES;
+        isShared = true;
     }
 
     @Override
@@ -38,11 +57,113 @@ public final class Geometry {
      */
 
     public Geometry removeAllVertices() {
-        vertices = new float[INIT_VERTICES];
+        version++;
+        isBuilt = false;
+        // the vertices array is reused, unless it is shared
+        if (isShared) {
+            vertices = NO_VERTICES;
+        }
         length = 0;
         return this;
     }
 
+    /**
+     * Helper method. Copies the shared vertices before they are modified.
+     */
+
+    private void ensureWritable() {
+        version++;
+        isBuilt = false;
+        if (isShared) {
+            vertices = Arrays.copyOf(vertices, Math.max(INIT_VERTICES, vertices.length));
+            isShared = false;
+        }
+    }
+
+    /**
+     * Replaces the vertices of this geometry with the given shared vertices.
+     * <br>
+     * The given array is never modified: it is copied when this geometry is modified.
+     * <br>
+     * Time complexity: T(1)
+     *
+     * @param sharedVertices the immutable vertices structured as [x1,y1, x2,y2, ..., xn,yn]
+     * @return this Geometry
+     */
+
+    Geometry setSharedVertices(float[] sharedVertices) {
+        version++;
+        isBuilt = false;
+        vertices = sharedVertices;
+        length = sharedVertices.length / 2;
+        isShared = true;
+        return this;
+    }
+
+    /**
+     * @return true if the vertices have been built by {@link GeometryCollection} and not modified since then
+     */
+
+    boolean isBuilt() {
+        return isBuilt;
+    }
+
+    /**
+     * Checks if the vertices have been built by {@link GeometryCollection} with the given shape and parameters.
+     *
+     * @return true if the vertices have been built with the given parameters and not modified since then
+     */
+
+    boolean isBuiltWith(int shape, int vertices, float a, float b, float c, float d, float e) {
+        float[] parameters = builtParameters;
+        return isBuilt
+                && parameters[0] == shape
+                && parameters[1] == vertices
+                && parameters[2] == a
+                && parameters[3] == b
+                && parameters[4] == c
+                && parameters[5] == d
+                && parameters[6] == e;
+    }
+
+    /**
+     * Records the shape and parameters the vertices have just been built with by {@link GeometryCollection}.
+     *
+     * @return this Geometry
+     */
+
+    Geometry setBuiltWith(int shape, int vertices, float a, float b, float c, float d, float e) {
+        float[] parameters = builtParameters;
+        parameters[0] = shape;
+        parameters[1] = vertices;
+        parameters[2] = a;
+        parameters[3] = b;
+        parameters[4] = c;
+        parameters[5] = d;
+        parameters[6] = e;
+        isBuilt = true;
+        return this;
+    }
+
+    /**
+     * Returns the version of this geometry. The version changes every time the vertices are modified,
+     * so it can be used to check whether data derived from the vertices is still valid.
+     *
+     * @return the version of this geometry
+     */
+
+    public int getVersion() {
+        return version;
+    }
+
+    /**
+     * @return true if the vertices of this geometry are shared with other geometries
+     */
+
+    public boolean isShared() {
+        return isShared && length > 0;
+    }
+
     /**
      * Adds a vertex to this geometry.
      *
@@ -52,6 +173,7 @@ public final class Geometry {
      */
 
     public Geometry addVertex(float x, float y) {
+        ensureWritable();
         // increases the internal array used to hold vertices
         if (2 * length == vertices.length) {
             vertices = Arrays.copyOf(vertices, vertices.length + VERTICES_CHUNK_SIZE);
@@ -102,6 +224,7 @@ public final class Geometry {
             throw new IndexOutOfBoundsException(error);
         }
 
+        ensureWritable();
         // modifies vertex
         vertices[2 * i] = MathUtility.constrain(x, -0.5f, 0.5f);
         vertices[2 * i + 1] = MathUtility.constrain(y, -0.5f, 0.5f);
@@ -129,6 +252,7 @@ public final class Geometry {
             throw new IndexOutOfBoundsException(error);
         }
 
+        ensureWritable();
         // removes the specified element
         System.arraycopy(vertices, 2 * (i + 1), vertices, 2 * i, 2 * (length - i - 1));
         vertices[2 * length - 1] = 0f;
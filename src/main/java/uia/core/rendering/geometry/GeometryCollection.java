@@ -1,20 +1,156 @@
 package uia.core.rendering.geometry;
 
 import uia.utility.MathUtility;
+import uia.utility.LRUCache;
 
 import java.util.Objects;
+import java.util.Arrays;
 
 import static uia.utility.MathUtility.*;
 
 /**
  * The GeometryCollection collects a list of geometries.
+ * <br>
+ * The built vertices are interned and shared by all the geometries built with the same
+ * parameters: components with the same shape don't hold a copy of it. A shared geometry copies
+ * its vertices only when it is modified.
+ * <br>
+ * A geometry built again with different parameters, like an animated arc, is dynamic: it is built
+ * in its own vertices array, without interning the intermediate shapes.
  */
 
 public final class GeometryCollection {
+    private static final int POOL_CAPACITY = 1024;
+
+    private static final int ROUNDED_RECT = 0;
+    private static final int OVAL = 1;
+    private static final int PLUS = 2;
+    private static final int DELETE = 3;
+    private static final int ARC = 4;
+
+    private static final float[] RECT_VERTICES = {
+            -0.5f, -0.5f,
+            0.5f, -0.5f,
+            0.5f, 0.5f,
+            -0.5f, 0.5f
+    };
+    private static final float[] TRIANGLE_VERTICES = {
+            -0.5f, -0.5f,
+            0.5f, 0,
+            -0.5f, 0.5f
+    };
+    private static final float[] ARROW_VERTICES = {
+            -0.5f, -0.5f,
+            0.5f, 0,
+            -0.5f, 0.5f,
+            -0.5f / 1.5f, 0
+    };
+
+    private static final LRUCache<GeometryKey, float[]> POOL = new LRUCache<>(POOL_CAPACITY);
+    private static final GeometryKey PROBE = new GeometryKey();
 
     private GeometryCollection() {
     }
 
+    /**
+     * Key of an interned geometry: the builder and its parameters.
+     */
+
+    private static final class GeometryKey {
+        private int shape;
+        private int vertices;
+        private final float[] parameters = new float[5];
+        private int hash;
+
+        /**
+         * Sets this key.
+         */
+
+        private GeometryKey set(int shape, int vertices, float a, float b, float c, float d, float e) {
+            this.shape = shape;
+            this.vertices = vertices;
+            parameters[0] = a;
+            parameters[1] = b;
+            parameters[2] = c;
+            parameters[3] = d;
+            parameters[4] = e;
+            hash = 31 * (31 * shape + vertices) + Arrays.hashCode(parameters);
+            return this;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            GeometryKey key = (GeometryKey) o;
+            return shape == key.shape
+                    && vertices == key.vertices
+                    && Arrays.equals(parameters, key.parameters);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * Helper function. Builds the specified shape into the given geometry.
+     * <br>
+     * The vertices are left untouched when the geometry has already been built with the same parameters.
+     * The first time, the geometry shares the interned vertices; when it is built again with
+     * different parameters, the vertices are built in its own array, without taking the pool lock.
+     * <br>
+     * Time complexity: T(1) when the geometry is unchanged or the vertices are interned
+     */
+
+    private static Geometry build(Geometry geometry, int shape, int vertices,
+                                  float a, float b, float c, float d, float e) {
+        Objects.requireNonNull(geometry);
+        if (geometry.isBuiltWith(shape, vertices, a, b, c, d, e)) {
+            return geometry;
+        }
+
+        if (geometry.isBuilt()) {
+            // a dynamic geometry reuses its own vertices array
+            buildShape(geometry.removeAllVertices(), shape, vertices, a, b, c, d, e);
+        } else {
+            float[] shared;
+            synchronized (POOL) {
+                shared = POOL.get(PROBE.set(shape, vertices, a, b, c, d, e));
+            }
+            if (shared == null) {
+                shared = buildShape(new Geometry(), shape, vertices, a, b, c, d, e).getVertices();
+                GeometryKey key = new GeometryKey().set(shape, vertices, a, b, c, d, e);
+                synchronized (POOL) {
+                    POOL.put(key, shared);
+                }
+            }
+            geometry.setSharedVertices(shared);
+        }
+        return geometry.setBuiltWith(shape, vertices, a, b, c, d, e);
+    }
+
+    /**
+     * Helper function. Adds the vertices of the specified shape to the given geometry.
+     */
+
+    private static Geometry buildShape(Geometry geometry, int shape, int vertices,
+                                       float a, float b, float c, float d, float e) {
+        switch (shape) {
+            case ROUNDED_RECT:
+                return buildRect(geometry, vertices / 4, a, b, c, d, e);
+            case OVAL:
+                return buildOval(geometry, vertices);
+            case PLUS:
+                return buildPlus(geometry, a);
+            case DELETE:
+                return buildDelete(geometry, a);
+            default:
+                return buildArc(geometry, vertices, a, b);
+        }
+    }
+
     /**
      * Standard number of geometry vertices.
      */
@@ -34,14 +170,7 @@ public final class GeometryCollection {
      */
 
     public static Geometry rect(Geometry geometry) {
-        geometry.removeAllVertices();
-        geometry.addVertices(
-                -0.5f, -0.5f,
-                0.5f, -0.5f,
-                0.5f, 0.5f,
-                -0.5f, 0.5f
-        );
-        return geometry;
+        return geometry.setSharedVertices(RECT_VERTICES);
     }
 
     /**
@@ -64,9 +193,20 @@ public final class GeometryCollection {
                                 float lowerRightRadius,
                                 float lowerLeftRadius,
                                 float ratio) {
-        geometry.removeAllVertices();
+        return build(geometry, ROUNDED_RECT, vertices,
+                upperLeftRadius, upperRightRadius, lowerRightRadius, lowerLeftRadius, ratio);
+    }
 
-        vertices = vertices / 4;
+    /**
+     * Helper function. Builds a rectangle with rounded corners.
+     */
+
+    private static Geometry buildRect(Geometry geometry, int vertices,
+                                      float upperLeftRadius,
+                                      float upperRightRadius,
+                                      float lowerRightRadius,
+                                      float lowerLeftRadius,
+                                      float ratio) {
 
         float f1 = 1;
         float f2 = 1;
@@ -130,13 +270,7 @@ public final class GeometryCollection {
      */
 
     public static Geometry triangle(Geometry geometry) {
-        geometry.removeAllVertices();
-        geometry.addVertices(
-                -0.5f, -0.5f,
-                0.5f, 0,
-                -0.5f, 0.5f
-        );
-        return geometry;
+        return geometry.setSharedVertices(TRIANGLE_VERTICES);
     }
 
     /**
@@ -149,7 +283,14 @@ public final class GeometryCollection {
      */
 
     public static Geometry oval(Geometry geometry, int vertices) {
-        geometry.removeAllVertices();
+        return build(geometry, OVAL, vertices, 0, 0, 0, 0, 0);
+    }
+
+    /**
+     * Helper function. Builds an oval.
+     */
+
+    private static Geometry buildOval(Geometry geometry, int vertices) {
         for (int i = 0; i <= vertices; i++) {
             float a = TWO_PI * i / vertices;
             geometry.addVertex(cos(a) / 2f, sin(a) / 2f);
@@ -166,14 +307,7 @@ public final class GeometryCollection {
      */
 
     public static Geometry arrow(Geometry geometry) {
-        geometry.removeAllVertices();
-        geometry.addVertices(
-                -0.5f, -0.5f,
-                0.5f, 0,
-                -0.5f, 0.5f,
-                -0.5f / 1.5f, 0
-        );
-        return geometry;
+        return geometry.setSharedVertices(ARROW_VERTICES);
     }
 
     /**
@@ -187,8 +321,15 @@ public final class GeometryCollection {
 
     public static Geometry plus(Geometry geometry, float thickness) {
         float th = MathUtility.constrain(Math.abs(thickness), 0, 0.375f);
-        geometry.removeAllVertices();
-        geometry.addVertices(
+        return build(geometry, PLUS, 0, th, 0, 0, 0, 0);
+    }
+
+    /**
+     * Helper function. Builds a plus geometry.
+     */
+
+    private static Geometry buildPlus(Geometry geometry, float th) {
+        return geometry.addVertices(
                 -th, -0.5f,
                 th, -0.5f,
                 th, -th,
@@ -202,7 +343,6 @@ public final class GeometryCollection {
                 -0.5f, -th,
                 -th, -th
         );
-        return geometry;
     }
 
     /**
@@ -216,8 +356,15 @@ public final class GeometryCollection {
 
     public static Geometry delete(Geometry geometry, float thickness) {
         float th = MathUtility.constrain(thickness, 0, 0.5f);
-        geometry.removeAllVertices();
-        geometry.addVertices(
+        return build(geometry, DELETE, 0, th, 0, 0, 0, 0);
+    }
+
+    /**
+     * Helper function. Builds a delete geometry.
+     */
+
+    private static Geometry buildDelete(Geometry geometry, float th) {
+        return geometry.addVertices(
                 -0.5f + th, -0.5f,
                 -0.5f, -0.5f,
                 -th / 2f, 0,
@@ -231,7 +378,6 @@ public final class GeometryCollection {
                 0.5f - th, -0.5f,
                 0, -th / 2f
         );
-        return geometry;
     }
 
     /**
@@ -246,8 +392,14 @@ public final class GeometryCollection {
      */
 
     public static Geometry arc(Geometry geometry, int vertices, float angle, float thickness) {
-        Objects.requireNonNull(geometry);
-        geometry.removeAllVertices();
+        return build(geometry, ARC, vertices, angle, thickness, 0, 0, 0);
+    }
+
+    /**
+     * Helper function. Builds an arc.
+     */
+
+    private static Geometry buildArc(Geometry geometry, int vertices, float angle, float thickness) {
 
         // outer part
         for (int i = vertices; i >= 0; i--) {
@@ -46,6 +46,9 @@ public final class Style {
     // generics
     private final Map<String, Object> genericAttributes;
 
+    private int revision = 0;
+    private int fontVersion;
+
     public Style() {
         backgroundColor = ColorCollection.WHITE;
         textColor = ColorCollection.BLACK;
@@ -55,6 +58,7 @@ public final class Style {
         textVerticalAlignment = TextVerticalAlignment.TOP;
 
         font = Font.createDesktopFont(Font.FontStyle.PLAIN);
+        fontVersion = font.getVersion();
 
         geometryBuilder = GeometryCollection::rect;
 
@@ -93,7 +97,10 @@ public final class Style {
         Objects.requireNonNull(attributeName);
         Objects.requireNonNull(value);
 
-        genericAttributes.put(attributeName, value);
+        Object previousValue = genericAttributes.put(attributeName, value);
+        if (!value.equals(previousValue)) {
+            revision++;
+        }
         return this;
     }
 
@@ -143,7 +150,10 @@ public final class Style {
 
     public Style setBackgroundColor(Color color) {
         Objects.requireNonNull(color);
-        backgroundColor = color;
+        if (!color.equals(backgroundColor)) {
+            backgroundColor = color;
+            revision++;
+        }
         return this;
     }
 
@@ -165,7 +175,10 @@ public final class Style {
      */
 
     public Style setBorderColor(Color color) {
-        borderColor = color;
+        if (!Objects.equals(color, borderColor)) {
+            borderColor = color;
+            revision++;
+        }
         return this;
     }
 
@@ -187,7 +200,10 @@ public final class Style {
      */
 
     public Style setTextColor(Color color) {
-        this.textColor = color;
+        if (!Objects.equals(color, textColor)) {
+            this.textColor = color;
+            revision++;
+        }
         return this;
     }
 
@@ -210,7 +226,10 @@ public final class Style {
         if (borderWidth < 0) {
             throw new IllegalArgumentException("'borderWidth' can't be < 0");
         }
-        this.borderWidth = borderWidth;
+        if (Float.compare(borderWidth, this.borderWidth) != 0) {
+            this.borderWidth = borderWidth;
+            revision++;
+        }
         return this;
     }
 
@@ -234,7 +253,10 @@ public final class Style {
 
     public Style setTextAlignment(TextHorizontalAlignment textAlignment) {
         Objects.requireNonNull(textAlignment);
-        textHorizontalAlignment = textAlignment;
+        if (textAlignment != textHorizontalAlignment) {
+            textHorizontalAlignment = textAlignment;
+            revision++;
+        }
         return this;
     }
 
@@ -256,7 +278,10 @@ public final class Style {
 
     public Style setTextAlignment(TextVerticalAlignment textAlignment) {
         Objects.requireNonNull(textAlignment);
-        textVerticalAlignment = textAlignment;
+        if (textAlignment != textVerticalAlignment) {
+            textVerticalAlignment = textAlignment;
+            revision++;
+        }
         return this;
     }
 
@@ -280,7 +305,11 @@ public final class Style {
 
     public Style setFont(Font font) {
         Objects.requireNonNull(font);
-        this.font = font;
+        if (font != this.font) {
+            this.font = font;
+            fontVersion = font.getVersion();
+            revision++;
+        }
         return this;
     }
 
@@ -289,10 +318,14 @@ public final class Style {
      *
      * @param name the font name
      * @return this Style
+     * @throws NullPointerException if {@code name == null}
      */
 
     public Style setFontName(String name) {
-        font.setName(name);
+        Objects.requireNonNull(name);
+        if (!name.equals(font.getName())) {
+            font.setName(name);
+        }
         return this;
     }
 
@@ -301,10 +334,14 @@ public final class Style {
      *
      * @param fontStyle the font style
      * @return this Style
+     * @throws NullPointerException if {@code fontStyle == null}
      */
 
     public Style setFontStyle(Font.FontStyle fontStyle) {
-        font.setStyle(fontStyle);
+        Objects.requireNonNull(fontStyle);
+        if (fontStyle != font.getStyle()) {
+            font.setStyle(fontStyle);
+        }
         return this;
     }
 
@@ -313,10 +350,16 @@ public final class Style {
      *
      * @param size the font size
      * @return this Style
+     * @throws IllegalArgumentException if {@code size <= 0}
      */
 
     public Style setFontSize(float size) {
-        font.setSize(size);
+        if (size <= 0) {
+            throw new IllegalArgumentException("'size' must be > 0");
+        }
+        if (Float.compare(size, font.getSize()) != 0) {
+            font.setSize(size);
+        }
         return this;
     }
 
@@ -341,8 +384,11 @@ public final class Style {
 
     public Style setGeometry(Consumer<Geometry> geometryBuilder, boolean dynamicBuilding) {
         Objects.requireNonNull(geometryBuilder);
-        this.buildGeometryDynamically = dynamicBuilding;
-        this.geometryBuilder = geometryBuilder;
+        if (geometryBuilder != this.geometryBuilder || dynamicBuilding != buildGeometryDynamically) {
+            this.buildGeometryDynamically = dynamicBuilding;
+            this.geometryBuilder = geometryBuilder;
+            revision++;
+        }
         return this;
     }
 
@@ -362,6 +408,30 @@ public final class Style {
         return this.buildGeometryDynamically;
     }
 
+    // revision
+
+    /**
+     * Returns the revision of the graphical settings of this Style.
+     * <br>
+     * The revision is increased every time an appearance attribute (colors, border, text, font,
+     * geometry and generic attributes) actually changes. Positioning and dimensioning attributes
+     * don't affect the revision.
+     * <br>
+     * The font is tracked by its version, so the changes made directly on the Font returned by
+     * {@link #getFont()} increase the revision too.
+     *
+     * @return the current Style revision
+     */
+
+    public int getRevision() {
+        int currentFontVersion = font.getVersion();
+        if (currentFontVersion != fontVersion) {
+            fontVersion = currentFontVersion;
+            revision++;
+        }
+        return revision;
+    }
+
     // margin & padding
 
     public Style setMargin() {
@@ -0,0 +1,143 @@
+package uia.utility;
+
+import java.util.LinkedHashMap;
+import java.util.Objects;
+import java.util.Map;
+
+/**
+ * Size-bounded cache that evicts the least recently used entry when it is full.
+ * <br>
+ * The cache counts its hits, misses and evictions, so that it can be sized on real workloads.
+ * <br>
+ * It is not thread-safe.
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ */
+
+public final class LRUCache<K, V> {
+    private final Map<K, V> entries;
+    private final int capacity;
+    private long evictions = 0L;
+    private long misses = 0L;
+    private long hits = 0L;
+
+    /**
+     * Creates a new LRUCache.
+     *
+     * @param capacity the maximum number of entries
+     * @throws IllegalArgumentException if {@code capacity <= 0}
+     */
+
+    public LRUCache(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("'capacity' must be greater than zero");
+        }
+        this.capacity = capacity;
+        entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                boolean full = size() > LRUCache.this.capacity;
+                if (full) {
+                    evictions++;
+                }
+                return full;
+            }
+        };
+    }
+
+    @Override
+    public String toString() {
+        return "LRUCache{size=" + entries.size() +
+                ", capacity=" + capacity +
+                ", hits=" + hits +
+                ", misses=" + misses +
+                ", evictions=" + evictions +
+                '}';
+    }
+
+    /**
+     * Returns the value associated to the given key and marks it as the most recently used.
+     * <br>
+     * Time complexity: T(1) on average
+     *
+     * @param key a not null key
+     * @return the cached value or null if the key is not cached
+     * @throws NullPointerException if {@code key == null}
+     */
+
+    public V get(K key) {
+        Objects.requireNonNull(key);
+        V result = entries.get(key);
+        if (result != null) {
+            hits++;
+        } else {
+            misses++;
+        }
+        return result;
+    }
+
+    /**
+     * Caches the given value. When the cache is full, the least recently used entry is evicted.
+     * <br>
+     * Time complexity: T(1) on average
+     *
+     * @param key   a not null key
+     * @param value a not null value
+     * @throws NullPointerException if {@code key == null || value == null}
+     */
+
+    public void put(K key, V value) {
+        Objects.requireNonNull(key);
+        Objects.requireNonNull(value);
+        entries.put(key, value);
+    }
+
+    /**
+     * Removes all the cached entries. Counters are not reset.
+     */
+
+    public void clear() {
+        entries.clear();
+    }
+
+    /**
+     * @return the number of cached entries
+     */
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * @return the maximum number of entries
+     */
+
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * @return the number of lookups that found a cached value
+     */
+
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * @return the number of lookups that didn't find a cached value
+     */
+
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * @return the number of entries evicted to make room for new ones
+     */
+
+    public long getEvictions() {
+        return evictions;
+    }
+}
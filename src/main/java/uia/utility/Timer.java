@@ -1,24 +1,54 @@
 package uia.utility;
 
+import java.util.function.LongSupplier;
+
 /**
  * Timer representation.
+ * <br>
+ * By default, timers measure the system time. A different clock can be installed on a thread with
+ * {@link #setClock(LongSupplier)}; for instance, to run an application on a virtual timeline. Timers read
+ * the clock of the thread that reads them, so each thread, and so each context, can have its own clock.
  */
 
 public class Timer {
+    private static final LongSupplier SYSTEM_CLOCK = System::currentTimeMillis;
+    private static final ThreadLocal<LongSupplier> CLOCK = ThreadLocal.withInitial(() -> SYSTEM_CLOCK);
+
     private long init;
     private long end;
 
     public Timer() {
-        init = System.currentTimeMillis();
+        init = CLOCK.get().getAsLong();
         end = 0;
     }
 
+    /**
+     * Sets the clock used by the timers read by the calling thread.
+     *
+     * @param newClock the clock that returns the current time in milliseconds; null to restore the system clock
+     * @return the clock previously used by the calling thread
+     */
+
+    public static LongSupplier setClock(LongSupplier newClock) {
+        LongSupplier result = CLOCK.get();
+        CLOCK.set(newClock != null ? newClock : SYSTEM_CLOCK);
+        return result;
+    }
+
+    /**
+     * @return the clock used by the timers read by the calling thread
+     */
+
+    public static LongSupplier getClock() {
+        return CLOCK.get();
+    }
+
     /**
      * Reset the elapsed time since the previous reset
      */
 
     public void reset() {
-        init = System.currentTimeMillis();
+        init = CLOCK.get().getAsLong();
     }
 
     /**
@@ -26,7 +56,7 @@ public class Timer {
      */
 
     public float seconds() {
-        end = System.currentTimeMillis();
+        end = CLOCK.get().getAsLong();
         return 0.001f * (end - init);
     }
 }
@@ -0,0 +1,72 @@
+package callback;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import uia.application.events.TypedCallbackStore;
+import uia.core.basement.Callable;
+import uia.core.basement.Callback;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TypedCallbackStoreTest {
+
+    @FunctionalInterface
+    interface MockCustomCallback extends Callback<Integer> {
+    }
+
+    @FunctionalInterface
+    interface MockOtherCallback extends Callback<Integer> {
+    }
+
+    Callable callable;
+
+    @BeforeEach
+    void beforeEach() {
+        callable = new TypedCallbackStore(10);
+    }
+
+    @Test
+    void onlyCallbacksOfTheGivenTypeShouldBeNotifiedInRegistrationOrder() {
+        StringBuilder notifications = new StringBuilder();
+
+        // setup
+        callable.registerCallback((MockCustomCallback) value -> notifications.append("a").append(value));
+        callable.registerCallback((MockOtherCallback) value -> notifications.append("b").append(value));
+        callable.registerCallback((MockCustomCallback) value -> notifications.append("c").append(value));
+
+        // act
+        callable.notifyCallbacks(MockCustomCallback.class, 1);
+
+        // verify
+        assertEquals("a1c1", notifications.toString());
+    }
+
+    @Test
+    void unregisteredCallbackShouldNotBeNotified() {
+        int[] notifications = {0};
+
+        // setup
+        long callbackID = callable.registerCallback((MockCustomCallback) value -> notifications[0]++);
+
+        // act
+        callable.unregisterCallback(callbackID);
+        callable.notifyCallbacks(MockCustomCallback.class, 1);
+
+        // verify
+        assertEquals(0, notifications[0]);
+        assertEquals(0, callable.numberOfCallbacks());
+        assertFalse(callable.hasCallbacks(MockCustomCallback.class));
+    }
+
+    @Test
+    void hasCallbacksShouldTellWhetherATypeHasBeenRegistered() {
+        // setup
+        callable.registerCallback((MockCustomCallback) value -> {
+        });
+
+        // verify
+        assertTrue(callable.hasCallbacks(MockCustomCallback.class));
+        assertFalse(callable.hasCallbacks(MockOtherCallback.class));
+    }
+}
@@ -0,0 +1,157 @@
+package messages;
+
+import org.junit.jupiter.api.Test;
+
+import uia.application.message.store.ConcurrentMessageStore.OverflowPolicy;
+import uia.application.message.store.ConcurrentMessageStore;
+import uia.application.message.ConflatedMessage;
+import uia.application.message.MessageFactory;
+import uia.application.message.TopicMessage;
+import uia.core.basement.message.Message;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrentMessageStoreTest {
+
+    Message createMockMessage(String sender) {
+        return MessageFactory.create("", sender, null);
+    }
+
+    @Test
+    void messagesShouldBeReturnedInInsertionOrder() {
+        // setup
+        ConcurrentMessageStore messageStore = new ConcurrentMessageStore(8, OverflowPolicy.BLOCK);
+        Message[] messages = {createMockMessage("a"), createMockMessage("b"), createMockMessage("c")};
+        for (Message message : messages) {
+            messageStore.add(message);
+        }
+
+        // act
+        List<Message> result = messageStore.pop(10);
+
+        // verify
+        assertArrayEquals(messages, result.toArray());
+        assertEquals(0, messageStore.size());
+    }
+
+    @Test
+    void oldestMessagesShouldBeDroppedWhenTheStoreIsFull() {
+        // setup
+        ConcurrentMessageStore messageStore = new ConcurrentMessageStore(2, OverflowPolicy.DROP_OLDEST);
+        Message[] messages = {createMockMessage("a"), createMockMessage("b"), createMockMessage("c")};
+        for (Message message : messages) {
+            messageStore.add(message);
+        }
+
+        // act
+        List<Message> result = messageStore.pop(10);
+
+        // verify
+        assertArrayEquals(new Message[]{messages[1], messages[2]}, result.toArray());
+        assertEquals(1, messageStore.getDroppedMessages());
+    }
+
+    @Test
+    void overflowingMessagesShouldBeCoalesced() {
+        // setup
+        ConcurrentMessageStore messageStore = new ConcurrentMessageStore(2, OverflowPolicy.COALESCE);
+        Message[] messages = {
+                createMockMessage("a"),
+                createMockMessage("a"),
+                createMockMessage("b"),
+                createMockMessage("c"),
+                createMockMessage("b")
+        };
+        for (Message message : messages) {
+            messageStore.add(message);
+        }
+
+        // act
+        List<Message> result = messageStore.pop(10);
+
+        // verify
+        assertArrayEquals(new Message[]{messages[0], messages[1], messages[4], messages[3]}, result.toArray());
+    }
+
+    @Test
+    void messagesWithDifferentTopicsOrPayloadTypesShouldNotBeCoalesced() {
+        // setup
+        ConcurrentMessageStore messageStore = new ConcurrentMessageStore(8, OverflowPolicy.COALESCE);
+        for (int i = 0; i < messageStore.getCapacity() - 2; i++) {
+            messageStore.add(createMockMessage("ring"));
+        }
+        Message[] messages = {
+                createMockMessage("a"),
+                createMockMessage("a"),
+                new TopicMessage("a", "price", 1),
+                new TopicMessage("a", "volume", 1),
+                MessageFactory.create(1, "a", null),
+                new ConflatedMessage("a", null, "price", 1, ConflatedMessage.NO_EXPIRATION),
+                new ConflatedMessage("a", null, "volume", 1, ConflatedMessage.NO_EXPIRATION),
+                new ConflatedMessage("a", null, "price", 2, ConflatedMessage.NO_EXPIRATION)
+        };
+        for (Message message : messages) {
+            messageStore.add(message);
+        }
+
+        // act
+        List<Message> result = messageStore.pop(100);
+
+        // verify
+        assertArrayEquals(new Message[]{
+                messages[0], messages[1], messages[2], messages[3], messages[4], messages[7], messages[6]
+        }, result.subList(messageStore.getCapacity() - 2, result.size()).toArray());
+    }
+
+    @Test
+    void overflowingMessagesThatCanNotBeCoalescedShouldNotGrowTheStore() {
+        // setup
+        ConcurrentMessageStore messageStore = new ConcurrentMessageStore(4, OverflowPolicy.COALESCE);
+        int messages = 10_000;
+
+        // act
+        for (int i = 0; i < messages; i++) {
+            messageStore.add(createMockMessage("sender" + i));
+        }
+        List<Message> result = messageStore.pop(messages);
+
+        // verify
+        assertEquals(2 * messageStore.getCapacity(), result.size());
+        assertEquals(messages - result.size(), messageStore.getDroppedMessages());
+        assertEquals("sender" + (messages - 1), result.get(result.size() - 1).getSender());
+    }
+
+    @Test
+    void messagesAddedByManyProducersShouldNotBeLost() throws InterruptedException {
+        // setup
+        int producers = 4;
+        int messagesPerProducer = 10_000;
+        ConcurrentMessageStore messageStore = new ConcurrentMessageStore(1024, OverflowPolicy.BLOCK);
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+
+        // act
+        for (int i = 0; i < producers; i++) {
+            executor.submit(() -> {
+                for (int j = 0; j < messagesPerProducer; j++) {
+                    messageStore.add(createMockMessage("producer"));
+                }
+            });
+        }
+        int receivedMessages = 0;
+        long timeout = System.currentTimeMillis() + 10_000;
+        while (receivedMessages < producers * messagesPerProducer && System.currentTimeMillis() < timeout) {
+            receivedMessages += messageStore.pop(256).size();
+        }
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.SECONDS);
+
+        // verify
+        assertEquals(producers * messagesPerProducer, receivedMessages);
+        assertEquals(0, messageStore.getDroppedMessages());
+    }
+}
@@ -0,0 +1,69 @@
+package messages;
+
+import org.junit.jupiter.api.Test;
+
+import uia.application.message.messagingsystem.InputCoalescer;
+import uia.application.message.MessageFactory;
+import uia.core.ui.primitives.ScreenTouch;
+import uia.core.basement.message.Message;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InputCoalescerTest {
+
+    Message createScreenTouchMessage(ScreenTouch.Action action, int x, int wheel) {
+        return MessageFactory.create(new ScreenTouch(action, ScreenTouch.Button.LEFT, x, 0, wheel), null);
+    }
+
+    @Test
+    void consecutiveMotionMessagesShouldBeMerged() {
+        // setup
+        List<Message> messages = List.of(
+                createScreenTouchMessage(ScreenTouch.Action.MOVED, 1, 0),
+                createScreenTouchMessage(ScreenTouch.Action.WHEEL, 2, 3),
+                createScreenTouchMessage(ScreenTouch.Action.MOVED, 3, 0),
+                createScreenTouchMessage(ScreenTouch.Action.WHEEL, 4, -1)
+        );
+
+        // act
+        List<Message> result = InputCoalescer.coalesce(messages);
+
+        // verify
+        assertEquals(1, result.size());
+        ScreenTouch[] screenTouches = result.get(0).getPayload();
+        assertEquals(2, screenTouches.length);
+        assertEquals(ScreenTouch.Action.MOVED, screenTouches[0].getAction());
+        assertEquals(3, screenTouches[0].getX());
+        assertEquals(ScreenTouch.Action.WHEEL, screenTouches[1].getAction());
+        assertEquals(4, screenTouches[1].getX());
+        assertEquals(2, screenTouches[1].getWheelRotation());
+    }
+
+    @Test
+    void edgeMessagesShouldNotBeMerged() {
+        // setup
+        List<Message> messages = List.of(
+                createScreenTouchMessage(ScreenTouch.Action.MOVED, 1, 0),
+                createScreenTouchMessage(ScreenTouch.Action.MOVED, 2, 0),
+                createScreenTouchMessage(ScreenTouch.Action.PRESSED, 2, 0),
+                createScreenTouchMessage(ScreenTouch.Action.DRAGGED, 3, 0),
+                createScreenTouchMessage(ScreenTouch.Action.DRAGGED, 4, 0),
+                createScreenTouchMessage(ScreenTouch.Action.RELEASED, 4, 0),
+                MessageFactory.create("hello", null)
+        );
+
+        // act
+        List<Message> result = InputCoalescer.coalesce(messages);
+
+        // verify
+        assertEquals(5, result.size());
+        assertSame(messages.get(2), result.get(1));
+        assertSame(messages.get(5), result.get(3));
+        assertSame(messages.get(6), result.get(4));
+        ScreenTouch[] draggedTouches = result.get(2).getPayload();
+        assertEquals(1, draggedTouches.length);
+        assertEquals(4, draggedTouches[0].getX());
+    }
+}
@@ -14,6 +14,8 @@ import uia.core.ui.callbacks.OnClick;
 import uia.core.ui.ViewGroup;
 import uia.core.ui.View;
 
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.CountDownLatch;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -119,6 +121,74 @@ class LockMessagesTest {
         assertTrue(lockReleased);
     }
 
+    @Test
+    void aLockedMessageShouldBeDeliveredToAnOwnerInsideANestedGroup() {
+        List<View> clickReceivedBy = new ArrayList<>();
+
+        // setup
+        ViewGroup nestedGroup = createViewGroup("nested", 0.5f, 0.5f, 1f, 1f);
+        View owner = createView("owner", 0.5f, 0.5f, 1f, 1f);
+        ViewGroup.insert(nestedGroup, owner);
+        ViewGroup.insert(rootView, nestedGroup);
+        owner.registerCallback((OnClick) touches -> clickReceivedBy.add(owner));
+        firstChild.registerCallback((OnClick) touches -> clickReceivedBy.add(firstChild));
+
+        // act
+        lockerService.requestLockOn(owner.getID(), ScreenTouchMessage.class);
+        sendMessage(createBroadcastClickMessage());
+
+        // verify
+        assertEquals(List.of(owner), clickReceivedBy);
+    }
+
+    @Test
+    void aLockShouldBeAcquiredByOnlyOneOfManyConcurrentRequesters() throws InterruptedException {
+        int requesters = 8;
+        AtomicInteger acquiredLocks = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+
+        // setup
+        for (int i = 0; i < requesters; i++) {
+            String sourceID = "requester" + i;
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                    if (lockerService.requestLockOn(sourceID, ScreenTouchMessage.class)) {
+                        acquiredLocks.incrementAndGet();
+                    }
+                } catch (InterruptedException ignored) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+
+        // act
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        // verify
+        assertEquals(1, acquiredLocks.get());
+    }
+
+    @Test
+    void aLockShouldBeReleasedOnlyByItsOwnerWhenTheOwnerIsSpecified() {
+        // setup
+        lockerService.requestLockOn("owner", ScreenTouchMessage.class);
+
+        // act
+        boolean releasedByOther = lockerService.releaseLockOn("other", ScreenTouchMessage.class);
+        boolean releasedByOwner = lockerService.releaseLockOn("owner", ScreenTouchMessage.class);
+
+        // verify
+        assertFalse(releasedByOther);
+        assertTrue(releasedByOwner);
+    }
+
     // sad paths
 
     @Test
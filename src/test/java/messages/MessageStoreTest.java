@@ -60,4 +60,43 @@ class MessageStoreTest {
             assertEquals(messagesToAdd[i], result.get(i));
         }
     }
+
+    @Test
+    void aConflatedMessageShouldReplaceThePendingOneWithTheSameKeyInPlace() {
+        // setup
+        messageStore.add(MessageFactory.createConflatedMessage(1, "feed", null, "price"));
+        messageStore.add(MessageFactory.create("other", null));
+        messageStore.add(MessageFactory.createConflatedMessage(2, "feed", null, "price"));
+        messageStore.add(MessageFactory.createConflatedMessage(10, "feed", null, "volume"));
+
+        // act
+        List<Message> messages = messageStore.pop(10);
+
+        // verify
+        assertEquals(Arrays.asList(2, "other", 10), Arrays.asList(
+                messages.get(0).getPayload(),
+                messages.get(1).getPayload(),
+                messages.get(2).getPayload()
+        ));
+        assertEquals(3, messages.size());
+        assertEquals(0, messageStore.size());
+    }
+
+    @Test
+    void anExpiredConflatedMessageShouldBeDropped() {
+        // setup
+        messageStore.add(MessageFactory.createConflatedMessage("stale", null, null, "status", 0L));
+        messageStore.add(MessageFactory.createConflatedMessage("live", null, null, "progress"));
+        long creationTime = System.nanoTime();
+        while (System.nanoTime() == creationTime) {
+            Thread.onSpinWait();
+        }
+
+        // act
+        List<Message> messages = messageStore.pop(10);
+
+        // verify
+        assertEquals(1, messages.size());
+        assertEquals("live", messages.get(0).getPayload());
+    }
 }
@@ -4,14 +4,21 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
 
+import uia.application.message.messagingsystem.MessagingSystem.Lane;
+import uia.application.message.messagingsystem.MessagingSystem;
+import uia.application.message.store.ConcreteMessageStore;
 import uia.application.message.store.GlobalMessageStore;
 import uia.core.basement.message.MessageStore;
 import uia.core.ui.callbacks.OnMessageReceived;
+import uia.application.message.ConflatedMessage;
 import uia.application.message.MessageFactory;
+import uia.core.ui.primitives.ScreenTouch;
 import uia.core.basement.message.Message;
+import uia.core.ui.callbacks.OnClick;
 import uia.core.ui.ViewGroup;
 import uia.core.ui.View;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import static utility.TestUtility.*;
@@ -20,6 +27,8 @@ import static org.junit.jupiter.api.Assertions.*;
 
 class MessagingSystemTest {
     ViewGroup rootView;
+    MessagingSystem messagingSystem;
+    List<Object> receivedPayloads;
 
     /**
      * Emulates the messaging system.
@@ -33,7 +42,122 @@ class MessagingSystemTest {
 
     @BeforeEach
     void beforeEach() {
+        GlobalMessageStore.getInstance().mount(new ConcreteMessageStore());
         rootView = createSimpleTree();
+        updateView(1000, 1000, rootView);
+
+        messagingSystem = new MessagingSystem();
+        receivedPayloads = new ArrayList<>();
+        View target = rootView.get("view2");
+        target.registerCallback((OnMessageReceived) message -> receivedPayloads.add(message.getPayload()));
+        target.registerCallback((OnClick) touches -> receivedPayloads.add("click"));
+    }
+
+    /**
+     * Stores the given messages in the global message store.
+     */
+
+    static void storeMessages(Object... payloads) {
+        MessageStore store = GlobalMessageStore.getInstance();
+        for (Object payload : payloads) {
+            store.add(MessageFactory.create(payload, null));
+        }
+    }
+
+    static Object[] createPayloads(int size) {
+        Object[] result = new Object[size];
+        for (int i = 0; i < size; i++) {
+            result[i] = i;
+        }
+        return result;
+    }
+
+    @Test
+    void inputShouldBeDispatchedBeforeTheApplicationMessages() {
+        // setup
+        storeMessages(createPayloads(100));
+        storeMessages(new ScreenTouch(ScreenTouch.Action.CLICKED, ScreenTouch.Button.LEFT, 200, 200, 0));
+        messagingSystem.setTimeBudget(1);
+
+        // act
+        messagingSystem.sendMessagesTo(rootView);
+
+        // verify
+        assertEquals("click", receivedPayloads.get(0));
+        assertEquals(1 + MessagingSystem.MIN_MESSAGES_PER_LANE, receivedPayloads.size());
+        assertEquals(100 - MessagingSystem.MIN_MESSAGES_PER_LANE, messagingSystem.getBacklog(Lane.APPLICATION));
+    }
+
+    @Test
+    void theBacklogShouldBeDispatchedInOrderOnTheNextCalls() {
+        // setup
+        Object[] payloads = createPayloads(100);
+        storeMessages(payloads);
+        messagingSystem.setTimeBudget(1);
+
+        // act
+        while (receivedPayloads.size() < payloads.length) {
+            messagingSystem.sendMessagesTo(rootView);
+        }
+
+        // verify
+        assertEquals(List.of(payloads), receivedPayloads);
+        assertEquals(0, messagingSystem.getBacklog(Lane.APPLICATION));
+    }
+
+    @Test
+    void messagesInTheLifecycleLaneShouldBeDispatchedBeforeTheApplicationMessages() {
+        // setup
+        storeMessages(createPayloads(50));
+        storeMessages("focus changed");
+        messagingSystem.setLane(String.class, Lane.LIFECYCLE);
+        messagingSystem.setTimeBudget(1);
+
+        // act
+        messagingSystem.sendMessagesTo(rootView);
+
+        // verify
+        assertEquals("focus changed", receivedPayloads.get(0));
+    }
+
+    @Test
+    void messagesShouldBeLeftInTheStoreWhenTheLanesAreFull() {
+        // setup
+        MessageStore store = GlobalMessageStore.getInstance();
+        storeMessages(createPayloads(100));
+        messagingSystem.setMaxMessagesToProcess(MessagingSystem.MIN_MESSAGES_PER_LANE * 2);
+        messagingSystem.setTimeBudget(1);
+
+        // act
+        messagingSystem.sendMessagesTo(rootView);
+        int storedAfterOneCall = store.size();
+        messagingSystem.sendMessagesTo(rootView);
+
+        // verify
+        assertEquals(100 - MessagingSystem.MIN_MESSAGES_PER_LANE * 2, storedAfterOneCall);
+        assertEquals(100 - MessagingSystem.MIN_MESSAGES_PER_LANE * 3, store.size());
+        assertEquals(MessagingSystem.MIN_MESSAGES_PER_LANE, messagingSystem.getBacklog(Lane.APPLICATION));
+    }
+
+    @Test
+    void aConflatedMessageWaitingInALaneShouldBeReplacedByTheLatestOne() {
+        // setup
+        MessageStore store = GlobalMessageStore.getInstance();
+        storeMessages(createPayloads(50));
+        store.add(new ConflatedMessage(null, null, "price", "old price", ConflatedMessage.NO_EXPIRATION));
+        messagingSystem.setTimeBudget(1);
+        messagingSystem.sendMessagesTo(rootView);
+
+        // act
+        store.add(new ConflatedMessage(null, null, "price", "new price", ConflatedMessage.NO_EXPIRATION));
+        while (messagingSystem.getBacklog(Lane.APPLICATION) > 0) {
+            messagingSystem.sendMessagesTo(rootView);
+        }
+
+        // verify
+        assertFalse(receivedPayloads.contains("old price"));
+        assertEquals("new price", receivedPayloads.get(receivedPayloads.size() - 1));
+        assertEquals(51, receivedPayloads.size());
     }
 
     @Disabled("")
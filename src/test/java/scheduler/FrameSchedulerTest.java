@@ -0,0 +1,56 @@
+package scheduler;
+
+import org.junit.jupiter.api.Test;
+
+import uia.application.scheduler.AdaptiveFrameScheduler;
+import uia.application.scheduler.OnDemandFrameScheduler;
+import uia.application.scheduler.FixedFrameScheduler;
+import uia.core.context.FrameScheduler;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FrameSchedulerTest {
+    static final long FRAME_TIME = 1_000_000L;
+
+    @Test
+    void fixedSchedulerShouldProduceFramesAtTheTargetRate() {
+        // setup
+        FrameScheduler scheduler = new FixedFrameScheduler(60);
+
+        // verify
+        assertEquals(1_000_000_000L / 60, scheduler.nextFramePeriod(FRAME_TIME, true));
+        assertEquals(1_000_000_000L / 60, scheduler.nextFramePeriod(FRAME_TIME, false));
+        assertEquals(0L, new FixedFrameScheduler(FixedFrameScheduler.UNLIMITED_FPS).getMinFramePeriod());
+    }
+
+    @Test
+    void adaptiveSchedulerShouldDropTheRateWhenIdleAndRampUpOnChanges() {
+        // setup
+        FrameScheduler scheduler = new AdaptiveFrameScheduler(2, 50, 0.25f);
+        long activePeriod = 1_000_000_000L / 50;
+        long idlePeriod = 1_000_000_000L / 2;
+
+        // act
+        long[] periods = new long[15];
+        for (int i = 0; i < 14; i++) {
+            periods[i] = scheduler.nextFramePeriod(FRAME_TIME, true);
+        }
+        periods[14] = scheduler.nextFramePeriod(FRAME_TIME, false);
+
+        // verify
+        assertEquals(activePeriod, periods[0]);
+        assertEquals(activePeriod, periods[12]);
+        assertEquals(idlePeriod, periods[13]);
+        assertEquals(activePeriod, periods[14]);
+    }
+
+    @Test
+    void onDemandSchedulerShouldWaitForChangesWhenIdle() {
+        // setup
+        FrameScheduler scheduler = new OnDemandFrameScheduler(60);
+
+        // verify
+        assertEquals(FrameScheduler.WAIT_FOR_CHANGES, scheduler.nextFramePeriod(FRAME_TIME, true));
+        assertEquals(1_000_000_000L / 60, scheduler.nextFramePeriod(FRAME_TIME, false));
+    }
+}
@@ -0,0 +1,64 @@
+package systemtracker;
+
+import uia.application.resourcetracker.monitorable.RollingHistogram;
+import uia.application.resourcetracker.FrameProfiler.Metric;
+import uia.application.resourcetracker.FrameProfiler;
+import uia.application.resourcetracker.SystemTracker;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FrameProfilerTest {
+    FrameProfiler profiler = FrameProfiler.getInstance();
+
+    @Test
+    void frameMeasuresShouldBeRecordedWhenTheFrameEnds() {
+        // setup
+        profiler.endFrame();
+
+        // act
+        profiler.increment(Metric.DRAW_CALLS);
+        profiler.increment(Metric.DRAW_CALLS);
+        profiler.add(Metric.DRAW_TIME, 1_500L);
+        profiler.endFrame();
+
+        // verify
+        assertEquals(2L, profiler.getHistogram(Metric.DRAW_CALLS).getValue());
+        assertEquals(1_500L, profiler.getHistogram(Metric.DRAW_TIME).getValue());
+    }
+
+    @Test
+    void histogramsShouldBeRegisteredInTheSystemTracker() {
+        // setup
+        SystemTracker tracker = SystemTracker.getInstance();
+
+        // act
+        RollingHistogram histogram = profiler.getHistogram(Metric.UPDATE_TIME);
+        int propertyID = profiler.getPropertyID(Metric.UPDATE_TIME);
+        profiler.add(Metric.UPDATE_TIME, 42L);
+        profiler.endFrame();
+
+        // verify
+        assertEquals(histogram.getValue(), tracker.<Long>getPropertyValue(propertyID));
+        assertEquals(42L, tracker.<Long>getPropertyValue(propertyID));
+    }
+
+    @Test
+    void aMetricShouldNotBeRecordedOnTheFramesWhereItIsNotMeasured() {
+        // setup
+        RollingHistogram histogram = profiler.getHistogram(Metric.PAINT_LATENCY);
+        profiler.endFrame();
+        profiler.add(Metric.PAINT_LATENCY, 7L);
+        profiler.endFrame();
+        int size = histogram.size();
+
+        // act
+        profiler.endFrame();
+        profiler.endFrame();
+
+        // verify
+        assertEquals(size, histogram.size());
+        assertEquals(7L, histogram.getValue());
+    }
+}
@@ -0,0 +1,43 @@
+package systemtracker;
+
+import uia.application.resourcetracker.monitorable.RollingHistogram;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RollingHistogramTest {
+
+    @Test
+    void percentilesShouldBeCalculatedOnTheRecordedSamples() {
+        // setup
+        RollingHistogram histogram = new RollingHistogram(100);
+
+        // act
+        for (int i = 100; i >= 1; i--) {
+            histogram.record(i);
+        }
+
+        // verify
+        assertEquals(50L, histogram.getP50());
+        assertEquals(95L, histogram.getP95());
+        assertEquals(99L, histogram.getP99());
+        assertEquals(1L, histogram.getValue());
+    }
+
+    @Test
+    void oldestSamplesShouldBeReplacedWhenTheHistogramIsFull() {
+        // setup
+        RollingHistogram histogram = new RollingHistogram(4);
+
+        // act
+        for (int i = 1; i <= 8; i++) {
+            histogram.record(i);
+        }
+
+        // verify
+        assertEquals(4, histogram.size());
+        assertEquals(5L, histogram.getPercentile(0));
+        assertEquals(8L, histogram.getPercentile(100));
+    }
+}
@@ -0,0 +1,353 @@
+package ui;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import uia.application.message.messagingsystem.MessagingSystem;
+import uia.application.ui.component.WrapperView;
+import uia.application.ui.group.ComponentGroup;
+import uia.application.message.MessageFactory;
+import uia.core.ui.primitives.ScreenTouch;
+import uia.core.basement.message.Message;
+import uia.core.ui.callbacks.OnMessageReceived;
+import uia.core.ui.callbacks.OnMouseExit;
+import uia.core.ui.ViewGroup;
+import uia.core.ui.View;
+
+import static utility.TestUtility.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ComponentGroupTest {
+    ViewGroup rootView;
+    int[] readMessages;
+
+    /**
+     * Creates a View that counts the received messages.
+     */
+
+    View createCountingView(String id, float x, float y, float width, float height, int index) {
+        return new WrapperView(createView(id, x, y, width, height)) {
+            @Override
+            public void readMessage(Message message) {
+                readMessages[index]++;
+                super.readMessage(message);
+            }
+        };
+    }
+
+    @BeforeEach
+    void beforeEach() {
+        readMessages = new int[4];
+        rootView = createRoot();
+        ViewGroup.insert(rootView,
+                createCountingView("view0", 0.25f, 0.25f, 0.5f, 0.5f, 0),
+                createCountingView("view1", 0.75f, 0.25f, 0.5f, 0.5f, 1),
+                createCountingView("view2", 0.25f, 0.75f, 0.5f, 0.5f, 2),
+                createCountingView("view3", 0.75f, 0.75f, 0.5f, 0.5f, 3)
+        );
+        updateView(1000, 1000, rootView);
+    }
+
+    @Test
+    void screenTouchShouldBeDispatchedOnlyToTheTouchedChildren() {
+        // act
+        Message message = MessageFactory.create(
+                new ScreenTouch(ScreenTouch.Action.MOVED, ScreenTouch.Button.LEFT, 800, 200, 0),
+                null);
+        rootView.readMessage(message);
+        rootView.readMessage(message);
+
+        // verify
+        assertArrayEquals(new int[]{0, 2, 0, 0}, readMessages);
+    }
+
+    @Test
+    void previouslyTouchedChildShouldBeNotifiedWhenTheScreenTouchLeavesIt() {
+        int[] countAssertions = {0};
+
+        // setup
+        rootView.get(1).registerCallback((OnMouseExit) touches -> countAssertions[0]++);
+
+        // act
+        Message[] messages = {
+                MessageFactory.create(new ScreenTouch(ScreenTouch.Action.MOVED, ScreenTouch.Button.LEFT, 800, 200, 0), null),
+                MessageFactory.create(new ScreenTouch(ScreenTouch.Action.MOVED, ScreenTouch.Button.LEFT, 200, 800, 0), null),
+                MessageFactory.create(new ScreenTouch(ScreenTouch.Action.MOVED, ScreenTouch.Button.LEFT, 210, 800, 0), null)
+        };
+        for (Message message : messages) {
+            rootView.readMessage(message);
+        }
+
+        // verify
+        assertEquals(1, countAssertions[0]);
+        assertArrayEquals(new int[]{0, 2, 2, 0}, readMessages);
+    }
+
+    @Test
+    void pressedScreenTouchShouldBeDispatchedToAllChildren() {
+        // act
+        Message message = MessageFactory.create(
+                new ScreenTouch(ScreenTouch.Action.PRESSED, ScreenTouch.Button.LEFT, 800, 200, 0),
+                null);
+        rootView.readMessage(message);
+
+        // verify
+        assertArrayEquals(new int[]{1, 1, 1, 1}, readMessages);
+    }
+
+    @Test
+    void screenTouchShouldReachAChildDrawnOutsideANestedGroupWithoutClip() {
+        // setup
+        ViewGroup nestedGroup = createViewGroup("nested", 0.25f, 0.25f, 0.5f, 0.5f);
+        nestedGroup.setClip(false);
+        ViewGroup.insert(nestedGroup, createCountingView("outside", 1.5f, 1.5f, 0.5f, 0.5f, 0));
+        ViewGroup root = createRoot();
+        ViewGroup.insert(root, nestedGroup);
+        updateView(1000, 1000, root);
+
+        // act
+        root.readMessage(MessageFactory.create(
+                new ScreenTouch(ScreenTouch.Action.MOVED, ScreenTouch.Button.LEFT, 750, 750, 0),
+                null));
+
+        // verify
+        assertEquals(1, readMessages[0]);
+    }
+
+    /**
+     * Creates a root with four wide subtrees.
+     */
+
+    ComponentGroup createWideTree() {
+        ComponentGroup result = (ComponentGroup) createRoot();
+        for (int i = 0; i < 4; i++) {
+            ViewGroup subtree = createViewGroup("group" + i, 0.25f + 0.5f * (i % 2), 0.25f + 0.5f * (i / 2), 0.5f, 0.5f);
+            for (int j = 0; j < ComponentGroup.PARALLEL_UPDATE_THRESHOLD; j++) {
+                ViewGroup.insert(subtree, createView("view" + j, j / 64f, 0.5f, 0.1f, 0.1f));
+            }
+            ViewGroup.insert(result, subtree);
+        }
+        return result;
+    }
+
+    @Test
+    void parallelUpdateShouldProduceTheSameLayoutAsTheSequentialOne() {
+        // setup
+        ComponentGroup sequentialTree = createWideTree();
+        ComponentGroup parallelTree = createWideTree();
+        parallelTree.setParallelUpdate(true);
+
+        // act
+        for (int i = 0; i < 2; i++) {
+            updateView(1000, 1000, sequentialTree);
+            updateView(1000, 1000, parallelTree);
+        }
+
+        // verify
+        for (int i = 0; i < sequentialTree.size(); i++) {
+            ViewGroup sequentialGroup = (ViewGroup) sequentialTree.get(i);
+            ViewGroup parallelGroup = (ViewGroup) parallelTree.get(i);
+            assertArrayEquals(sequentialGroup.boundsContent(), parallelGroup.boundsContent());
+            for (int j = 0; j < sequentialGroup.size(); j++) {
+                assertArrayEquals(sequentialGroup.get(j).getBounds(), parallelGroup.get(j).getBounds());
+            }
+        }
+        assertArrayEquals(sequentialTree.boundsContent(), parallelTree.boundsContent());
+    }
+
+    @Test
+    void aMessageWithARecipientShouldBeReadOnlyByItsRecipient() {
+        // act
+        rootView.readMessage(MessageFactory.create("hello", "view2"));
+
+        // verify
+        assertArrayEquals(new int[]{0, 0, 1, 0}, readMessages);
+    }
+
+    @Test
+    void aMessageWithARecipientShouldReachAViewInsertedIntoANestedGroup() {
+        int[] countAssertions = {0};
+
+        // setup
+        ViewGroup nestedGroup = createViewGroup("nested", 0.5f, 0.5f, 1f, 1f);
+        ViewGroup.insert(rootView, nestedGroup);
+        View deepView = createView("deep", 0.5f, 0.5f, 1f, 1f);
+        ViewGroup.insert(nestedGroup, deepView);
+        deepView.registerCallback((OnMessageReceived) message -> countAssertions[0]++);
+
+        // act
+        rootView.readMessage(MessageFactory.create("hello", "deep"));
+
+        // verify
+        assertEquals(1, countAssertions[0]);
+        assertArrayEquals(new int[]{0, 0, 0, 0}, readMessages);
+    }
+
+    @Test
+    void aRemovedSubtreeShouldBeRemovedFromTheRegistry() {
+        // setup
+        ComponentGroup nestedGroup = (ComponentGroup) createViewGroup("nested", 0.5f, 0.5f, 1f, 1f);
+        ViewGroup.insert(nestedGroup, createView("deep", 0.5f, 0.5f, 1f, 1f));
+        ViewGroup.insert(rootView, nestedGroup);
+        ComponentGroup root = (ComponentGroup) rootView;
+
+        // act
+        rootView.remove(nestedGroup);
+
+        // verify
+        assertNull(root.getRegistry().get("deep"));
+        assertNotNull(root.getRegistry().get("view0"));
+        assertEquals(1, nestedGroup.getRegistry().get("deep").length);
+    }
+
+    @Test
+    void aMessageWithARecipientShouldReachAViewInsideAWrappedGroup() {
+        int[] countAssertions = {0};
+
+        // setup
+        ViewGroup nestedGroup = createViewGroup("nested", 0.5f, 0.5f, 1f, 1f);
+        View deepView = createView("deep", 0.5f, 0.5f, 1f, 1f);
+        ViewGroup.insert(nestedGroup, deepView);
+        ViewGroup.insert(rootView, new WrapperView(nestedGroup) {
+        });
+        deepView.registerCallback((OnMessageReceived) message -> countAssertions[0]++);
+
+        // act
+        rootView.readMessage(MessageFactory.create("hello", "deep"));
+
+        // verify
+        assertEquals(1, countAssertions[0]);
+        assertArrayEquals(new int[]{0, 0, 0, 0}, readMessages);
+    }
+
+    @Test
+    void aRemovedWrappedGroupShouldBeRemovedFromTheRegistry() {
+        // setup
+        ComponentGroup nestedGroup = (ComponentGroup) createViewGroup("nested", 0.5f, 0.5f, 1f, 1f);
+        ViewGroup.insert(nestedGroup, createView("deep", 0.5f, 0.5f, 1f, 1f));
+        View wrapper = new WrapperView(nestedGroup) {
+        };
+        ViewGroup.insert(rootView, wrapper);
+        ComponentGroup root = (ComponentGroup) rootView;
+
+        // act
+        rootView.remove(wrapper);
+
+        // verify
+        assertNull(root.getRegistry().get("deep"));
+        assertNull(root.getRegistry().get("nested"));
+        assertEquals(1, nestedGroup.getRegistry().get("deep").length);
+    }
+
+    @Test
+    void aBroadcastMessageWithoutTopicShouldBeReadByTheWholeTree() {
+        // setup
+        MessagingSystem.subscribe(rootView.get(1), "ticks");
+
+        // act
+        rootView.readMessage(MessageFactory.create(1.5, null));
+        rootView.readMessage(MessageFactory.create("hello", null));
+
+        // verify
+        assertArrayEquals(new int[]{2, 2, 2, 2}, readMessages);
+    }
+
+    @Test
+    void aTopicMessageShouldBeReadOnlyByTheSubscribersOfItsTopic() {
+        int[] countAssertions = {0};
+
+        // setup
+        View subscriber = rootView.get(3);
+        subscriber.registerCallback((OnMessageReceived) message -> countAssertions[0]++);
+        MessagingSystem.subscribe(subscriber, "ticks");
+
+        // act
+        rootView.readMessage(MessageFactory.createTopicMessage(42, null, "ticks"));
+
+        // verify
+        assertEquals(1, countAssertions[0]);
+        assertArrayEquals(new int[]{0, 0, 0, 1}, readMessages);
+    }
+
+    @Test
+    void aTopicMessageShouldReachASubscriberInsideAWrappedGroup() {
+        int[] countAssertions = {0};
+
+        // setup
+        ViewGroup nestedGroup = createViewGroup("nested", 0.5f, 0.5f, 1f, 1f);
+        View subscriber = createView("deep", 0.5f, 0.5f, 1f, 1f);
+        ViewGroup.insert(nestedGroup, subscriber);
+        ViewGroup.insert(rootView, new WrapperView(nestedGroup) {
+        });
+        subscriber.registerCallback((OnMessageReceived) message -> countAssertions[0]++);
+        MessagingSystem.subscribe(subscriber, "ticks");
+
+        // act
+        rootView.readMessage(MessageFactory.createTopicMessage(42, null, "ticks"));
+
+        // verify
+        assertEquals(1, countAssertions[0]);
+        assertArrayEquals(new int[]{0, 0, 0, 0}, readMessages);
+    }
+
+    @Test
+    void aSubscriberRemovedFromTheTreeShouldNoLongerBeIndexed() {
+        // setup
+        ComponentGroup root = (ComponentGroup) rootView;
+        View subscriber = rootView.get(0);
+        MessagingSystem.subscribe(subscriber, "ticks");
+
+        // act
+        rootView.remove(subscriber);
+
+        // verify
+        assertNull(root.getRegistry().getSubscribers("ticks"));
+    }
+
+    @Test
+    void aSubscriberRemovedWithItsGroupShouldNoLongerBeIndexed() {
+        // setup
+        ComponentGroup root = (ComponentGroup) rootView;
+        ViewGroup nestedGroup = createViewGroup("nested", 0.5f, 0.5f, 1f, 1f);
+        View subscriber = createView("deep", 0.5f, 0.5f, 1f, 1f);
+        ViewGroup.insert(nestedGroup, subscriber);
+        ViewGroup.insert(rootView, nestedGroup);
+        MessagingSystem.subscribe(subscriber, "ticks");
+
+        // act
+        rootView.remove(nestedGroup);
+
+        // verify
+        assertNull(root.getRegistry().getSubscribers("ticks"));
+    }
+
+    @Test
+    void aSubscriberInsertedAgainShouldBeIndexedAgain() {
+        // setup
+        ComponentGroup root = (ComponentGroup) rootView;
+        View subscriber = rootView.get(0);
+        MessagingSystem.subscribe(subscriber, "ticks");
+        rootView.remove(subscriber);
+
+        // act
+        ViewGroup.insert(rootView, subscriber);
+
+        // verify
+        assertArrayEquals(new View[]{subscriber}, root.getRegistry().getSubscribers("ticks"));
+    }
+
+    @Test
+    void anUnsubscribedViewShouldNoLongerBeIndexed() {
+        // setup
+        ComponentGroup root = (ComponentGroup) rootView;
+        View subscriber = rootView.get(0);
+        MessagingSystem.subscribe(subscriber, "ticks");
+        root.getRegistry().getSubscribers("ticks");
+
+        // act
+        MessagingSystem.unsubscribe(subscriber, "ticks");
+
+        // verify
+        assertNull(root.getRegistry().getSubscribers("ticks"));
+    }
+}
@@ -0,0 +1,127 @@
+package ui;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import uia.application.message.store.ConcreteMessageStore;
+import uia.application.message.store.GlobalMessageStore;
+import uia.core.rendering.color.ColorCollection;
+import uia.core.ui.callbacks.OnMouseEnter;
+import uia.core.ui.callbacks.OnMouseHover;
+import uia.core.ui.callbacks.OnClick;
+import uia.core.context.Context;
+import uia.core.ui.View;
+
+import adaptor.swing.ContextHeadless;
+
+import java.awt.image.BufferedImage;
+
+import static utility.TestUtility.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContextHeadlessTest {
+    ContextHeadless context;
+
+    @BeforeEach
+    void beforeEach() {
+        GlobalMessageStore.getInstance().mount(new ConcreteMessageStore());
+        context = ContextHeadless.createAndStart(400, 300);
+    }
+
+    @AfterEach
+    void afterEach() {
+        context.setLifecycleStage(Context.LifecycleStage.TERMINATED);
+    }
+
+    @Test
+    void stepShouldRenderTheViewIntoTheImage() {
+        // setup
+        context.setView(createRoot());
+
+        // act
+        context.step(1);
+
+        // verify
+        BufferedImage image = context.getImage();
+        int[] navy = ColorCollection.NAVY.getRGBA();
+        int pixel = image.getRGB(200, 150);
+        assertEquals(navy[0], (pixel >> 16) & 0xff);
+        assertEquals(navy[1], (pixel >> 8) & 0xff);
+        assertEquals(navy[2], pixel & 0xff);
+    }
+
+    @Test
+    void emulatedClickShouldBeDeliveredOnTheNextStep() {
+        // setup
+        View root = createRoot();
+        int[] clicks = {0};
+        root.registerCallback((OnClick) touches -> clicks[0]++);
+        context.setView(root);
+        context.step(1);
+
+        // act
+        context.getInputEmulator().clickOn(200, 150);
+        context.step(1);
+
+        // verify
+        assertEquals(1, clicks[0]);
+    }
+
+    @Test
+    void emulatedMovementShouldBeSpreadOverTheVirtualTime() {
+        // setup
+        View root = createRoot();
+        int[] hovers = {0};
+        root.registerCallback((OnMouseEnter) touches -> hovers[0]++);
+        root.registerCallback((OnMouseHover) touches -> hovers[0]++);
+        context.setView(root);
+        context.setTimeStep(0.05f);
+        context.step(1);
+
+        // act
+        context.getInputEmulator().moveMouseOnScreen(0, 0, 300, 200, 10, 1f);
+        context.step(1);
+        int hoversAfterOneStep = hovers[0];
+        context.step(40);
+
+        // verify
+        assertTrue(hoversAfterOneStep < 10);
+        assertEquals(10, hovers[0]);
+    }
+
+    @Test
+    void stepShouldFailWhenTheContextIsNotRunning() {
+        // act
+        context.setLifecycleStage(Context.LifecycleStage.PAUSED);
+
+        // verify
+        assertThrows(IllegalStateException.class, () -> context.step(1));
+    }
+
+    @Test
+    void contextsShouldRunAtTheSameTimeWithTheirOwnDamages() {
+        // setup
+        ContextHeadless otherContext = ContextHeadless.createAndStart(400, 300);
+        View root = createRoot();
+        context.setView(root);
+        otherContext.setView(createRoot());
+        context.step(1);
+        otherContext.step(1);
+
+        try {
+            // act
+            root.getStyle().setBackgroundColor(ColorCollection.RED);
+            context.step(1);
+            otherContext.step(1);
+
+            // verify
+            int[] red = ColorCollection.RED.getRGBA();
+            int[] navy = ColorCollection.NAVY.getRGBA();
+            assertEquals(red[0], (context.getImage().getRGB(200, 150) >> 16) & 0xff);
+            assertEquals(navy[2], otherContext.getImage().getRGB(200, 150) & 0xff);
+        } finally {
+            otherContext.setLifecycleStage(Context.LifecycleStage.TERMINATED);
+        }
+    }
+}
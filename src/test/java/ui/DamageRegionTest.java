@@ -0,0 +1,96 @@
+package ui;
+
+import org.junit.jupiter.api.Test;
+
+import uia.application.ui.DamageRegion;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DamageRegionTest {
+
+    @Test
+    void damagedAreasShouldBeMergedAndConstrainedToTheViewport() {
+        // setup
+        DamageRegion damageRegion = new DamageRegion();
+        damageRegion.collect(new float[]{0f, 0f, 1f, 1f}, new float[4]);
+
+        // act
+        damageRegion.add(10f, 20f, 30f, 40f);
+        damageRegion.add(-50f, 30f, 70f, 10f);
+        float[] damagedArea = new float[4];
+        boolean isDamaged = damageRegion.collect(new float[]{0f, 0f, 500f, 500f}, damagedArea);
+
+        // verify
+        assertTrue(isDamaged);
+        assertArrayEquals(new float[]{0f, 20f, 40f, 40f}, damagedArea);
+        assertTrue(damageRegion.isEmpty());
+    }
+
+    @Test
+    void collectShouldReturnFalseWhenNothingHasBeenDamaged() {
+        // setup
+        DamageRegion damageRegion = new DamageRegion();
+        damageRegion.collect(new float[]{0f, 0f, 1f, 1f}, new float[4]);
+
+        // act
+        boolean isDamaged = damageRegion.collect(new float[]{0f, 0f, 500f, 500f}, new float[4]);
+
+        // verify
+        assertFalse(isDamaged);
+    }
+
+    @Test
+    void invalidateAllShouldDamageTheWholeViewport() {
+        // setup
+        DamageRegion damageRegion = new DamageRegion();
+        damageRegion.add(10f, 10f, 5f, 5f);
+
+        // act
+        damageRegion.invalidateAll();
+        float[] viewport = {0f, 0f, 200f, 100f};
+        float[] damagedArea = new float[4];
+        damageRegion.collect(viewport, damagedArea);
+
+        // verify
+        assertArrayEquals(viewport, damagedArea);
+    }
+
+    @Test
+    void damagesShouldBeAddedToTheRegionBoundToTheCallingThread() {
+        // setup
+        DamageRegion damageRegion = new DamageRegion();
+        DamageRegion otherDamageRegion = new DamageRegion();
+        float[] viewport = {0f, 0f, 200f, 100f};
+        damageRegion.collect(viewport, new float[4]);
+        otherDamageRegion.collect(viewport, new float[4]);
+
+        // act
+        DamageRegion previousDamageRegion = DamageRegion.bind(damageRegion);
+        try {
+            DamageRegion.getInstance().add(10f, 10f, 5f, 5f);
+        } finally {
+            DamageRegion.bind(previousDamageRegion);
+        }
+
+        // verify
+        assertTrue(damageRegion.collect(viewport, new float[4]));
+        assertFalse(otherDamageRegion.collect(viewport, new float[4]));
+    }
+
+    @Test
+    void damagesReportedWithoutABoundRegionShouldBeAddedToEveryRegion() {
+        // setup
+        DamageRegion damageRegion = new DamageRegion();
+        DamageRegion otherDamageRegion = new DamageRegion();
+        float[] viewport = {0f, 0f, 200f, 100f};
+        damageRegion.collect(viewport, new float[4]);
+        otherDamageRegion.collect(viewport, new float[4]);
+
+        // act
+        DamageRegion.getInstance().add(10f, 10f, 5f, 5f);
+
+        // verify
+        assertTrue(damageRegion.collect(viewport, new float[4]));
+        assertTrue(otherDamageRegion.collect(viewport, new float[4]));
+    }
+}
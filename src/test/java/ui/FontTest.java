@@ -2,8 +2,20 @@ package ui;
 
 import org.junit.jupiter.api.Test;
 
+import uia.application.ui.component.text.edit.structure.EdiTextAlgorithms;
+import uia.core.rendering.font.GlyphAdvanceTable;
+import uia.core.ui.style.TextHorizontalAlignment;
+import uia.core.ui.style.TextVerticalAlignment;
+import uia.core.rendering.font.FontMeasure;
 import uia.core.rendering.font.Font;
+import uia.core.ui.ViewText;
 
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static utility.TestUtility.*;
 import static org.junit.jupiter.api.Assertions.*;
 
 class FontTest {
@@ -22,4 +34,92 @@ class FontTest {
         int hashcodeFont2 = font2.hashCode();
         assertEquals(hashcodeFont1, hashcodeFont2);
     }
+
+    static final FontMeasure CODE_POINT_MEASURE = (offset, length, text) -> {
+        float result = 0f;
+        for (int i = offset; i < offset + length; i++) {
+            result += text[i] % 10;
+        }
+        return result;
+    };
+
+    @Test
+    void textWidthShouldBeTheSumOfTheCharacterAdvances() {
+        // setup
+        Font font = new Font("Arial", Font.FontStyle.PLAIN, 12f);
+        font.buildFont(1f, 1f, 1f, CODE_POINT_MEASURE);
+        char[] text = "ab\u00e8\u4e2d".toCharArray();
+
+        // verify
+        assertEquals(CODE_POINT_MEASURE.width(0, text.length, text), font.getWidth(0, text.length, text));
+        assertEquals(CODE_POINT_MEASURE.width(2, 1, text), font.getWidth(text[2]));
+        assertEquals(CODE_POINT_MEASURE.width(1, 2, text), font.getWidth(1, 2, text));
+    }
+
+    @Test
+    void prefixWidthsShouldLocateTheNearestCharacter() {
+        // setup
+        GlyphAdvanceTable table = new GlyphAdvanceTable((offset, length, text) -> 10f * length);
+        char[] text = "hello".toCharArray();
+        float[] prefixWidths = new float[text.length + 1];
+
+        // act
+        table.computePrefixWidths(0, text.length, text, prefixWidths);
+
+        // verify
+        assertEquals(50f, prefixWidths[text.length]);
+        assertEquals(0, GlyphAdvanceTable.getIndexAt(prefixWidths, text.length, 4f));
+        assertEquals(1, GlyphAdvanceTable.getIndexAt(prefixWidths, text.length, 6f));
+        assertEquals(5, GlyphAdvanceTable.getIndexAt(prefixWidths, text.length, 100f));
+    }
+
+    @Test
+    void theCharacterUnderThePointerShouldBeFoundWithThePrefixWidths() {
+        // setup
+        ViewText viewText = createViewText("text", 0.5f, 0.5f, 1f, 1f);
+        viewText.getStyle()
+                .setTextAlignment(TextHorizontalAlignment.CENTER)
+                .setTextAlignment(TextVerticalAlignment.TOP);
+        updateView(1000, 100, viewText);
+        viewText.getStyle().getFont().buildFont(1f, 1f, 1f, (offset, length, text) -> 10f * length);
+        char[] text = "hello\nworld".toCharArray();
+
+        // act
+        int inlineIndex = EdiTextAlgorithms.getIndexForInlineText(viewText, text, 5, 501f, 1f);
+        int multilineIndex = EdiTextAlgorithms.getIndexForMultilineText(viewText, text, text.length, 479f,
+                viewText.getStyle().getFont().getLineHeight() + 1f);
+
+        // verify
+        assertEquals(3, inlineIndex);
+        assertEquals(6, multilineIndex);
+    }
+
+    @Test
+    void aBlockShouldBeMeasuredOnceWhenReadByManyThreads() throws InterruptedException {
+        // setup
+        int threads = 4;
+        AtomicInteger measures = new AtomicInteger();
+        GlyphAdvanceTable table = new GlyphAdvanceTable((offset, length, text) -> {
+            measures.incrementAndGet();
+            return CODE_POINT_MEASURE.width(offset, length, text);
+        });
+        int asciiMeasures = measures.get();
+        char character = '\u0400';
+        float[] advances = new float[threads];
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        // act
+        for (int i = 0; i < threads; i++) {
+            int index = i;
+            executor.submit(() -> advances[index] = table.getAdvance(character));
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        // verify
+        assertEquals(GlyphAdvanceTable.BLOCK_SIZE, measures.get() - asciiMeasures);
+        for (float advance : advances) {
+            assertEquals(CODE_POINT_MEASURE.width(0, 1, character), advance);
+        }
+    }
 }
@@ -3,6 +3,7 @@ package ui;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import uia.core.rendering.geometry.GeometryCollection;
 import uia.core.rendering.geometry.Geometry;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -109,4 +110,71 @@ class GeometryTest {
         // act & verify
         assertThrows(IndexOutOfBoundsException.class, () -> geometry.setVertex(1, 0f, 0f));
     }
+
+    @Test
+    void geometriesBuiltWithTheSameParametersShouldShareTheirVertices() {
+        // setup
+        Geometry otherGeometry = new Geometry();
+
+        // act
+        GeometryCollection.rect(geometry, 20, 0.3f, 1.5f);
+        GeometryCollection.rect(otherGeometry, 20, 0.3f, 1.5f);
+
+        // verify
+        assertTrue(geometry.isShared());
+        assertSame(geometry.toArray(), otherGeometry.toArray());
+    }
+
+    @Test
+    void aSharedGeometryShouldBeCopiedWhenModified() {
+        // setup
+        Geometry otherGeometry = new Geometry();
+        GeometryCollection.oval(geometry, 12);
+        GeometryCollection.oval(otherGeometry, 12);
+        float[] expectedVertices = otherGeometry.getVertices();
+
+        // act
+        geometry.setVertex(0, 0f, 0f);
+
+        // verify
+        assertFalse(geometry.isShared());
+        assertArrayEquals(expectedVertices, otherGeometry.getVertices());
+        assertEquals(0f, geometry.getX(0));
+    }
+
+    @Test
+    void aGeometryRebuiltByHandShouldReuseItsVertices() {
+        // setup
+        geometry.addVertices(0f, 0f, 0.5f, 0.5f);
+        float[] vertices = geometry.toArray();
+
+        // act
+        geometry.removeAllVertices();
+        geometry.addVertices(0.1f, 0.1f, 0.2f, 0.2f);
+
+        // verify
+        assertSame(vertices, geometry.toArray());
+    }
+
+    @Test
+    void aGeometryRebuiltWithDifferentParametersShouldReuseItsOwnVertices() {
+        // setup
+        Geometry staticGeometry = new Geometry();
+        GeometryCollection.arc(staticGeometry, 20, 1f, 0.1f);
+        GeometryCollection.arc(geometry, 20, 1f, 0.1f);
+        GeometryCollection.arc(geometry, 20, 1.5f, 0.1f);
+        float[] vertices = geometry.toArray();
+
+        // act
+        GeometryCollection.arc(geometry, 20, 2f, 0.1f);
+
+        // verify
+        assertFalse(geometry.isShared());
+        assertSame(vertices, geometry.toArray());
+        assertArrayEquals(
+                GeometryCollection.arc(new Geometry(), 20, 2f, 0.1f).getVertices(),
+                geometry.getVertices()
+        );
+        assertNotSame(staticGeometry.toArray(), geometry.toArray());
+    }
 }
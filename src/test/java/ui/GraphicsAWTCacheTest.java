@@ -0,0 +1,205 @@
+package ui;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import adaptor.swing.graphics.GraphicsAWTCache;
+import uia.core.rendering.geometry.Geometry;
+import uia.core.rendering.color.Color;
+import uia.core.rendering.Transform;
+import uia.core.rendering.font.Font;
+
+import java.awt.font.FontRenderContext;
+import java.awt.geom.Rectangle2D;
+import java.awt.font.GlyphVector;
+import java.awt.geom.Path2D;
+
+import static utility.TestUtility.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class GraphicsAWTCacheTest {
+    GraphicsAWTCache cache;
+    Transform transform;
+    Geometry geometry;
+
+    @BeforeEach
+    void beforeEach() {
+        cache = new GraphicsAWTCache();
+        transform = new Transform()
+                .setTranslation(100, 50)
+                .setScale(20, 10);
+        geometry = new Geometry().addVertices(-0.5f, -0.5f, 0.5f, -0.5f, 0.5f, 0.5f, -0.5f, 0.5f);
+    }
+
+    @Test
+    void shapeShouldBeReusedWhenTransformAndVerticesDoNotChange() {
+        // act
+        Path2D first = cache.cacheAndGetNativeShape(transform, geometry);
+        Path2D second = cache.cacheAndGetNativeShape(transform, geometry);
+
+        // verify
+        assertSame(first, second);
+        assertEquals(new Rectangle2D.Float(90, 45, 20, 10), first.getBounds2D());
+    }
+
+    @Test
+    void shapeShouldBeRebuiltWhenTransformChanges() {
+        // setup
+        cache.cacheAndGetNativeShape(transform, geometry);
+
+        // act
+        transform.setTranslation(200, 50);
+        Path2D shape = cache.cacheAndGetNativeShape(transform, geometry);
+
+        // verify
+        assertEquals(new Rectangle2D.Float(190, 45, 20, 10), shape.getBounds2D());
+    }
+
+    @Test
+    void shapeShouldBeRebuiltWhenVerticesChange() {
+        // setup
+        cache.cacheAndGetNativeShape(transform, geometry);
+
+        // act
+        geometry.setVertex(1, 0.25f, -0.5f).setVertex(2, 0.25f, 0.5f);
+        Path2D shape = cache.cacheAndGetNativeShape(transform, geometry);
+
+        // verify
+        assertEquals(new Rectangle2D.Float(90, 45, 15, 10), shape.getBounds2D());
+    }
+
+    @Test
+    void shapesDrawnWithTheSameTransformShouldBeCachedSeparately() {
+        // setup
+        Geometry otherGeometry = new Geometry().addVertices(0f, 0f, 0.5f, 0f, 0.5f, 0.5f);
+        Path2D shape = cache.cacheAndGetNativeShape(transform, geometry);
+        Path2D otherShape = cache.cacheAndGetNativeShape(transform, otherGeometry);
+
+        // act
+        Path2D cachedShape = cache.cacheAndGetNativeShape(transform, geometry);
+        Path2D cachedOtherShape = cache.cacheAndGetNativeShape(transform, otherGeometry);
+
+        // verify
+        assertSame(shape, cachedShape);
+        assertSame(otherShape, cachedOtherShape);
+        assertEquals(new Rectangle2D.Float(90, 45, 20, 10), cachedShape.getBounds2D());
+        assertEquals(new Rectangle2D.Float(100, 50, 10, 5), cachedOtherShape.getBounds2D());
+    }
+
+    @Test
+    void equalColorsShouldShareTheNativeColor() {
+        // act
+        java.awt.Color first = cache.cacheAndGetNativeColor(Color.createColor(10, 20, 30, 40));
+        java.awt.Color second = cache.cacheAndGetNativeColor(Color.createColor(10, 20, 30, 40));
+        java.awt.Color third = cache.cacheAndGetNativeColor(Color.createColor(30, 20, 10, 40));
+
+        // verify
+        assertSame(first, second);
+        assertEquals(new java.awt.Color(30, 20, 10, 40), third);
+        assertEquals(1, cache.getHits());
+        assertEquals(2, cache.getMisses());
+    }
+
+    @Test
+    void leastRecentlyUsedEntriesShouldBeEvictedWhenTheCacheIsFull() {
+        // setup
+        GraphicsAWTCache boundedCache = new GraphicsAWTCache(2, 1, 1, 1);
+
+        // act
+        for (int i = 0; i < 100; i++) {
+            boundedCache.cacheAndGetNativeColor(Color.createColor(i));
+            boundedCache.cacheAndGetNativeStroke(i);
+        }
+
+        // verify
+        assertEquals(3, boundedCache.size());
+        assertEquals(98 + 99, boundedCache.getEvictions());
+    }
+
+    @Test
+    void nativeFontShouldBeRecreatedOnlyWhenTheFontChanges() {
+        // setup
+        Font font = new Font("Arial", Font.FontStyle.PLAIN, 12);
+
+        // act
+        java.awt.Font first = cache.cacheAndGetNativeFont(font);
+        java.awt.Font second = cache.cacheAndGetNativeFont(font);
+        font.setSize(20);
+        java.awt.Font third = cache.cacheAndGetNativeFont(font);
+
+        // verify
+        assertSame(first, second);
+        assertEquals(20, third.getSize());
+        assertTrue(font.isValid());
+    }
+
+    @Test
+    void textViewsWithEqualFontsShouldShareTheNativeFont() {
+        // setup
+        int views = 2 * GraphicsAWTCache.FONT_CAPACITY;
+        Font[] fonts = new Font[views];
+        for (int i = 0; i < views; i++) {
+            fonts[i] = createViewText("text" + i, 0.5f, 0.5f, 1f, 1f).getStyle().getFont();
+        }
+
+        // act
+        for (int frame = 0; frame < 2; frame++) {
+            for (Font font : fonts) {
+                cache.cacheAndGetNativeFont(font);
+            }
+        }
+
+        // verify
+        assertEquals(1, cache.getMisses());
+        assertEquals(2 * views - 1, cache.getHits());
+        assertEquals(0, cache.getEvictions());
+        assertTrue(fonts[views - 1].isValid());
+    }
+
+    @Test
+    void textRunShouldBeLaidOutOncePerFontAndContent() {
+        // setup
+        java.awt.Font font = new java.awt.Font("Arial", java.awt.Font.PLAIN, 12);
+        FontRenderContext renderContext = new FontRenderContext(null, false, false);
+        char[] label = "a label".toCharArray();
+
+        // act
+        GlyphVector first = cache.cacheAndGetNativeTextRun(font, renderContext, label, 2, 5);
+        GlyphVector second = cache.cacheAndGetNativeTextRun(font, renderContext, "label".toCharArray(), 0, 5);
+        GlyphVector third = cache.cacheAndGetNativeTextRun(font, renderContext, label, 0, 5);
+
+        // verify
+        assertSame(first, second);
+        assertNotSame(first, third);
+        assertEquals(5, first.getNumGlyphs());
+    }
+
+    @Test
+    void rightToLeftTextRunShouldBeLaidOutFromRightToLeft() {
+        // setup
+        java.awt.Font font = new java.awt.Font("Arial", java.awt.Font.PLAIN, 12);
+        FontRenderContext renderContext = new FontRenderContext(null, false, false);
+        char[] text = "\u05d0\u05d1\u05d2".toCharArray();
+
+        // act
+        GlyphVector result = cache.cacheAndGetNativeTextRun(font, renderContext, text, 0, text.length);
+
+        // verify
+        assertEquals(2, result.getGlyphCharIndex(0));
+        assertEquals(0, result.getGlyphCharIndex(2));
+    }
+
+    @Test
+    void textRunMixingDirectionsShouldNotBeCached() {
+        // setup
+        java.awt.Font font = new java.awt.Font("Arial", java.awt.Font.PLAIN, 12);
+        FontRenderContext renderContext = new FontRenderContext(null, false, false);
+        char[] text = "ab \u05d0\u05d1\u05d2".toCharArray();
+
+        // act
+        GlyphVector result = cache.cacheAndGetNativeTextRun(font, renderContext, text, 0, text.length);
+
+        // verify
+        assertNull(result);
+    }
+}
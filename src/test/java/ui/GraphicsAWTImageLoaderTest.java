@@ -0,0 +1,110 @@
+package ui;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import adaptor.swing.graphics.GraphicsAWTImageLoader;
+import uia.application.ui.DamageRegion;
+import uia.core.rendering.image.Image;
+
+import java.awt.image.BufferedImage;
+import javax.imageio.ImageIO;
+import java.nio.file.Path;
+import java.io.File;
+
+import static utility.TestUtility.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class GraphicsAWTImageLoaderTest {
+
+    @TempDir
+    Path directory;
+
+    /**
+     * Writes a new image file with the given size.
+     */
+
+    File createImageFile(String name, int width, int height) throws Exception {
+        File result = directory.resolve(name).toFile();
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), "png", result);
+        return result;
+    }
+
+    @Test
+    void imageShouldBeDecodedToTheRequestedSize() throws Exception {
+        // setup
+        File file = createImageFile("large.png", 800, 600);
+
+        // act
+        BufferedImage image = GraphicsAWTImageLoader.decode(file, 80, 60);
+
+        // verify
+        assertEquals(80, image.getWidth());
+        assertEquals(60, image.getHeight());
+    }
+
+    @Test
+    void imagesWithTheSamePathShouldShareTheDecodedImage() throws Exception {
+        // setup
+        String path = createImageFile("shared.png", 100, 100).getPath();
+        java.awt.Image placeholder = new BufferedImage(1, 1, BufferedImage.TYPE_INT_RGB);
+        Image first = new Image().load(path);
+        Image second = new Image().load(path);
+        GraphicsAWTImageLoader imageLoader = GraphicsAWTImageLoader.getInstance();
+
+        // act
+        imageLoader.load(first, placeholder, 50, 50, null);
+        imageLoader.load(second, placeholder, 50, 50, null);
+        waitUntil(() -> first.getNative() != placeholder && second.getNative() != placeholder, 10, 5000);
+
+        // verify
+        assertSame(first.getNative(), second.getNative());
+        assertEquals(50, first.width());
+        assertTrue(imageLoader.getUsedMemory() > 0);
+    }
+
+    @Test
+    void aLoadedImageShouldDamageOnlyItsArea() throws Exception {
+        // setup
+        String path = createImageFile("damage.png", 100, 100).getPath();
+        java.awt.Image placeholder = new BufferedImage(1, 1, BufferedImage.TYPE_INT_RGB);
+        Image image = new Image().load(path);
+        DamageRegion damageRegion = new DamageRegion();
+        float[] viewport = {0f, 0f, 500f, 500f};
+        damageRegion.collect(viewport, new float[4]);
+
+        // act
+        DamageRegion previousDamageRegion = DamageRegion.bind(damageRegion);
+        try {
+            GraphicsAWTImageLoader.getInstance().load(image, placeholder, 40, 30, new float[]{10f, 20f, 40f, 30f});
+        } finally {
+            DamageRegion.bind(previousDamageRegion);
+        }
+        waitUntil(() -> image.getNative() != placeholder, 10, 5000);
+        float[] damagedArea = new float[4];
+        damageRegion.collect(viewport, damagedArea);
+
+        // verify
+        assertArrayEquals(new float[]{10f, 20f, 40f, 30f}, damagedArea);
+    }
+
+    @Test
+    void aFailedRequestShouldBeRequestedAgain() throws Exception {
+        // setup
+        File file = directory.resolve("missing.png").toFile();
+        java.awt.Image placeholder = new BufferedImage(1, 1, BufferedImage.TYPE_INT_RGB);
+        Image image = new Image().load(file.getPath());
+        GraphicsAWTImageLoader imageLoader = GraphicsAWTImageLoader.getInstance();
+        imageLoader.load(image, placeholder, 20, 20, null);
+
+        // act
+        createImageFile("missing.png", 40, 40);
+        waitUntil(() -> {
+            imageLoader.load(image, placeholder, 20, 20, null);
+            return image.getNative() != placeholder;
+        }, 10, 5000);
+
+        // verify
+        assertEquals(20, image.width());
+    }
+}
@@ -0,0 +1,314 @@
+package ui;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import uia.core.rendering.color.ColorCollection;
+import uia.core.rendering.geometry.Geometry;
+import uia.core.rendering.RecordingGraphics;
+import uia.core.rendering.color.Color;
+import uia.core.rendering.image.Image;
+import uia.core.rendering.Transform;
+import uia.core.rendering.font.Font;
+import uia.core.rendering.Graphics;
+import uia.core.ui.style.TextHorizontalAlignment;
+import uia.core.context.Context;
+import uia.core.ui.ViewGroup;
+import uia.core.ui.ViewText;
+import uia.core.ui.View;
+
+import adaptor.swing.graphics.GraphicsAWTUtility;
+import adaptor.swing.ContextHeadless;
+
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static utility.TestUtility.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class RecordingGraphicsTest {
+    static final float[] SQUARE = {-0.5f, -0.5f, 0.5f, -0.5f, 0.5f, 0.5f, -0.5f, 0.5f};
+
+    /**
+     * Graphics that logs the received calls.
+     */
+
+    static class LoggingGraphics implements Graphics {
+        final List<String> log = new ArrayList<>();
+
+        @Override
+        public void dispose() {
+        }
+
+        @Override
+        public Graphics setClip(Transform transform, int length, float... vertices) {
+            log.add("clip");
+            return this;
+        }
+
+        @Override
+        public Graphics restoreClip() {
+            log.add("restoreClip");
+            return this;
+        }
+
+        @Override
+        public Graphics beginLayer(Image layer, int x, int y, int width, int height) {
+            log.add("beginLayer");
+            return this;
+        }
+
+        @Override
+        public Graphics endLayer() {
+            log.add("endLayer");
+            return this;
+        }
+
+        @Override
+        public Graphics setShapeColor(Color color) {
+            log.add("color " + color.getRed());
+            return this;
+        }
+
+        @Override
+        public Graphics setShapeBorderColor(Color borderColor) {
+            log.add("borderColor");
+            return this;
+        }
+
+        @Override
+        public Graphics setShapeBorderWidth(float lineWidth) {
+            log.add("borderWidth");
+            return this;
+        }
+
+        @Override
+        public Graphics drawShape(Transform transform, int length, float... vertices) {
+            log.add("shape " + (int) transform.getTranslationX());
+            return this;
+        }
+
+        @Override
+        public Graphics setFont(Font font) {
+            log.add("font");
+            return this;
+        }
+
+        @Override
+        public Graphics setTextColor(Color color) {
+            log.add("textColor");
+            return this;
+        }
+
+        @Override
+        public Graphics drawText(char[] data, int offset, int length, float x, float y, float rotation) {
+            log.add("text " + new String(data, offset, length));
+            return this;
+        }
+
+        @Override
+        public Graphics drawImage(Image image, float x, float y, float width, float height, float rotation) {
+            log.add("image");
+            return this;
+        }
+    }
+
+    RecordingGraphics recordingGraphics;
+    LoggingGraphics target;
+
+    @BeforeEach
+    void beforeEach() {
+        recordingGraphics = new RecordingGraphics();
+        target = new LoggingGraphics();
+    }
+
+    void drawSquare(int red, float x) {
+        Transform transform = new Transform()
+                .setTranslation(x, 50)
+                .setScale(20, 20);
+        recordingGraphics
+                .setShapeColor(Color.createColor(red, 0, 0))
+                .drawShape(transform, 4, SQUARE);
+    }
+
+    @Test
+    void drawsWithTheSameStateShouldBeBatchedWhenTheyDoNotOverlap() {
+        // setup
+        drawSquare(255, 0);
+        drawSquare(0, 100);
+        drawSquare(255, 200);
+
+        // act
+        recordingGraphics.replay(target);
+
+        // verify
+        assertEquals(Arrays.asList(
+                "color 255", "borderWidth", "shape 0", "shape 200",
+                "color 0", "shape 100"
+        ), target.log);
+    }
+
+    @Test
+    void overlappingDrawsShouldKeepTheirOrder() {
+        // setup
+        drawSquare(255, 0);
+        drawSquare(0, 100);
+        drawSquare(255, 110);
+
+        // act
+        recordingGraphics.replay(target);
+
+        // verify
+        assertEquals(Arrays.asList(
+                "color 255", "borderWidth", "shape 0",
+                "color 0", "shape 100",
+                "color 255", "shape 110"
+        ), target.log);
+    }
+
+    @Test
+    void drawsShouldNotBeMovedAcrossAClip() {
+        // setup
+        drawSquare(255, 0);
+        recordingGraphics.setClip(null, 0, SQUARE);
+        drawSquare(255, 200);
+        recordingGraphics.restoreClip();
+
+        // act
+        recordingGraphics.replay(target);
+
+        // verify
+        assertEquals(Arrays.asList(
+                "color 255", "borderWidth", "shape 0",
+                "clip", "shape 200", "restoreClip"
+        ), target.log);
+    }
+
+    @Test
+    void replayedShapesShouldKeepTheirOwnTransformAndGeometry() {
+        // setup
+        List<Object> drawnShapes = new ArrayList<>();
+        Graphics shapeTarget = new LoggingGraphics() {
+            @Override
+            public Graphics drawShape(Transform transform, Geometry geometry) {
+                drawnShapes.addAll(Arrays.asList(transform, transform.getVersion(), geometry, geometry.getVersion()));
+                return this;
+            }
+        };
+        drawSquare(255, 50);
+        drawSquare(255, 150);
+        recordingGraphics.replay(shapeTarget);
+        List<Object> firstReplay = new ArrayList<>(drawnShapes);
+        drawnShapes.clear();
+
+        // act
+        recordingGraphics.replay(shapeTarget);
+
+        // verify
+        assertNotSame(firstReplay.get(0), firstReplay.get(4));
+        assertNotSame(firstReplay.get(2), firstReplay.get(6));
+        assertEquals(firstReplay, drawnShapes);
+    }
+
+    @Test
+    void recordingShouldBeReplayedAnyNumberOfTimes() {
+        // setup
+        recordingGraphics.drawText("hello".toCharArray(), 1, 3, 10, 10, 0);
+
+        // act
+        recordingGraphics.replay(target);
+        recordingGraphics.replay(target);
+
+        // verify
+        assertEquals(Arrays.asList(
+                "textColor", "text ell",
+                "textColor", "text ell"
+        ), target.log);
+        assertEquals(1, recordingGraphics.getDrawCommands());
+    }
+
+    @Test
+    void fontsChangedAfterTheRecordingShouldNotChangeTheReplay() {
+        // setup
+        Font font = new Font("Arial", Font.FontStyle.PLAIN, 20f);
+        List<Font> replayedFonts = new ArrayList<>();
+        LoggingGraphics target = new LoggingGraphics() {
+            @Override
+            public Graphics setFont(Font font) {
+                replayedFonts.add(font);
+                return this;
+            }
+        };
+        recordingGraphics = new RecordingGraphics(GraphicsAWTUtility::createFont);
+        recordingGraphics
+                .setFont(font)
+                .drawText("hello".toCharArray(), 0, 5, 10, 10, 0);
+
+        // act
+        font.setSize(40f);
+        recordingGraphics.replay(target);
+
+        // verify
+        Font replayedFont = replayedFonts.get(0);
+        assertNotSame(font, replayedFont);
+        assertTrue(replayedFont.isValid());
+        assertEquals(20f, replayedFont.getSize());
+        assertFalse(font.isValid());
+    }
+
+    /**
+     * Draws the given View with a new ContextHeadless.
+     */
+
+    BufferedImage drawWithContext(View view, boolean displayListRendering) {
+        ContextHeadless context = ContextHeadless.createAndStart(300, 200);
+        try {
+            context.setDisplayListRendering(displayListRendering);
+            context.setView(view);
+            context.step(1);
+            return context.getImage();
+        } finally {
+            context.setLifecycleStage(Context.LifecycleStage.TERMINATED);
+        }
+    }
+
+    @Test
+    void displayListRenderingShouldProduceTheSameImage() {
+        // act
+        BufferedImage expected = drawWithContext(createSimpleTree(), false);
+        BufferedImage actual = drawWithContext(createSimpleTree(), true);
+
+        // verify
+        for (int y = 0; y < expected.getHeight(); y += 10) {
+            for (int x = 0; x < expected.getWidth(); x += 10) {
+                assertEquals(expected.getRGB(x, y), actual.getRGB(x, y));
+            }
+        }
+    }
+
+    @Test
+    void displayListRenderingShouldLayOutTextAsTheDirectRendering() {
+        // setup
+        ViewGroup[] trees = new ViewGroup[2];
+        for (int i = 0; i < trees.length; i++) {
+            ViewText text = createViewText("text", 0.5f, 0.5f, 0.8f, 0.5f);
+            text.setText("hello world");
+            text.getStyle().setTextAlignment(TextHorizontalAlignment.CENTER);
+            trees[i] = createRoot();
+            ViewGroup.insert(trees[i], text);
+        }
+
+        // act
+        BufferedImage expected = drawWithContext(trees[0], false);
+        BufferedImage actual = drawWithContext(trees[1], true);
+
+        // verify
+        for (int y = 0; y < expected.getHeight(); y++) {
+            for (int x = 0; x < expected.getWidth(); x++) {
+                assertEquals(expected.getRGB(x, y), actual.getRGB(x, y), "pixel (" + x + ", " + y + ")");
+            }
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package ui;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import uia.application.message.store.ConcreteMessageStore;
+import uia.application.message.store.GlobalMessageStore;
+import uia.application.ui.component.WrapperView;
+import uia.application.ui.group.ComponentGroup;
+import uia.core.rendering.Graphics;
+import uia.core.ui.ViewGroup;
+import uia.core.ui.ViewText;
+import uia.core.ui.View;
+
+import adaptor.swing.RenderingEngineSwing;
+
+import java.awt.image.BufferedImage;
+import java.awt.Graphics2D;
+
+import static utility.TestUtility.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class RenderingEngineSwingTest {
+    static final float[] DRAWABLE_BOUNDS = {0f, 0f, 300f, 200f};
+
+    @BeforeEach
+    void beforeEach() {
+        GlobalMessageStore.getInstance().mount(new ConcreteMessageStore());
+    }
+
+    /**
+     * Draws the given engine on a new image.
+     */
+
+    BufferedImage drawOnImage(RenderingEngineSwing renderingEngine) {
+        BufferedImage result = new BufferedImage(300, 200, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = result.createGraphics();
+        renderingEngine.draw(graphics);
+        graphics.dispose();
+        return result;
+    }
+
+    @Test
+    void snapshotShouldBePaintedOnlyOnce() {
+        // setup
+        RenderingEngineSwing renderingEngine = new RenderingEngineSwing();
+        renderingEngine.setSnapshotRendering(true);
+        renderingEngine.setView(createSimpleTree());
+
+        // act
+        renderingEngine.update(DRAWABLE_BOUNDS, true);
+        renderingEngine.recordSnapshot();
+        boolean isPaintedBeforeDrawing = renderingEngine.isSnapshotPainted();
+        drawOnImage(renderingEngine);
+
+        // verify
+        assertFalse(isPaintedBeforeDrawing);
+        assertTrue(renderingEngine.isSnapshotPainted());
+    }
+
+    @Test
+    void snapshotRenderingShouldProduceTheSameImage() {
+        // setup
+        RenderingEngineSwing directEngine = new RenderingEngineSwing();
+        RenderingEngineSwing snapshotEngine = new RenderingEngineSwing();
+        snapshotEngine.setSnapshotRendering(true);
+        directEngine.setView(createSimpleTree());
+        snapshotEngine.setView(createSimpleTree());
+
+        // act
+        directEngine.update(DRAWABLE_BOUNDS, true);
+        snapshotEngine.update(DRAWABLE_BOUNDS, true);
+        snapshotEngine.recordSnapshot();
+
+        // verify
+        BufferedImage expected = drawOnImage(directEngine);
+        BufferedImage actual = drawOnImage(snapshotEngine);
+        for (int y = 0; y < expected.getHeight(); y += 10) {
+            for (int x = 0; x < expected.getWidth(); x += 10) {
+                assertEquals(expected.getRGB(x, y), actual.getRGB(x, y));
+            }
+        }
+    }
+
+    /**
+     * Asserts that the given images have the same pixels.
+     */
+
+    void assertSameImage(BufferedImage expected, BufferedImage actual) {
+        for (int y = 0; y < expected.getHeight(); y++) {
+            for (int x = 0; x < expected.getWidth(); x++) {
+                assertEquals(expected.getRGB(x, y), actual.getRGB(x, y), "pixel (" + x + ", " + y + ")");
+            }
+        }
+    }
+
+    /**
+     * Creates a tree with a group that contains a text (id = text).
+     */
+
+    ViewGroup createTreeWithText(boolean cacheAsBitmap) {
+        ComponentGroup group = (ComponentGroup) createViewGroup("group", 0.5f, 0.5f, 0.8f, 0.8f);
+        group.setCacheAsBitmap(cacheAsBitmap);
+        ViewText text = createViewText("text", 0.5f, 0.5f, 0.8f, 0.5f);
+        text.setText("hello");
+        ViewGroup.insert(group, text);
+
+        ViewGroup root = createRoot();
+        ViewGroup.insert(root, group);
+        return root;
+    }
+
+    @Test
+    void cachedGroupShouldProduceTheSameImageAsAnUncachedOne() {
+        // setup
+        RenderingEngineSwing directEngine = new RenderingEngineSwing();
+        RenderingEngineSwing cachedEngine = new RenderingEngineSwing();
+        directEngine.setView(createTreeWithText(false));
+        cachedEngine.setView(createTreeWithText(true));
+
+        // act
+        directEngine.update(DRAWABLE_BOUNDS, true);
+        cachedEngine.update(DRAWABLE_BOUNDS, true);
+
+        // verify
+        assertSameImage(drawOnImage(directEngine), drawOnImage(cachedEngine));
+    }
+
+    @Test
+    void cachedGroupShouldBeRedrawnWhenADescendantChangesOutsideTheGroupUpdate() {
+        // setup
+        ViewGroup directTree = createTreeWithText(false);
+        ViewGroup cachedTree = createTreeWithText(true);
+        RenderingEngineSwing directEngine = new RenderingEngineSwing();
+        RenderingEngineSwing cachedEngine = new RenderingEngineSwing();
+        directEngine.setView(directTree);
+        cachedEngine.setView(cachedTree);
+        cachedEngine.update(DRAWABLE_BOUNDS, true);
+        drawOnImage(cachedEngine);
+
+        // act
+        for (ViewGroup tree : new ViewGroup[]{directTree, cachedTree}) {
+            ViewText text = (ViewText) ((ViewGroup) tree.get(0)).get(0);
+            text.setText("a different text");
+        }
+        directEngine.update(DRAWABLE_BOUNDS, true);
+        cachedEngine.update(DRAWABLE_BOUNDS, true);
+
+        // verify
+        assertSameImage(drawOnImage(directEngine), drawOnImage(cachedEngine));
+    }
+
+    @Test
+    void cachedGroupShouldNotRedrawItsChildrenWhenNothingChanged() {
+        int[] drawCount = {0};
+
+        // setup
+        ComponentGroup group = (ComponentGroup) createViewGroup("group", 0.5f, 0.5f, 0.8f, 0.8f);
+        group.setCacheAsBitmap(true);
+        View child = new WrapperView(createView("child", 0.5f, 0.5f, 0.5f, 0.5f)) {
+            @Override
+            public void draw(Graphics graphics) {
+                drawCount[0]++;
+                super.draw(graphics);
+            }
+        };
+        ViewGroup.insert(group, child);
+        RenderingEngineSwing renderingEngine = new RenderingEngineSwing();
+        renderingEngine.setView(group);
+
+        // act
+        for (int i = 0; i < 3; i++) {
+            renderingEngine.update(DRAWABLE_BOUNDS, true);
+            drawOnImage(renderingEngine);
+        }
+
+        // verify
+        assertEquals(1, drawCount[0]);
+    }
+}
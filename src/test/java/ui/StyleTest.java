@@ -66,6 +66,18 @@ class StyleTest {
         assertEquals(attributeValue2, result2);
     }
 
+    @Test
+    void theRevisionShouldChangeWhenTheFontIsChangedDirectly() {
+        // setup
+        int revision = style.getRevision();
+
+        // act
+        style.getFont().setSize(style.getFont().getSize() + 10f);
+
+        // verify
+        assertNotEquals(revision, style.getRevision());
+    }
+
     // sad paths
     @Test
     void addingAnInvalidAttributeShouldThrowAnError() {
@@ -80,4 +92,13 @@ class StyleTest {
         assertThrows(NullPointerException.class, () -> style.getAttribute(null));
         assertThrows(IllegalArgumentException.class, () -> style.getAttribute("attribute-1"));
     }
+
+    @Test
+    void settingAnInvalidFontShouldThrowAnError() {
+        // act and verify
+        assertThrows(NullPointerException.class, () -> style.setFontName(null));
+        assertThrows(NullPointerException.class, () -> style.setFontStyle(null));
+        assertThrows(IllegalArgumentException.class, () -> style.setFontSize(0f));
+        assertThrows(IllegalArgumentException.class, () -> style.setFontSize(-1f));
+    }
 }